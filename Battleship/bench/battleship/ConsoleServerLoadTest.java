@@ -0,0 +1,159 @@
+package battleship;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opens many players of the console server that stop in the middle of a game, and prints how many sessions
+ * are open, how many platform threads serve them and how much heap every session takes. The heap of
+ * a session is what the same number of connections without games do not take, i.e. its virtual thread,
+ * its buffers and its game. Then one more player plays a whole game to show that the prompts still answer.
+ * Run it with the number of players, e.g. {@code java -Xmx1g battleship.ConsoleServerLoadTest 5000},
+ * every player takes two file descriptors.
+ */
+public class ConsoleServerLoadTest {
+    /**
+     * The answers of a player up to the first shot: a 10x10 ocean with one ship of every type,
+     * without the recovery and the torpedo modes.
+     */
+    private static final String GAME = "1\n10\n10\n1\n1\n1\n1\n1\n2\n2\n";
+
+    public static void main(String[] args) throws Exception {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+
+        long before = usedHeap();
+        long connections = holdConnections(players) - before;
+
+        ConsoleServer server = new ConsoleServer(new InetSocketAddress("127.0.0.1", 0), false);
+        Thread thread = new Thread(server, "console-server");
+        thread.setDaemon(true);
+        thread.start();
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", server.getPort());
+
+        before = usedHeap();
+        long start = System.nanoTime();
+        List<SocketChannel> channels = new ArrayList<>(players);
+        for (int p = 0; p < players; p++) {
+            SocketChannel channel = SocketChannel.open(address);
+            ByteBuffer answers = ByteBuffer.wrap(GAME.getBytes(StandardCharsets.US_ASCII));
+            while (answers.hasRemaining()) {
+                channel.write(answers);
+            }
+            channels.add(channel);
+        }
+        while (server.getSessions() < players) {
+            Thread.sleep(10);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        // The sessions draw their oceans and block waiting for the first shot.
+        Thread.sleep(1000);
+        long sessions = usedHeap() - before;
+        System.out.printf("sessions: %d, opened in %.2f s, platform threads: %d%n", server.getSessions(),
+                seconds, ManagementFactory.getThreadMXBean().getThreadCount());
+        System.out.printf("heap: %.1f MB, per connection: %.1f KB, per session: %.1f KB%n", sessions / 1e6,
+                connections / 1024.0 / players, (sessions - connections) / 1024.0 / players);
+
+        System.out.println(playWholeGame(address) ? "A whole game was played." : "The game was not finished.");
+
+        for (SocketChannel channel : channels) {
+            channel.close();
+        }
+        server.close();
+        while (server.getSessions() > 0) {
+            Thread.sleep(10);
+        }
+        System.out.println("All sessions are closed.");
+    }
+
+    /**
+     * Opens connections that are only accepted, measures the heap and closes them.
+     * @param players the number of connections.
+     * @return the used heap while the connections are open.
+     * @throws IOException if a connection fails.
+     */
+    private static long holdConnections(int players) throws IOException, InterruptedException {
+        List<SocketChannel> channels = new ArrayList<>(2 * players);
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress("127.0.0.1", 0), 1024);
+            for (int p = 0; p < players; p++) {
+                channels.add(SocketChannel.open(server.getLocalAddress()));
+                channels.add(server.accept());
+            }
+            return usedHeap();
+        } finally {
+            for (SocketChannel channel : channels) {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Plays a 3x3 ocean with one submarine through the console prompts.
+     * @param address the address of the server.
+     * @return true if the game was won and the player quit.
+     * @throws IOException if the connection fails.
+     */
+    private static boolean playWholeGame(InetSocketAddress address) throws IOException {
+        try (Socket socket = new Socket(address.getAddress(), address.getPort());
+             BufferedReader in = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             PrintStream out = new PrintStream(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+            out.print("1\n3\n3\n0\n0\n0\n0\n1\n2\n2\n");
+            if (!readUntil(in, "Row index").contains("Row index")) {
+                return false;
+            }
+            for (int cell = 0; cell < 9; cell++) {
+                out.print(cell / 3 + "\n" + cell % 3 + "\n");
+                String line = readUntil(in, "Row index", "Congrats");
+                if (line.startsWith("Congrats")) {
+                    out.print("2\n");
+                    return readUntil(in, "Bye!").equals("Bye!");
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Reads lines until one of them contains one of the words.
+     * @param in the answers of the server.
+     * @param words the words to wait for.
+     * @return the line or an empty line if the connection is closed.
+     * @throws IOException if the connection fails.
+     */
+    private static String readUntil(BufferedReader in, String... words) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            for (String word : words) {
+                if (line.contains(word)) {
+                    return line;
+                }
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Get the used heap after the garbage is collected.
+     * @return the used heap in bytes.
+     */
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,118 @@
+package battleship;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Journals many games and replays them: it prints how many records per second are written with syncs
+ * after a number of records, how many shots per second are replayed, and checks that every replayed game
+ * has the same game field and counters as the game that was played. Every game is a 10x10 ocean with one
+ * ship of every type in recovery mode with torpedoes, shot at every cell in a random order.
+ * Run it with the number of games and the number of records between syncs,
+ * e.g. {@code java battleship.JournalBenchmark 2000 256}.
+ */
+public class JournalBenchmark {
+    /**
+     * The number of rows and columns of the ocean.
+     */
+    private static final int SIDE = 10;
+
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int syncEvery = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        Path directory = Files.createTempDirectory("journals");
+        GameEngine[] played = new GameEngine[games];
+        SplittableRandom random = new SplittableRandom(1);
+
+        long records = 0;
+        long start = System.nanoTime();
+        for (int g = 0; g < games; g++) {
+            long seed = random.nextLong();
+            GameConfig config = new GameConfig(SIDE, SIDE, true, 2, new Carrier(1), new Battleship(1),
+                    new Cruiser(1), new Destroyer(1), new Submarine(1));
+            GameEngine engine = new GameEngine(config, new SplittableRandom(seed));
+            try (GameJournal journal = GameJournal.create(file(directory, g), config, seed, syncEvery)) {
+                int[] cells = shuffledCells(random);
+                for (int cell : cells) {
+                    int row = cell / SIDE;
+                    int column = cell % SIDE;
+                    if (engine.getTorpedoes() > 0 && random.nextInt(20) == 0) {
+                        journal.torpedo(row, column);
+                        engine.fireTorpedo(row, column);
+                    } else {
+                        journal.shot(row, column);
+                        engine.fire(row, column);
+                    }
+                }
+                records += cells.length + 1;
+            }
+            played[g] = engine;
+        }
+        double writeSeconds = (System.nanoTime() - start) / 1e9;
+
+        int differ = 0;
+        start = System.nanoTime();
+        for (int g = 0; g < games; g++) {
+            if (!same(GameJournal.replay(file(directory, g)), played[g])) {
+                differ++;
+            }
+        }
+        double replaySeconds = (System.nanoTime() - start) / 1e9;
+        long shots = (long) games * SIDE * SIDE;
+        System.out.printf("games: %d, sync every: %d, records/s written: %.0f, shots/s replayed: %.0f, differ: %d%n",
+                games, syncEvery, records / writeSeconds, shots / replaySeconds, differ);
+
+        for (int g = 0; g < games; g++) {
+            Files.delete(file(directory, g));
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * Get the journal of a game.
+     * @param directory the directory of journals.
+     * @param game the number of the game.
+     * @return the path of the journal.
+     */
+    private static Path file(Path directory, int game) {
+        return directory.resolve(game + ".journal");
+    }
+
+    /**
+     * Get all cells of the ocean in a random order.
+     * @param random the source of random numbers.
+     * @return indexes of cells, i.e. row * columns + column.
+     */
+    private static int[] shuffledCells(SplittableRandom random) {
+        int[] cells = new int[SIDE * SIDE];
+        for (int i = 0; i < cells.length; i++) {
+            int j = random.nextInt(i + 1);
+            cells[i] = cells[j];
+            cells[j] = i;
+        }
+        return cells;
+    }
+
+    /**
+     * Checks if two games have the same game fields and counters.
+     * @param replayed the replayed game.
+     * @param played the played game.
+     * @return true if the games are the same.
+     */
+    private static boolean same(GameEngine replayed, GameEngine played) {
+        if (replayed.getShots() != played.getShots() || replayed.getTorpedoes() != played.getTorpedoes()
+                || replayed.getRemainingShips() != played.getRemainingShips()) {
+            return false;
+        }
+        for (int i = 0; i < SIDE; i++) {
+            for (int j = 0; j < SIDE; j++) {
+                if (replayed.getField(i, j) != played.getField(i, j)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,276 @@
+package battleship;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+/**
+ * Plays games on a journaling game server over two connections that resume the same game in turns, and checks
+ * that the journal of every game has one record for every shot answered by the server and that replaying
+ * it builds the same game as the one in the store. Every game is a 10x10 ocean with one ship of every type
+ * in recovery mode with torpedoes, shot at every cell in a random order, and the other connection resumes
+ * the game every few shots. The journals are checked when the connections are closed. Then games are played
+ * on a server that keeps one game in memory, so every game is evicted and replayed from its journal in the
+ * middle, and the connection that plays it starts a new game, which ends the old one in its journal.
+ * The servers are started in this process on the loopback.
+ * Run it with the number of games and the number of shots between resumes,
+ * e.g. {@code java battleship.JournalResumeTest 200 3}.
+ */
+public class JournalResumeTest {
+    /**
+     * The number of rows and columns of the ocean.
+     */
+    private static final int SIDE = 10;
+
+    /**
+     * The number of bytes of the record of the game in a journal.
+     */
+    private static final int HEADER = 48;
+
+    /**
+     * The number of bytes of a record of a shot in a journal.
+     */
+    private static final int RECORD = 9;
+
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int resumeEvery = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        Path directory = Files.createTempDirectory("journals");
+        GameServer server = new GameServer(new InetSocketAddress("127.0.0.1", 0), new FleetFeasibility(),
+                new SessionStore(games, Duration.ofMinutes(30), null), directory);
+        Thread thread = new Thread(server, "game-server");
+        thread.setDaemon(true);
+        thread.start();
+        SplittableRandom random = new SplittableRandom(1);
+
+        long[] ids = new long[games];
+        long[] shots = new long[games];
+        for (int g = 0; g < games; g++) {
+            try (Connection first = new Connection(server.getPort());
+                 Connection second = new Connection(server.getPort())) {
+                ids[g] = Long.parseLong(first.send("game 10 10 1 1 1 1 1 1 2 " + random.nextLong()).split(" ")[2]);
+                Connection player = first;
+                int[] cells = shuffledCells(random);
+                for (int k = 0; k < cells.length; k++) {
+                    if (k > 0 && k % resumeEvery == 0) {
+                        player = player == first ? second : first;
+                        player.send("resume " + ids[g]);
+                    }
+                    String command = random.nextInt(20) == 0 ? "torpedo " : "shot ";
+                    String answer = player.send(command + cells[k] / SIDE + " " + cells[k] % SIDE);
+                    if (answer.charAt(0) == 'E') {
+                        throw new IllegalStateException("The server refused a shot: " + answer);
+                    }
+                    // A torpedo that is not left is not made and not journaled.
+                    if (answer.charAt(0) != 'N') {
+                        shots[g]++;
+                    }
+                }
+            }
+        }
+        // The journals are closed with the connections.
+        while (server.getSessions() > 0) {
+            Thread.sleep(10);
+        }
+        int differ = 0;
+        for (int g = 0; g < games; g++) {
+            if (!same(directory, ids[g], shots[g], server.getStore().get(ids[g]))) {
+                differ++;
+            }
+        }
+        System.out.printf("games: %d, resume every: %d, differ: %d%n", games, resumeEvery, differ);
+        server.close();
+        delete(directory);
+
+        System.out.printf("evicted games: %d, differ: %d%n", games, evicted(games, random));
+    }
+
+    /**
+     * Plays games on a server that keeps one game in memory. A connection shoots half of the cells of its game,
+     * another connection starts a game that evicts it, the first connection shoots the other half and starts
+     * a new game, and a third connection tries to resume the old game.
+     * @param games the number of games.
+     * @param random the source of random numbers.
+     * @return the number of games whose journal does not have every shot and the end or that were resumed.
+     * @throws Exception if a connection fails or the server cannot be started.
+     */
+    private static int evicted(int games, SplittableRandom random) throws Exception {
+        Path directory = Files.createTempDirectory("journals");
+        GameServer server = new GameServer(new InetSocketAddress("127.0.0.1", 0), new FleetFeasibility(),
+                new SessionStore(1, Duration.ofMinutes(30), null), directory);
+        Thread thread = new Thread(server, "game-server");
+        thread.setDaemon(true);
+        thread.start();
+
+        int differ = 0;
+        for (int g = 0; g < games; g++) {
+            long seed = random.nextLong();
+            GameEngine played = new GameEngine(new GameConfig(SIDE, SIDE, true, 2, new Carrier(1),
+                    new Battleship(1), new Cruiser(1), new Destroyer(1), new Submarine(1)), new SplittableRandom(seed));
+            long id;
+            long shots = 0;
+            String resumed;
+            try (Connection player = new Connection(server.getPort());
+                 Connection other = new Connection(server.getPort());
+                 Connection third = new Connection(server.getPort())) {
+                id = Long.parseLong(player.send("game 10 10 1 1 1 1 1 1 2 " + seed).split(" ")[2]);
+                int[] cells = shuffledCells(random);
+                for (int k = 0; k < cells.length; k++) {
+                    if (k == cells.length / 2) {
+                        other.send("game 10 10 1 1 1 1 1 0 0 " + random.nextLong());
+                    }
+                    int row = cells[k] / SIDE;
+                    int column = cells[k] % SIDE;
+                    boolean torpedo = random.nextInt(20) == 0;
+                    String answer = player.send((torpedo ? "torpedo " : "shot ") + row + " " + column);
+                    if (answer.charAt(0) == 'E') {
+                        throw new IllegalStateException("The server refused a shot: " + answer);
+                    }
+                    if (answer.charAt(0) != 'N') {
+                        shots++;
+                        if (torpedo) {
+                            played.fireTorpedo(row, column);
+                        } else {
+                            played.fire(row, column);
+                        }
+                    }
+                }
+                player.send("game 10 10 1 1 1 1 1 0 0 " + random.nextLong());
+                resumed = third.send("resume " + id);
+            }
+            Path file = directory.resolve(Long.toHexString(id) + ".journal");
+            if (resumed.charAt(0) != 'E' || !GameJournal.isQuit(file)
+                    || Files.size(file) != HEADER + (shots + 1) * RECORD
+                    || !same(shots, played, GameJournal.replay(file))) {
+                differ++;
+            }
+        }
+        server.close();
+        delete(directory);
+        return differ;
+    }
+
+    /**
+     * Checks if a journal has the shots of a game and builds the same game.
+     * @param directory the directory of journals.
+     * @param id the id of the game.
+     * @param shots the number of shots the server answered.
+     * @param played the game in the store.
+     * @return true if the journal is right.
+     * @throws IOException if the journal cannot be read.
+     */
+    private static boolean same(Path directory, long id, long shots, GameEngine played) throws IOException {
+        Path file = directory.resolve(Long.toHexString(id) + ".journal");
+        if (played == null || Files.size(file) != HEADER + shots * RECORD) {
+            return false;
+        }
+        return same(shots, played, GameJournal.replay(file));
+    }
+
+    /**
+     * Checks if a replayed game has the shots of a game and the same game field and counters.
+     * @param shots the number of shots the server answered.
+     * @param played the played game.
+     * @param replayed the game replayed from the journal.
+     * @return true if the games are the same.
+     */
+    private static boolean same(long shots, GameEngine played, GameEngine replayed) {
+        if (replayed.getShots() != shots || replayed.getShots() != played.getShots()
+                || replayed.getTorpedoes() != played.getTorpedoes()
+                || replayed.getRemainingShips() != played.getRemainingShips()) {
+            return false;
+        }
+        for (int i = 0; i < SIDE; i++) {
+            for (int j = 0; j < SIDE; j++) {
+                if (replayed.getField(i, j) != played.getField(i, j)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Deletes a directory of journals.
+     * @param directory the directory.
+     * @throws IOException if a file cannot be deleted.
+     */
+    private static void delete(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * Get all cells of the ocean in a random order.
+     * @param random the source of random numbers.
+     * @return indexes of cells, i.e. row * columns + column.
+     */
+    private static int[] shuffledCells(SplittableRandom random) {
+        int[] cells = new int[SIDE * SIDE];
+        for (int i = 0; i < cells.length; i++) {
+            int j = random.nextInt(i + 1);
+            cells[i] = cells[j];
+            cells[j] = i;
+        }
+        return cells;
+    }
+
+    /**
+     * A connection that sends a command and waits for its answer.
+     */
+    private static final class Connection implements AutoCloseable {
+        /**
+         * The socket.
+         */
+        private final Socket socket;
+
+        /**
+         * Commands to the server.
+         */
+        private final PrintWriter commands;
+
+        /**
+         * Answers of the server.
+         */
+        private final BufferedReader answers;
+
+        Connection(int port) throws IOException {
+            socket = new Socket("127.0.0.1", port);
+            socket.setTcpNoDelay(true);
+            commands = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII);
+            answers = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        }
+
+        /**
+         * Sends a command.
+         * @param command the command without the line break.
+         * @return the answer.
+         * @throws IOException if the connection fails.
+         */
+        String send(String command) throws IOException {
+            commands.println(command);
+            String answer = answers.readLine();
+            if (answer == null) {
+                throw new IOException("The server closed the connection.");
+            }
+            return answer;
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
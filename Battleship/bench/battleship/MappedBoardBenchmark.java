@@ -0,0 +1,156 @@
+package battleship;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Plays games on memory-mapped boards that are closed and opened again every few shots, next to the same
+ * games in memory, and checks that every shot has the same result and the games end with the same game
+ * fields and counters. Every game is a 10x10 ocean with one ship of every type in recovery mode with
+ * torpedoes, shot at every cell in a random order. Then a huge board is arranged, shot, closed and opened
+ * again, its counters and the memorized cell of recovery mode are checked, and the time of opening it
+ * is printed.
+ * Run it with the number of games and the number of shots between reopens,
+ * e.g. {@code java battleship.MappedBoardBenchmark 500 3}.
+ */
+public class MappedBoardBenchmark {
+    /**
+     * The number of rows and columns of the small ocean.
+     */
+    private static final int SIDE = 10;
+
+    /**
+     * The number of rows and columns of the huge ocean.
+     */
+    private static final int HUGE_SIDE = 50_000;
+
+    /**
+     * The number of ships of every type of the huge ocean.
+     */
+    private static final int HUGE_FLEETS = 20_000;
+
+    public static void main(String[] args) throws IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int reopenEvery = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        Path directory = Files.createTempDirectory("boards");
+        Path file = directory.resolve("game.board");
+        SplittableRandom random = new SplittableRandom(1);
+
+        int differ = 0;
+        long reopens = 0;
+        long reopenNanos = 0;
+        for (int g = 0; g < games; g++) {
+            long seed = random.nextLong();
+            GameConfig config = new GameConfig(SIDE, SIDE, true, 2, new Carrier(1), new Battleship(1),
+                    new Cruiser(1), new Destroyer(1), new Submarine(1));
+            GameEngine memory = new GameEngine(config, new SplittableRandom(seed));
+            MappedBoard board = MappedBoard.create(file, SIDE, SIDE, 0);
+            GameEngine mapped = new GameEngine(config, new SplittableRandom(seed), board);
+            boolean same = true;
+            int shots = 0;
+            for (int cell : shuffledCells(random)) {
+                int row = cell / SIDE;
+                int column = cell % SIDE;
+                boolean torpedo = memory.getTorpedoes() > 0 && random.nextInt(20) == 0;
+                ShotResult expected = torpedo ? memory.fireTorpedo(row, column) : memory.fire(row, column);
+                ShotResult result = torpedo ? mapped.fireTorpedo(row, column) : mapped.fire(row, column);
+                same &= result == expected;
+                if (++shots % reopenEvery == 0) {
+                    board.close();
+                    long start = System.nanoTime();
+                    board = MappedBoard.open(file, 0);
+                    mapped = new GameEngine(board);
+                    reopenNanos += System.nanoTime() - start;
+                    reopens++;
+                }
+            }
+            if (!same || !same(mapped, memory, SIDE, SIDE)) {
+                differ++;
+            }
+            board.close();
+            Files.delete(file);
+        }
+        System.out.printf("games: %d, reopen every: %d, reopens: %d, us per reopen: %.1f, differ: %d%n",
+                games, reopenEvery, reopens, reopenNanos / 1e3 / Math.max(reopens, 1), differ);
+
+        huge(file, random);
+        Files.delete(file);
+        Files.delete(directory);
+    }
+
+    /**
+     * Arranges a huge board, shoots its top left part, opens it again and prints the time it took.
+     * @param file the file of the board.
+     * @param random the source of random numbers.
+     * @throws IOException if the file cannot be written.
+     */
+    private static void huge(Path file, SplittableRandom random) throws IOException {
+        GameConfig config = new GameConfig(HUGE_SIDE, HUGE_SIDE, true, 3, new Carrier(HUGE_FLEETS),
+                new Battleship(HUGE_FLEETS), new Cruiser(HUGE_FLEETS), new Destroyer(HUGE_FLEETS),
+                new Submarine(HUGE_FLEETS));
+        int side = 1000;
+        GameEngine played;
+        try (MappedBoard board = MappedBoard.create(file, HUGE_SIDE, HUGE_SIDE, 0)) {
+            played = new GameEngine(config, new SplittableRandom(2), board);
+            for (int i = 0; i < 100_000; i++) {
+                played.fire(random.nextInt(side), random.nextInt(side));
+            }
+        }
+        long start = System.nanoTime();
+        try (MappedBoard board = MappedBoard.open(file, 0)) {
+            GameEngine reopened = new GameEngine(board);
+            Ocean ocean = reopened.getOcean();
+            boolean same = reopened.getShots() == played.getShots()
+                    && reopened.getTorpedoes() == played.getTorpedoes()
+                    && reopened.getRemainingShips() == played.getRemainingShips()
+                    && ocean.getFirstMemorizedIndex() == played.getOcean().getFirstMemorizedIndex()
+                    && ocean.getSecondMemorizedIndex() == played.getOcean().getSecondMemorizedIndex()
+                    && ocean.isHit() == played.getOcean().isHit();
+            // The first lookup of a ship sorts the first cells of all ships.
+            reopened.fireTorpedo(0, 0);
+            double millis = (System.nanoTime() - start) / 1e6;
+            System.out.printf("huge: %dx%d, ships: %d, ms to open: %.1f, differ: %d%n",
+                    HUGE_SIDE, HUGE_SIDE, ocean.getNumberOfShips(), millis, same ? 0 : 1);
+        }
+    }
+
+    /**
+     * Get all cells of the small ocean in a random order.
+     * @param random the source of random numbers.
+     * @return indexes of cells, i.e. row * columns + column.
+     */
+    private static int[] shuffledCells(SplittableRandom random) {
+        int[] cells = new int[SIDE * SIDE];
+        for (int i = 0; i < cells.length; i++) {
+            int j = random.nextInt(i + 1);
+            cells[i] = cells[j];
+            cells[j] = i;
+        }
+        return cells;
+    }
+
+    /**
+     * Checks if two games have the same counters and the same game fields in their top left parts.
+     * @param mapped the game on a mapped board.
+     * @param memory the game in memory.
+     * @param rows the number of compared rows.
+     * @param columns the number of compared columns.
+     * @return true if the games are the same.
+     */
+    private static boolean same(GameEngine mapped, GameEngine memory, int rows, int columns) {
+        if (mapped.getShots() != memory.getShots() || mapped.getTorpedoes() != memory.getTorpedoes()
+                || mapped.getRemainingShips() != memory.getRemainingShips()) {
+            return false;
+        }
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                if (mapped.getField(i, j) != memory.getField(i, j)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
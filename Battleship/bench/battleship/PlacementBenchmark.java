@@ -0,0 +1,76 @@
+package battleship;
+
+/**
+ * Measures how long it takes to arrange a fleet in the ocean.
+ * Run it with the sizes of the ocean and the number of ships of every type per 100 cells, e.g.
+ * {@code java battleship.PlacementBenchmark 100 1000 2}.
+ */
+public class PlacementBenchmark {
+    /**
+     * The number of oceans arranged before measuring.
+     */
+    private static final int WARMUP_ROUNDS = 5;
+
+    /**
+     * The number of measured oceans.
+     */
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) {
+        int[] sizes = {100, 300, 1000};
+        int density = 1;
+        if (args.length > 0) {
+            sizes = new int[args.length - 1];
+            for (int i = 0; i < args.length - 1; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+            density = Integer.parseInt(args[args.length - 1]);
+        }
+
+        System.out.println("board      ships   char board ms   bit board ms   placed");
+        for (int size : sizes) {
+            int shipsOfType = size * size / 100 * density;
+            measure(size, shipsOfType, false);
+            measure(size, shipsOfType, true);
+        }
+    }
+
+    /**
+     * Arranges the fleet several times and prints the average time.
+     * @param size length and width of the ocean.
+     * @param shipsOfType the number of ships of every type.
+     * @param packed true to measure the bit board.
+     */
+    private static void measure(int size, int shipsOfType, boolean packed) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            arrange(size, shipsOfType, packed);
+        }
+        long placed = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            placed += arrange(size, shipsOfType, packed);
+        }
+        double millis = (System.nanoTime() - start) / 1e6 / ROUNDS;
+        System.out.printf("%-10s %-7d %-15s %-14s %d%n", size + "x" + size, shipsOfType * 5,
+                packed ? "" : String.format("%.2f", millis),
+                packed ? String.format("%.2f", millis) : "",
+                placed / ROUNDS);
+    }
+
+    /**
+     * Arranges the fleet in a new ocean.
+     * @param size length and width of the ocean.
+     * @param shipsOfType the number of ships of every type.
+     * @param packed true to use the bit board.
+     * @return the number of placed ships.
+     */
+    private static int arrange(int size, int shipsOfType, boolean packed) {
+        Ocean ocean = packed ? new Ocean(new BitBoard(size, size)) : new Ocean(size, size);
+        new Carrier(shipsOfType).addShipsInOcean(ocean);
+        new Battleship(shipsOfType).addShipsInOcean(ocean);
+        new Cruiser(shipsOfType).addShipsInOcean(ocean);
+        new Destroyer(shipsOfType).addShipsInOcean(ocean);
+        new Submarine(shipsOfType).addShipsInOcean(ocean);
+        return ocean.getNumberOfShips();
+    }
+}
@@ -0,0 +1,110 @@
+package battleship;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Compares the scan that works on one cell at a time with the fastest scan that can be loaded.
+ * The vector scan is used only when it is on the class path and the JVM runs with
+ * {@code --add-modules jdk.incubator.vector}, e.g.
+ * {@code java --add-modules jdk.incubator.vector battleship.ScanBenchmark 1000 1000}.
+ */
+public class ScanBenchmark {
+    /**
+     * The number of scans before measuring.
+     */
+    private static final int WARMUP_ROUNDS = 200;
+
+    /**
+     * The number of measured scans.
+     */
+    private static final int ROUNDS = 200;
+
+    public static void main(String[] args) {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int width = args.length > 1 ? Integer.parseInt(args[1]) : length;
+        // About one cell in ten is taken, like an ocean with some fenced ships.
+        SplittableRandom random = new SplittableRandom(1);
+        byte[] free = new byte[length * width];
+        for (int cell = 0; cell < free.length; cell++) {
+            free[cell] = (byte) (random.nextInt(10) == 0 ? 0 : 1);
+        }
+
+        PlacementScan scalar = PlacementScan.scalar();
+        PlacementScan best = PlacementScan.best();
+        System.out.println("ocean " + length + "x" + width + ", fastest scan: " + best.getName());
+        System.out.println("scan       scalar ms   fastest ms   same");
+        measure("masks", scalar, best, free, length, width, false);
+        measure("density", scalar, best, free, length, width, true);
+    }
+
+    /**
+     * Scans the ocean with both scans and prints the average times of one scan of all ships.
+     * @param name the name of the scan.
+     * @param scalar the scan that works on one cell at a time.
+     * @param best the fastest scan.
+     * @param free 1 for every free cell.
+     * @param length the number of rows.
+     * @param width the number of columns.
+     * @param density true to measure densities, false to measure masks of legal positions.
+     */
+    private static void measure(String name, PlacementScan scalar, PlacementScan best,
+                                byte[] free, int length, int width, boolean density) {
+        byte[] scalarResult = new byte[free.length];
+        byte[] bestResult = new byte[free.length];
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            scan(scalar, free, length, width, density, scalarResult);
+            scan(best, free, length, width, density, bestResult);
+        }
+        double scalarMillis = time(scalar, free, length, width, density, scalarResult);
+        double bestMillis = time(best, free, length, width, density, bestResult);
+        boolean same = Arrays.equals(scalarResult, bestResult);
+        System.out.printf("%-10s %-11.3f %-12.3f %s%n", name, scalarMillis, bestMillis, same);
+    }
+
+    /**
+     * Scans the ocean several times.
+     * @param scan the scan.
+     * @param free 1 for every free cell.
+     * @param length the number of rows.
+     * @param width the number of columns.
+     * @param density true to measure densities.
+     * @param result the result of the last scan.
+     * @return the average time of one scan in milliseconds.
+     */
+    private static double time(PlacementScan scan, byte[] free, int length, int width,
+                               boolean density, byte[] result) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            scan(scan, free, length, width, density, result);
+        }
+        return (System.nanoTime() - start) / 1e6 / ROUNDS;
+    }
+
+    /**
+     * Scans all ships of the standard fleet in both orientations.
+     * @param scan the scan.
+     * @param free 1 for every free cell.
+     * @param length the number of rows.
+     * @param width the number of columns.
+     * @param density true to add densities, false to build masks of legal positions.
+     * @param result the masks of the last ship or the densities of all ships.
+     */
+    private static void scan(PlacementScan scan, byte[] free, int length, int width,
+                             boolean density, byte[] result) {
+        byte[] legal = density ? new byte[free.length] : result;
+        if (density) {
+            Arrays.fill(result, (byte) 0);
+        }
+        for (int shipLength = 1; shipLength <= 5; shipLength++) {
+            scan.legalHorizontal(free, length, width, shipLength, legal);
+            if (density) {
+                scan.addDensity(legal, length, width, shipLength, false, result);
+            }
+            scan.legalVertical(free, length, width, shipLength, legal);
+            if (density) {
+                scan.addDensity(legal, length, width, shipLength, true, result);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package battleship;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+/**
+ * Plays games over many connections to a game server and prints how many shots per second it answers.
+ * Every connection sends a whole game at once: a 10x10 ocean with one ship of every type and a shot at every
+ * cell, and then reads all answers. Without a host a server is started in this process on the loopback.
+ * Run it with the number of connections, the number of games of every connection and optionally the host
+ * and the port, e.g. {@code java battleship.ServerLoadClient 1000 20 localhost 7070}.
+ */
+public class ServerLoadClient {
+    /**
+     * The number of cells of a game.
+     */
+    private static final int CELLS = 100;
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        GameServer server = null;
+        InetSocketAddress address;
+        if (args.length > 2) {
+            address = new InetSocketAddress(args[2], args.length > 3 ? Integer.parseInt(args[3]) : Main.DEFAULT_PORT);
+        } else {
+            server = new GameServer(new InetSocketAddress("127.0.0.1", 0), new FleetFeasibility());
+            Thread thread = new Thread(server, "game-server");
+            thread.setDaemon(true);
+            thread.start();
+            address = new InetSocketAddress("127.0.0.1", server.getPort());
+        }
+
+        SocketChannel[] channels = new SocketChannel[connections];
+        for (int c = 0; c < connections; c++) {
+            channels[c] = SocketChannel.open(address);
+            channels[c].socket().setTcpNoDelay(true);
+        }
+        // The first round warms up the compiler.
+        play(channels, 1, 0);
+        long start = System.nanoTime();
+        long lost = play(channels, games, 1);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long shots = (long) connections * games * CELLS;
+        System.out.printf("connections: %d, games: %d, shots: %d, seconds: %.2f, shots/s: %.0f, unfinished: %d%n",
+                connections, (long) connections * games, shots, seconds, shots / seconds, lost);
+
+        for (SocketChannel channel : channels) {
+            channel.close();
+        }
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    /**
+     * Plays rounds of games on all connections.
+     * @param channels the connections.
+     * @param games the number of games of every connection.
+     * @param seed the seed of the first game.
+     * @return the number of games with ships left after every cell was shot, 0 if the server is right.
+     * @throws IOException if a connection fails.
+     */
+    private static long play(SocketChannel[] channels, int games, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        ByteBuffer answers = ByteBuffer.allocate(1 << 16);
+        long lost = 0;
+        for (int g = 0; g < games; g++) {
+            for (SocketChannel channel : channels) {
+                ByteBuffer commands = ByteBuffer.wrap(game(random).getBytes(StandardCharsets.US_ASCII));
+                while (commands.hasRemaining()) {
+                    channel.write(commands);
+                }
+            }
+            for (SocketChannel channel : channels) {
+                if (readGame(channel, answers) != 0) {
+                    lost++;
+                }
+            }
+        }
+        return lost;
+    }
+
+    /**
+     * Builds the commands of a game that shoots every cell in a random order.
+     * @param random the source of random numbers.
+     * @return the commands.
+     */
+    private static String game(SplittableRandom random) {
+        StringBuilder commands = new StringBuilder(CELLS * 8 + 32);
+        commands.append("g 10 10 1 1 1 1 1 0 0 ").append(random.nextInt(1 << 30)).append('\n');
+        int[] cells = new int[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            int j = random.nextInt(i + 1);
+            cells[i] = cells[j];
+            cells[j] = i;
+        }
+        for (int cell : cells) {
+            commands.append("s ").append(cell / 10).append(' ').append(cell % 10).append('\n');
+        }
+        return commands.toString();
+    }
+
+    /**
+     * Reads the answers of a game.
+     * @param channel the connection.
+     * @param answers the buffer of answers.
+     * @return the number of ships left after the last shot.
+     * @throws IOException if the connection fails or an answer is an error.
+     */
+    private static int readGame(SocketChannel channel, ByteBuffer answers) throws IOException {
+        answers.clear();
+        int lines = 0;
+        int lastLine = 0;
+        while (lines < CELLS + 1) {
+            int from = answers.position();
+            if (channel.read(answers) < 0) {
+                throw new IOException("The server closed the connection.");
+            }
+            for (int k = from; k < answers.position(); k++) {
+                if (answers.get(k) == '\n') {
+                    lines++;
+                    if (lines < CELLS + 1) {
+                        lastLine = k + 1;
+                    }
+                }
+            }
+        }
+        if (answers.get(0) != 'G' || answers.get(lastLine) == 'E') {
+            throw new IOException("The server did not play the game: "
+                    + new String(answers.array(), 0, answers.position(), StandardCharsets.US_ASCII));
+        }
+        int left = 0;
+        for (int k = lastLine + 2; answers.get(k) != '\n'; k++) {
+            left = left * 10 + answers.get(k) - '0';
+        }
+        return left;
+    }
+}
@@ -0,0 +1,34 @@
+package battleship;
+
+/**
+ * Plays many games with a shooter on all cores and prints how many shots it took to win.
+ * Run it with the number of games, the sizes of the ocean and the number of ships of every type, e.g.
+ * {@code java battleship.SimulationBenchmark 1000000 10 10 1}.
+ */
+public class SimulationBenchmark {
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        int rows = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int columns = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int shipsOfType = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+
+        GameConfig config = new GameConfig(rows, columns, false, 0, new Carrier(shipsOfType),
+                new Battleship(shipsOfType), new Cruiser(shipsOfType), new Destroyer(shipsOfType),
+                new Submarine(shipsOfType));
+        measure("random shooter", new Simulator(config, RandomShooter::new), games);
+        measure("hunt and target shooter", new Simulator(config, HuntTargetShooter::new), games);
+        measure("density shooter", new Simulator(config, DensityShooter::new), games);
+    }
+
+    /**
+     * Warms up a simulator and prints the report of its games.
+     * @param name the name of the shooter.
+     * @param simulator the simulator.
+     * @param games the number of games.
+     */
+    private static void measure(String name, Simulator simulator, long games) {
+        // The first run warms up the compiler.
+        simulator.run(Math.min(games, 10_000), 1);
+        System.out.println(name + ": " + simulator.run(games, 42));
+    }
+}
@@ -0,0 +1,76 @@
+package battleship;
+
+import java.nio.ByteBuffer;
+import java.util.SplittableRandom;
+
+/**
+ * Measures snapshots of games in the middle: the number of bytes and the times of encoding into
+ * a reused buffer and of decoding, for a small ocean, a large dense one and a huge sparse one.
+ * Run it without arguments, e.g. {@code java -Xmx2g battleship.SnapshotBenchmark}.
+ */
+public class SnapshotBenchmark {
+    /**
+     * The time in nanoseconds of snapshots of a game before measuring.
+     */
+    private static final long WARMUP_NANOS = 2_000_000_000L;
+
+    /**
+     * The time in nanoseconds of measured snapshots of a game, at least a few snapshots are measured.
+     */
+    private static final long MEASURE_NANOS = 1_000_000_000L;
+
+    public static void main(String[] args) {
+        System.out.println("ocean               ships   shots      bytes   encode us   decode us");
+        measure(10, 10, 1, 50);
+        measure(1000, 1000, 200, 200_000);
+        measure(100_000, 100_000, 2000, 100_000);
+    }
+
+    /**
+     * Plays a game half way and prints the size and the times of its snapshots.
+     * @param length the number of rows.
+     * @param width the number of columns.
+     * @param fleets the number of fleets of one ship of every type.
+     * @param shots the number of random shots before the snapshot.
+     */
+    private static void measure(int length, int width, int fleets, int shots) {
+        GameEngine engine = new GameEngine(new GameConfig(length, width, true, 0, new Carrier(fleets),
+                new Battleship(fleets), new Cruiser(fleets), new Destroyer(fleets), new Submarine(fleets)),
+                new SplittableRandom(1));
+        SplittableRandom random = new SplittableRandom(2);
+        // Shots of a huge ocean fall in its top left part, so that some of them hit ships.
+        int rows = Math.min(length, 5000);
+        int columns = Math.min(width, 5000);
+        for (int i = 0; i < shots && !engine.isOver(); i++) {
+            engine.fire(random.nextInt(rows), random.nextInt(columns));
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(OceanSnapshot.size(engine));
+        int bytes = 0;
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < WARMUP_NANOS) {
+            bytes = OceanSnapshot.encode(engine, buffer.clear());
+            OceanSnapshot.decode(buffer.flip());
+        }
+        int rounds = 0;
+        start = System.nanoTime();
+        while (rounds < 10 || System.nanoTime() - start < MEASURE_NANOS) {
+            OceanSnapshot.encode(engine, buffer.clear());
+            rounds++;
+        }
+        double encode = (System.nanoTime() - start) / 1e3 / rounds;
+        GameEngine decoded = null;
+        rounds = 0;
+        start = System.nanoTime();
+        while (rounds < 10 || System.nanoTime() - start < MEASURE_NANOS) {
+            decoded = OceanSnapshot.decode(buffer.flip());
+            rounds++;
+        }
+        double decode = (System.nanoTime() - start) / 1e3 / rounds;
+        if (decoded.getShots() != engine.getShots() || decoded.getRemainingShips() != engine.getRemainingShips()) {
+            throw new IllegalStateException("The decoded game differs.");
+        }
+        System.out.printf("%-17s %7d %7d %10d %11.1f %11.1f%n", length + "x" + width,
+                engine.getOcean().getNumberOfShips(), engine.getShots(), bytes, encode, decode);
+    }
+}
@@ -0,0 +1,107 @@
+package battleship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the calls a game makes between shots: checking for ships and drawing the game field.
+ * The ocean is arranged once and half of its cells are shot, so that the field has every kind of cell.
+ * Every call of the drawing benchmarks shoots one more cell first, as a game does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FieldBench {
+    /**
+     * Length and width of the ocean.
+     */
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    /**
+     * The number of ships of every type per 100 cells.
+     */
+    @Param({"1", "2"})
+    public int density;
+
+    /**
+     * "char" for the board of characters or "bit" for the packed board.
+     */
+    @Param({"char", "bit"})
+    public String board;
+
+    /**
+     * The ocean.
+     */
+    private Ocean ocean;
+
+    /**
+     * All cells in the order they are shot.
+     */
+    private int[] cells;
+
+    /**
+     * The position of the next cell to shoot.
+     */
+    private int next;
+
+    /**
+     * A stream that drops everything, so that only the drawing is measured.
+     */
+    private final PrintStream out = new PrintStream(OutputStream.nullOutputStream());
+
+    @Setup(Level.Trial)
+    public void arrange() {
+        ocean = Oceans.create(size, board);
+        Oceans.arrange(ocean, Oceans.shipsOfType(size, density));
+        cells = Oceans.shuffledCells(size, size * 31L + density);
+        for (next = 0; next < cells.length / 2; next++) {
+            ocean.hit(cells[next] / size, cells[next] % size);
+        }
+    }
+
+    @Benchmark
+    public boolean checkForShips() {
+        return ocean.checkForShips();
+    }
+
+    @Benchmark
+    public void display() {
+        shootNext();
+        ocean.display(out);
+    }
+
+    @Benchmark
+    public void redraw() {
+        shootNext();
+        ocean.redraw(out, "Shots: " + next);
+    }
+
+    /**
+     * Shoots the next cell, and after the last cell starts again from the first one.
+     */
+    private void shootNext() {
+        if (next == cells.length) {
+            next = 0;
+        }
+        ocean.hit(cells[next] / size, cells[next] % size);
+        next++;
+    }
+}
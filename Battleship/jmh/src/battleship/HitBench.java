@@ -0,0 +1,97 @@
+package battleship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the ways to shoot. Shots change the ocean, so every call shoots all cells of a freshly arranged ocean
+ * in a random order, from the first misses and hits to shots at sunk ships; the time of one shot is
+ * the score divided by the number of cells. Arranging the ocean is not measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HitBench {
+    /**
+     * Length and width of the ocean.
+     */
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    /**
+     * The number of ships of every type per 100 cells.
+     */
+    @Param({"1", "2"})
+    public int density;
+
+    /**
+     * "char" for the board of characters or "bit" for the packed board.
+     */
+    @Param({"char", "bit"})
+    public String board;
+
+    /**
+     * The ocean to shoot.
+     */
+    private Ocean ocean;
+
+    /**
+     * All cells in the order they are shot.
+     */
+    private int[] cells;
+
+    @Setup(Level.Trial)
+    public void shuffle() {
+        cells = Oceans.shuffledCells(size, size * 31L + density);
+    }
+
+    @Setup(Level.Invocation)
+    public void arrange() {
+        ocean = Oceans.create(size, board);
+        Oceans.arrange(ocean, Oceans.shipsOfType(size, density));
+    }
+
+    @Benchmark
+    public void hit(Blackhole blackhole) {
+        for (int cell : cells) {
+            blackhole.consume(ocean.hit(cell / size, cell % size));
+        }
+    }
+
+    @Benchmark
+    public void hitRecovery(Blackhole blackhole) {
+        for (int cell : cells) {
+            blackhole.consume(ocean.hitRecovery(cell / size, cell % size));
+        }
+    }
+
+    @Benchmark
+    public void hitWithTorpedo(Blackhole blackhole) {
+        for (int cell : cells) {
+            blackhole.consume(ocean.hitWithTorpedo(cell / size, cell % size));
+        }
+    }
+
+    @Benchmark
+    public void hitWithTorpedoInRecoveryMode(Blackhole blackhole) {
+        for (int cell : cells) {
+            blackhole.consume(ocean.hitWithTorpedoInRecoveryMode(cell / size, cell % size));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package battleship;
+
+import java.util.SplittableRandom;
+
+/**
+ * Oceans with fleets for the benchmarks. Run the benchmarks with JMH after the annotation processor of JMH
+ * generated their harnesses, e.g. {@code java -cp <classes and JMH jars> org.openjdk.jmh.Main battleship},
+ * and choose sizes with {@code -p size=10,100 -p density=1,3}.
+ */
+final class Oceans {
+    private Oceans() {
+    }
+
+    /**
+     * Get the number of ships of every type in an ocean, at least one.
+     * @param size length and width of the ocean.
+     * @param density the number of ships of every type per 100 cells.
+     * @return the number of ships of every type.
+     */
+    static int shipsOfType(int size, int density) {
+        return Math.max(size * size / 100 * density, 1);
+    }
+
+    /**
+     * Creates an empty ocean.
+     * @param size length and width of the ocean.
+     * @param board "char" for the board of characters or "bit" for the packed board.
+     * @return the ocean.
+     */
+    static Ocean create(int size, String board) {
+        switch (board) {
+            case "char":
+                return new Ocean(size, size);
+            case "bit":
+                return new Ocean(new BitBoard(size, size));
+            default:
+                throw new IllegalArgumentException("Unknown board: " + board);
+        }
+    }
+
+    /**
+     * Arranges ships of all types the way a game does.
+     * @param ocean the ocean.
+     * @param shipsOfType the number of ships of every type.
+     */
+    static void arrange(Ocean ocean, int shipsOfType) {
+        new Carrier(shipsOfType).addShipsInOcean(ocean);
+        new Battleship(shipsOfType).addShipsInOcean(ocean);
+        new Cruiser(shipsOfType).addShipsInOcean(ocean);
+        new Destroyer(shipsOfType).addShipsInOcean(ocean);
+        new Submarine(shipsOfType).addShipsInOcean(ocean);
+    }
+
+    /**
+     * Get all cells of an ocean in a random order.
+     * @param size length and width of the ocean.
+     * @param seed the seed of the order.
+     * @return indexes of cells, i.e. row * size + column.
+     */
+    static int[] shuffledCells(int size, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] cells = new int[size * size];
+        for (int i = 0; i < cells.length; i++) {
+            int j = random.nextInt(i + 1);
+            cells[i] = cells[j];
+            cells[j] = i;
+        }
+        return cells;
+    }
+}
@@ -0,0 +1,50 @@
+package battleship;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes to arrange a whole fleet in a new ocean.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlacementBench {
+    /**
+     * Length and width of the ocean.
+     */
+    @Param({"10", "100", "1000"})
+    public int size;
+
+    /**
+     * The number of ships of every type per 100 cells.
+     */
+    @Param({"1", "2"})
+    public int density;
+
+    /**
+     * "char" for the board of characters or "bit" for the packed board.
+     */
+    @Param({"char", "bit"})
+    public String board;
+
+    @Benchmark
+    public Ocean addShipsInOcean() {
+        Ocean ocean = Oceans.create(size, board);
+        Oceans.arrange(ocean, Oceans.shipsOfType(size, density));
+        return ocean;
+    }
+}
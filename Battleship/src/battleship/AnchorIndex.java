@@ -0,0 +1,156 @@
+package battleship;
+
+import java.util.Arrays;
+
+/**
+ * An index of cells where a ship of a particular length and orientation can be set right now.
+ * A list of cells is built when it is asked for the first time and after that
+ * every placed ship only takes out the cells that its fence makes illegal.
+ */
+class AnchorIndex {
+    /**
+     * Cells of the ocean.
+     */
+    private final Board board;
+
+    /**
+     * Legal first cells of ships by their length and orientation, 0 is horizontal and 1 is vertical.
+     */
+    private int[][][] anchors = new int[6][2][];
+
+    /**
+     * Positions of cells in the lists of legal cells plus one, 0 if a cell is not there.
+     */
+    private int[][][] positions = new int[6][2][];
+
+    /**
+     * The number of legal cells in every list.
+     */
+    private int[][] sizes = new int[6][2];
+
+    AnchorIndex(Board board) {
+        this.board = board;
+    }
+
+    /**
+     * Get the number of cells where a ship can be set.
+     * @param shipLength the number of cells of the ship.
+     * @param vertical true if the ship lies vertically.
+     * @return the number of cells.
+     */
+    int size(int shipLength, boolean vertical) {
+        if (vertical && shipLength == 1) {
+            return 0;
+        }
+        ensure(shipLength, vertical ? 1 : 0);
+        return sizes[shipLength][vertical ? 1 : 0];
+    }
+
+    /**
+     * Get a cell where a ship can be set.
+     * @param shipLength the number of cells of the ship.
+     * @param vertical true if the ship lies vertically.
+     * @param i the number of the cell in the list, from 0 to the size of the list.
+     * @return the index of the cell, i.e. row * width + column.
+     */
+    int get(int shipLength, boolean vertical, int i) {
+        return anchors[shipLength][vertical ? 1 : 0][i];
+    }
+
+    /**
+     * Takes out the cells that are not legal anymore after a ship was set and fenced.
+     * @param X the coordinate of rows of the ship.
+     * @param Y the coordinate of columns of the ship.
+     * @param repeatRow the length of the ship in rows.
+     * @param repeatColumn the length of the ship in columns.
+     */
+    void block(int X, int Y, int repeatRow, int repeatColumn) {
+        for (int shipLength = 1; shipLength < anchors.length; shipLength++) {
+            for (int orientation = 0; orientation < 2; orientation++) {
+                if (anchors[shipLength][orientation] == null) {
+                    continue;
+                }
+                // A ship crosses the fenced cells if its first cell lies up to its length before them.
+                int reachRow = orientation == 1 ? shipLength - 1 : 0;
+                int reachColumn = orientation == 0 ? shipLength - 1 : 0;
+                int lastRow = Math.min(X + repeatRow, board.getLength() - 1);
+                int lastColumn = Math.min(Y + repeatColumn, board.getWidth() - 1);
+                for (int i = Math.max(X - 1 - reachRow, 0); i <= lastRow; i++) {
+                    for (int j = Math.max(Y - 1 - reachColumn, 0); j <= lastColumn; j++) {
+                        remove(shipLength, orientation, i * board.getWidth() + j);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds a list of legal cells if it was not built yet.
+     * @param shipLength the number of cells of a ship.
+     * @param orientation 0 if the ship lies horizontally, 1 if vertically.
+     */
+    private void ensure(int shipLength, int orientation) {
+        if (shipLength >= anchors.length) {
+            anchors = Arrays.copyOf(anchors, shipLength + 1);
+            positions = Arrays.copyOf(positions, shipLength + 1);
+            sizes = Arrays.copyOf(sizes, shipLength + 1);
+            for (int i = 0; i < anchors.length; i++) {
+                if (anchors[i] == null) {
+                    anchors[i] = new int[2][];
+                    positions[i] = new int[2][];
+                    sizes[i] = new int[2];
+                }
+            }
+        }
+        if (anchors[shipLength][orientation] != null) {
+            return;
+        }
+        int length = board.getLength();
+        int width = board.getWidth();
+        // Fenced cells and cells of ships are taken, and whole rows are scanned at once.
+        byte[] free = new byte[length * width];
+        for (int i = 0; i < length; i++) {
+            for (int j = 0; j < width; j++) {
+                char cell = board.get(i, j);
+                free[i * width + j] = (byte) (cell == 'X' || cell == ',' ? 0 : 1);
+            }
+        }
+        byte[] legal = new byte[length * width];
+        if (orientation == 1) {
+            PlacementScan.best().legalVertical(free, length, width, shipLength, legal);
+        } else {
+            PlacementScan.best().legalHorizontal(free, length, width, shipLength, legal);
+        }
+        int[] list = new int[length * width];
+        int[] position = new int[length * width];
+        int size = 0;
+        for (int cell = 0; cell < legal.length; cell++) {
+            if (legal[cell] != 0) {
+                list[size] = cell;
+                position[cell] = ++size;
+            }
+        }
+        anchors[shipLength][orientation] = list;
+        positions[shipLength][orientation] = position;
+        sizes[shipLength][orientation] = size;
+    }
+
+    /**
+     * Takes a cell out of a list by moving the last cell of the list in its place.
+     * @param shipLength the number of cells of a ship.
+     * @param orientation 0 if the ship lies horizontally, 1 if vertically.
+     * @param cell the index of the cell.
+     */
+    private void remove(int shipLength, int orientation, int cell) {
+        int[] position = positions[shipLength][orientation];
+        int i = position[cell] - 1;
+        if (i < 0) {
+            return;
+        }
+        int[] list = anchors[shipLength][orientation];
+        int last = list[--sizes[shipLength][orientation]];
+        list[i] = last;
+        position[last] = i + 1;
+        position[cell] = 0;
+    }
+}
@@ -1,50 +1,69 @@
 package battleship;
 
+import java.io.PrintStream;
 import java.util.Scanner;
-import java.util.concurrent.ThreadLocalRandom;
 
 public class Battleship extends Ship {
     public Battleship(Scanner in) {
         // When initializing an instance the user has to enter the number of submarines in the ocean.
-        enterNumberOfShips(in);
+        this(in, System.out);
     }
 
     /**
-     * Generate a battleship in the ocean.
-     * @param length length of the ocean.
-     * @param width width of the ocean.
-     * @param ocean a game field, i.e. an ocean.
+     * Creates ships of a particular type with the number entered by a user.
+     * @param in an instance of a Scanner class to input data.
+     * @param out the stream to write messages to.
      */
-    public void randomShipGenerator(int length, int width, Ocean ocean) {
-        // Randomly generate one cell of the ocean.
-        int randomX = ThreadLocalRandom.current().nextInt(0, ocean.getLength());
-        int randomY = ThreadLocalRandom.current().nextInt(0, ocean.getWidth());
-
-        // Generate 0 or 1 to decide if the ship is going to be populated vertically or horizontally.
-        int verticalOrHorizontal = ThreadLocalRandom.current().nextInt(0, 2);
-
-        // Depending on the generated number the system populates the ship vertically or horizontally.
-        switch (verticalOrHorizontal) {
-            case 0 -> populate(randomX, randomY, 1, 4, ocean.getLength(), ocean.getWidth(), ocean);
-            case 1 -> populate(randomX, randomY, 4, 1, ocean.getLength(), ocean.getWidth(), ocean);
-        }
+    public Battleship(Scanner in, PrintStream out) {
+        super(readNumberOfShips(in, out));
+    }
+
+    public Battleship(int numberOfShips) {
+        super(numberOfShips);
     }
 
     /**
-     * Enter needed number of battleships.
+     * Get the number of cells of a battleship.
+     * @return the number of cells.
+     */
+    public int getSize() {
+        return 4;
+    }
+
+    /**
+     * Enter needed number of battleships in the console.
      * @param in an instance of a Scanner class to input data.
      */
     public void enterNumberOfShips(Scanner in) {
+        enterNumberOfShips(in, System.out);
+    }
+
+    /**
+     * Enter needed number of battleships.
+     * @param in an instance of a Scanner class to input data.
+     * @param out the stream to write messages to.
+     */
+    public void enterNumberOfShips(Scanner in, PrintStream out) {
+        numberOfShips = readNumberOfShips(in, out);
+    }
+
+    /**
+     * Reads the number of battleships, it is asked again until it is 0 or above.
+     * @param in an instance of a Scanner class to input data.
+     * @param out the stream to write messages to.
+     * @return the number of battleships.
+     */
+    private static int readNumberOfShips(Scanner in, PrintStream out) {
         int battleships;
         // The number of it cannot be less than zero and user can only enter an integer value.
         do {
-            System.out.println("Enter the number of battleships. The number of this type of ship should be 0 or above: ");
+            out.println("Enter the number of battleships. The number of this type of ship should be 0 or above: ");
             while (!in.hasNextInt()) {
-                System.out.println("Incorrect input. Try again.");
+                out.println("Incorrect input. Try again.");
                 in.next();
             }
             battleships = in.nextInt();
         } while (battleships < 0);
-        numberOfShips = battleships;
+        return battleships;
     }
 }
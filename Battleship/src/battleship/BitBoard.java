@@ -0,0 +1,242 @@
+package battleship;
+
+/**
+ * A board that keeps every kind of cells in its own packed bitboard.
+ * Each row takes a whole number of 64-bit words, bit j of a row is the column j.
+ * Ids of ships are not kept for every cell: a ship cell finds the first cell of its ship, ships never touch.
+ */
+public class BitBoard extends Board {
+    /**
+     * The number of words in a row.
+     */
+    private final int wordsPerRow;
+
+    /**
+     * Ship cells, i.e. 'X' and 'o' of the ocean layer.
+     */
+    private final long[] ships;
+
+    /**
+     * Fence cells, i.e. ',' of the ocean layer.
+     */
+    private final long[] fences;
+
+    /**
+     * Hit ship cells, i.e. 'o' of the ocean layer.
+     */
+    private final long[] hits;
+
+    /**
+     * Missed cells, i.e. '*' of the game field layer.
+     */
+    private final long[] misses;
+
+    /**
+     * Shown hit cells, i.e. 'X' of the game field layer.
+     */
+    private final long[] marks;
+
+    /**
+     * Sunk cells, i.e. '^' of the game field layer.
+     */
+    private final long[] sunk;
+
+    /**
+     * Ids of ships by their first cells.
+     */
+    private final FirstCells firstCells = new FirstCells();
+
+    public BitBoard(int length, int width) {
+        super(length, width);
+        wordsPerRow = (width + 63) >>> 6;
+        int words = length * wordsPerRow;
+        ships = new long[words];
+        fences = new long[words];
+        hits = new long[words];
+        misses = new long[words];
+        marks = new long[words];
+        sunk = new long[words];
+    }
+
+    @Override
+    long getMemorySize() {
+        // Six layers of bits and the first cells of ships.
+        return 6L * Long.BYTES * ships.length + firstCells.getMemorySize();
+    }
+
+    @Override
+    public char get(int firstIndex, int secondIndex) {
+        checkIndex(firstIndex, secondIndex);
+        int word = firstIndex * wordsPerRow + (secondIndex >>> 6);
+        long bit = 1L << secondIndex;
+        if ((ships[word] & bit) != 0) {
+            return (hits[word] & bit) != 0 ? 'o' : 'X';
+        }
+        return (fences[word] & bit) != 0 ? ',' : '.';
+    }
+
+    @Override
+    public void set(char value, int firstIndex, int secondIndex) {
+        checkIndex(firstIndex, secondIndex);
+        int word = firstIndex * wordsPerRow + (secondIndex >>> 6);
+        long bit = 1L << secondIndex;
+        ships[word] &= ~bit;
+        fences[word] &= ~bit;
+        hits[word] &= ~bit;
+        switch (value) {
+            case '.' -> {
+            }
+            case ',' -> fences[word] |= bit;
+            case 'X' -> ships[word] |= bit;
+            case 'o' -> {
+                ships[word] |= bit;
+                hits[word] |= bit;
+            }
+            default -> throw new IllegalArgumentException("Unknown cell of the ocean: " + value);
+        }
+    }
+
+    @Override
+    public char getField(int firstIndex, int secondIndex) {
+        checkIndex(firstIndex, secondIndex);
+        int word = firstIndex * wordsPerRow + (secondIndex >>> 6);
+        long bit = 1L << secondIndex;
+        if ((misses[word] & bit) != 0) {
+            return '*';
+        } else if ((marks[word] & bit) != 0) {
+            return 'X';
+        } else if ((sunk[word] & bit) != 0) {
+            return '^';
+        }
+        return '.';
+    }
+
+    @Override
+    public void setField(char value, int firstIndex, int secondIndex) {
+        checkIndex(firstIndex, secondIndex);
+        int word = firstIndex * wordsPerRow + (secondIndex >>> 6);
+        long bit = 1L << secondIndex;
+        misses[word] &= ~bit;
+        marks[word] &= ~bit;
+        sunk[word] &= ~bit;
+        switch (value) {
+            case '.' -> {
+            }
+            case '*' -> misses[word] |= bit;
+            case 'X' -> marks[word] |= bit;
+            case '^' -> sunk[word] |= bit;
+            default -> throw new IllegalArgumentException("Unknown cell of the game field: " + value);
+        }
+    }
+
+    @Override
+    public int getShipId(int firstIndex, int secondIndex) {
+        checkIndex(firstIndex, secondIndex);
+        if (!isShip(firstIndex, secondIndex)) {
+            return 0;
+        }
+        return firstCells.get(firstCell(firstIndex, secondIndex));
+    }
+
+    /**
+     * Records a ship cell. Cells of a ship are set after the cell itself is set to 'X',
+     * one ship after another from its first cell, so only the first cell of a new ship is recorded.
+     * @param id the id of the ship, the id of a recorded ship or the next one.
+     * @param firstIndex index of the first dimension.
+     * @param secondIndex index of the second dimension.
+     */
+    @Override
+    public void setShipId(int id, int firstIndex, int secondIndex) {
+        checkIndex(firstIndex, secondIndex);
+        if (id > firstCells.size()) {
+            firstCells.add(id, firstCell(firstIndex, secondIndex));
+        }
+    }
+
+    @Override
+    public boolean isFree(int X, int Y, int repeatRow, int repeatColumn) {
+        if (X < 0 || Y < 0 || X + repeatRow > length || Y + repeatColumn > width) {
+            return false;
+        }
+        int firstWord = Y >>> 6;
+        int lastWord = (Y + repeatColumn - 1) >>> 6;
+        for (int i = X; i < X + repeatRow; i++) {
+            int row = i * wordsPerRow;
+            for (int w = firstWord; w <= lastWord; w++) {
+                long mask = columnMask(w, Y, Y + repeatColumn);
+                if (((ships[row + w] | fences[row + w]) & mask) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void fence(int X, int Y, int repeatRow, int repeatColumn) {
+        int firstColumn = Math.max(Y - 1, 0);
+        int end = Math.min(Y + repeatColumn + 1, width);
+        int firstWord = firstColumn >>> 6;
+        int lastWord = (end - 1) >>> 6;
+        int lastRow = Math.min(X + repeatRow, length - 1);
+        for (int i = Math.max(X - 1, 0); i <= lastRow; i++) {
+            int row = i * wordsPerRow;
+            for (int w = firstWord; w <= lastWord; w++) {
+                fences[row + w] |= columnMask(w, firstColumn, end) & ~ships[row + w];
+            }
+        }
+    }
+
+    @Override
+    public boolean hasShips() {
+        for (int w = 0; w < ships.length; w++) {
+            if ((ships[w] & ~hits[w]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a cell is a ship cell, hit or not.
+     * @param firstIndex index of the first dimension.
+     * @param secondIndex index of the second dimension.
+     * @return true if the cell is a ship cell.
+     */
+    private boolean isShip(int firstIndex, int secondIndex) {
+        return (ships[firstIndex * wordsPerRow + (secondIndex >>> 6)] & 1L << secondIndex) != 0;
+    }
+
+    /**
+     * Finds the first cell of the ship that takes a cell.
+     * @param firstIndex index of the first dimension.
+     * @param secondIndex index of the second dimension.
+     * @return the index of the first cell, i.e. row * width + column.
+     */
+    private long firstCell(int firstIndex, int secondIndex) {
+        // Ships never touch, so the ship cells to the left or above belong to the same ship.
+        int i = firstIndex;
+        int j = secondIndex;
+        while (j > 0 && isShip(i, j - 1)) {
+            j--;
+        }
+        while (i > 0 && isShip(i - 1, j)) {
+            i--;
+        }
+        return (long) i * width + j;
+    }
+
+    /**
+     * Builds a mask of the columns from Y inclusive to end exclusive that lie in a word of a row.
+     * @param word index of the word in a row.
+     * @param Y the first column.
+     * @param end the column after the last one.
+     * @return the mask.
+     */
+    private static long columnMask(int word, int Y, int end) {
+        int from = Math.max(Y - (word << 6), 0);
+        int to = Math.min(end - (word << 6), 64);
+        long high = to == 64 ? -1L : (1L << to) - 1;
+        return high & (-1L << from);
+    }
+}
@@ -0,0 +1,236 @@
+package battleship;
+
+import java.util.function.LongConsumer;
+
+/**
+ * A description of an essence of a storage of the ocean cells.
+ * The ocean layer keeps the conventions of the matrix with ships:
+ * '.' - an empty cell, ',' - a fence around a ship, 'X' - a ship, 'o' - a hit ship.
+ * The game field layer keeps the conventions of the game field:
+ * '.' - the cell was not shot, '*' - a miss, 'X' - a hit ship, '^' - a sunken ship.
+ */
+public abstract class Board {
+    /**
+     * The largest number of cells of a board that keeps every cell, larger boards keep only used chunks.
+     */
+    public static final long DENSE_LIMIT = 1 << 20;
+
+    /**
+     * The number of bytes of the header of an object or an array, roughly.
+     */
+    static final int HEADER_BYTES = 16;
+
+    /**
+     * Length of the board, i.e. length of the first dimension.
+     */
+    protected final int length;
+
+    /**
+     * Width of the board, i.e. length of the second dimension.
+     */
+    protected final int width;
+
+    protected Board(int length, int width) {
+        if (length <= 0 || width <= 0) {
+            throw new IllegalArgumentException("The dimensions of the board have to be positive.");
+        }
+        this.length = length;
+        this.width = width;
+    }
+
+    /**
+     * Creates a board that suits the size of the ocean: a board of characters or,
+     * for oceans of more than {@link #DENSE_LIMIT} cells, a sparse board.
+     * @param length length of the first dimension.
+     * @param width length of the second dimension.
+     * @return the board.
+     */
+    public static Board create(int length, int width) {
+        if ((long) length * width > DENSE_LIMIT) {
+            return new SparseBoard(length, width);
+        }
+        return new CharBoard(length, width);
+    }
+
+    /**
+     * Checks if the board keeps only a part of its cells, so that nothing should go over all cells of it.
+     * @return true if the board is sparse.
+     */
+    public boolean isSparse() {
+        return false;
+    }
+
+    /**
+     * Get the number of bytes the board takes in the heap, roughly, e.g. to weigh games kept in memory.
+     * @return the number of bytes.
+     */
+    abstract long getMemorySize();
+
+    /**
+     * Get the number of ships the board keeps itself, a board that outlives its ocean keeps them.
+     * @return the number of ships, 0 if the board does not keep them.
+     */
+    int getStoredShips() {
+        return 0;
+    }
+
+    /**
+     * Get a ship the board keeps itself.
+     * @param id the id of the ship, from 1.
+     * @return the row and the column of the first cell, the number of cells and 1 if the ship lies vertically.
+     */
+    int[] getStoredShip(int id) {
+        throw new IndexOutOfBoundsException("There is no ship " + id + ".");
+    }
+
+    /**
+     * Keeps the state of a game that does not live in cells, a board that outlives its ocean keeps it.
+     * @param recoveryMode true if the recovery mode is enabled.
+     * @param firstMemorizedIndex the memorized row of recovery mode.
+     * @param secondMemorizedIndex the memorized column of recovery mode.
+     * @param hit true if the last shot hit a ship that is not sunk, in recovery mode.
+     * @param torpedoes the number of torpedoes left.
+     * @param shots the number of shots made.
+     */
+    void storeGame(boolean recoveryMode, int firstMemorizedIndex, int secondMemorizedIndex, boolean hit,
+                   int torpedoes, int shots) {
+    }
+
+    /**
+     * Get the state of a game the board keeps itself.
+     * @return 1 if the recovery mode is enabled, the memorized row and column, 1 if the last shot hit,
+     * the torpedoes left and the shots made, or null if the board does not keep a game.
+     */
+    int[] getStoredGame() {
+        return null;
+    }
+
+    /**
+     * Calls an action for every cell of the game field layer that was shot, i.e. that is not '.'.
+     * The cells may come in any order, sparse boards visit only their stored chunks.
+     * @param action gets the index of the cell, i.e. row * width + column.
+     */
+    void forEachShot(LongConsumer action) {
+        for (int i = 0; i < length; i++) {
+            for (int j = 0; j < width; j++) {
+                if (getField(i, j) != '.') {
+                    action.accept((long) i * width + j);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get length of the first dimension of the board.
+     * @return length.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Get length of the second dimension of the board.
+     * @return width.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Get a cell of the ocean layer.
+     * @param firstIndex index of the first dimension.
+     * @param secondIndex index of the second dimension.
+     * @return one of '.', ',', 'X' or 'o'.
+     */
+    public abstract char get(int firstIndex, int secondIndex);
+
+    /**
+     * Set a cell of the ocean layer.
+     * @param value one of '.', ',', 'X' or 'o'.
+     * @param firstIndex index of the first dimension.
+     * @param secondIndex index of the second dimension.
+     */
+    public abstract void set(char value, int firstIndex, int secondIndex);
+
+    /**
+     * Get a cell of the game field layer.
+     * @param firstIndex index of the first dimension.
+     * @param secondIndex index of the second dimension.
+     * @return one of '.', '*', 'X' or '^'.
+     */
+    public abstract char getField(int firstIndex, int secondIndex);
+
+    /**
+     * Set a cell of the game field layer.
+     * @param value one of '.', '*', 'X' or '^'.
+     * @param firstIndex index of the first dimension.
+     * @param secondIndex index of the second dimension.
+     */
+    public abstract void setField(char value, int firstIndex, int secondIndex);
+
+    /**
+     * Get the id of a ship that takes a cell.
+     * @param firstIndex index of the first dimension.
+     * @param secondIndex index of the second dimension.
+     * @return the id of the ship or 0 if there is no ship.
+     */
+    public abstract int getShipId(int firstIndex, int secondIndex);
+
+    /**
+     * Set the id of a ship that takes a cell.
+     * @param id the id of the ship.
+     * @param firstIndex index of the first dimension.
+     * @param secondIndex index of the second dimension.
+     */
+    public abstract void setShipId(int id, int firstIndex, int secondIndex);
+
+    /**
+     * Checks if a ship can be set on the cells, i.e. the cells exist and none of them is a ship or a fence.
+     * @param X the coordinate of rows.
+     * @param Y the coordinate of columns.
+     * @param repeatRow the length of a ship in rows.
+     * @param repeatColumn the length of a ship in columns.
+     * @return true if the ship can be set.
+     */
+    public abstract boolean isFree(int X, int Y, int repeatRow, int repeatColumn);
+
+    /**
+     * Fence a ship with commas, only the cells around the ship are visited.
+     * @param X the coordinate of rows.
+     * @param Y the coordinate of columns.
+     * @param repeatRow the length of a ship in rows.
+     * @param repeatColumn the length of a ship in columns.
+     */
+    public abstract void fence(int X, int Y, int repeatRow, int repeatColumn);
+
+    /**
+     * Checks if there are not hit ship cells on the board.
+     * @return true if the board contains ships.
+     */
+    public abstract boolean hasShips();
+
+    /**
+     * Builds a matrix of the ocean layer.
+     * @return the matrix of the ocean layer.
+     */
+    public char[][] toArray() {
+        char[][] array = new char[length][width];
+        for (int i = 0; i < length; i++) {
+            for (int j = 0; j < width; j++) {
+                array[i][j] = get(i, j);
+            }
+        }
+        return array;
+    }
+
+    /**
+     * Checks if the cell exists.
+     * @param firstIndex index of the first dimension.
+     * @param secondIndex index of the second dimension.
+     */
+    protected void checkIndex(int firstIndex, int secondIndex) {
+        if (firstIndex < 0 || firstIndex >= length || secondIndex < 0 || secondIndex >= width) {
+            throw new IndexOutOfBoundsException("The cell " + firstIndex + " " + secondIndex + " does not exist.");
+        }
+    }
+}
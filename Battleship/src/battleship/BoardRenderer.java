@@ -0,0 +1,346 @@
+package battleship;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Draws the game field into a frame that is built once. The labels, the ruler and the borders never change,
+ * so only the cells that were shot since the previous frame are patched, and the frame is written at once.
+ * Labels of rows and columns take as many characters as the largest index needs.
+ * In a terminal that understands ANSI escape codes the frame is drawn once and after that
+ * only the changed cells and a status line under the frame are redrawn.
+ * The frame shows a viewport, i.e. a rectangle of the game field, so that huge oceans are drawn
+ * without visiting all of their cells; labels show the indexes of the ocean.
+ */
+class BoardRenderer {
+    /**
+     * Cells of the ocean and of the game field.
+     */
+    private final Board board;
+
+    /**
+     * The first row of the ocean in the viewport.
+     */
+    private final int firstRow;
+
+    /**
+     * The first column of the ocean in the viewport.
+     */
+    private final int firstColumn;
+
+    /**
+     * The number of rows in the viewport.
+     */
+    private final int rows;
+
+    /**
+     * The number of columns in the viewport.
+     */
+    private final int columns;
+
+    /**
+     * The number of characters of a cell, i.e. the number of digits of the largest index of a column.
+     */
+    private final int cellWidth;
+
+    /**
+     * The number of characters before the first cell of a row.
+     */
+    private final int margin;
+
+    /**
+     * The number of characters of a row including the line separator.
+     */
+    private final int rowWidth;
+
+    /**
+     * The offset of the first row of cells in the frame.
+     */
+    private final int top;
+
+    /**
+     * The whole picture of the game field.
+     */
+    private final byte[] frame;
+
+    /**
+     * Cells of the viewport changed since the previous frame, i.e. row * columns + column inside the viewport.
+     */
+    private int[] dirty = new int[16];
+
+    /**
+     * The number of changed cells.
+     */
+    private int dirtySize;
+
+    /**
+     * True if too many cells changed and the whole frame has to be patched.
+     */
+    private boolean refresh;
+
+    /**
+     * True if the frame is already on the screen of a terminal.
+     */
+    private boolean drawn;
+
+    /**
+     * Escape codes and characters written to a terminal with one call.
+     */
+    private byte[] codes = new byte[64];
+
+    /**
+     * The number of bytes of escape codes.
+     */
+    private int codesSize;
+
+    /**
+     * Creates a picture of a viewport of the game field.
+     * @param board cells of the ocean and of the game field.
+     * @param firstRow the first row of the viewport.
+     * @param firstColumn the first column of the viewport.
+     * @param rows the number of rows of the viewport.
+     * @param columns the number of columns of the viewport.
+     */
+    BoardRenderer(Board board, int firstRow, int firstColumn, int rows, int columns) {
+        if (firstRow < 0 || firstColumn < 0 || rows <= 0 || columns <= 0
+                || firstRow + rows > board.getLength() || firstColumn + columns > board.getWidth()) {
+            throw new IllegalArgumentException("The viewport has to lie in the ocean.");
+        }
+        this.board = board;
+        this.firstRow = firstRow;
+        this.firstColumn = firstColumn;
+        this.rows = rows;
+        this.columns = columns;
+        byte[] separator = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+        int labelWidth = digits(firstRow + rows - 1);
+        cellWidth = digits(firstColumn + columns - 1);
+        margin = labelWidth + 3;
+        rowWidth = margin + columns * (cellWidth + 1) + separator.length;
+        top = 2 * rowWidth;
+        frame = new byte[(rows + 2) * rowWidth];
+        Arrays.fill(frame, (byte) ' ');
+
+        // The labels of columns and the ruler under them.
+        for (int j = 0; j < columns; j++) {
+            int column = margin + j * (cellWidth + 1);
+            writeNumber(column, cellWidth, firstColumn + j);
+            Arrays.fill(frame, rowWidth + column, rowWidth + column + cellWidth, (byte) '_');
+        }
+        // The labels of rows and the border.
+        for (int i = 0; i < rows; i++) {
+            int row = top + i * rowWidth;
+            writeNumber(row, labelWidth, firstRow + i);
+            frame[row + labelWidth + 1] = '|';
+        }
+        for (int i = 0; i < rows + 2; i++) {
+            System.arraycopy(separator, 0, frame, (i + 1) * rowWidth - separator.length, separator.length);
+        }
+        refresh = true;
+    }
+
+    /**
+     * Get the number of rows in the viewport.
+     * @return the number of rows.
+     */
+    int getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the number of columns in the viewport.
+     * @return the number of columns.
+     */
+    int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Checks if a cell of the ocean lies in the viewport.
+     * @param firstIndex the first index of a dimension.
+     * @param secondIndex the second index of a dimension.
+     * @return true if the cell is shown.
+     */
+    boolean shows(int firstIndex, int secondIndex) {
+        return firstIndex >= firstRow && firstIndex < firstRow + rows
+                && secondIndex >= firstColumn && secondIndex < firstColumn + columns;
+    }
+
+    /**
+     * Remembers that a cell of the game field was changed, cells out of the viewport are ignored.
+     * @param firstIndex the first index of a dimension.
+     * @param secondIndex the second index of a dimension.
+     */
+    void mark(int firstIndex, int secondIndex) {
+        if (refresh || !shows(firstIndex, secondIndex)) {
+            return;
+        }
+        if (dirtySize == dirty.length) {
+            // When a lot of cells change patching every of them is not cheaper than patching all cells.
+            if ((long) dirtySize * 2 > (long) rows * columns) {
+                refresh = true;
+                dirtySize = 0;
+                return;
+            }
+            dirty = Arrays.copyOf(dirty, dirtySize * 2);
+        }
+        dirty[dirtySize++] = (firstIndex - firstRow) * columns + secondIndex - firstColumn;
+    }
+
+    /**
+     * Patches the changed cells and writes the frame with one call.
+     * @param out the stream to write the frame to.
+     */
+    void render(PrintStream out) {
+        update();
+        // The screen of a terminal does not follow the cells anymore.
+        drawn = false;
+        out.write(frame, 0, frame.length);
+        out.flush();
+    }
+
+    /**
+     * Redraws only the changed cells on the screen of a terminal and replaces the status line.
+     * The frame is drawn at the top of the cleared screen for the first time or when too many cells changed.
+     * The cursor is left on the line under the status line, and everything under it is cleared.
+     * @param out the stream of the terminal.
+     * @param status the text of the status line.
+     */
+    void renderAnsi(PrintStream out, String status) {
+        codesSize = 0;
+        if (!drawn || refresh) {
+            update();
+            // Move the cursor home and clear the screen.
+            append("\033[H\033[2J");
+            append(frame, frame.length);
+            drawn = true;
+        } else {
+            for (int k = 0; k < dirtySize; k++) {
+                int i = dirty[k] / columns;
+                int j = dirty[k] % columns;
+                int offset = offset(i, j);
+                frame[offset] = (byte) board.getField(firstRow + i, firstColumn + j);
+                // Rows and columns of a terminal start with 1, and the first two rows are the labels and the ruler.
+                moveTo(i + 3, offset - top - i * rowWidth + 1);
+                append(frame[offset]);
+            }
+            dirtySize = 0;
+        }
+        moveTo(rows + 3, 1);
+        append("\033[2K");
+        append(status);
+        append(System.lineSeparator());
+        append("\033[J");
+        out.write(codes, 0, codesSize);
+        out.flush();
+    }
+
+    /**
+     * Adds an escape code that moves the cursor.
+     * @param row the row of the terminal, from 1.
+     * @param column the column of the terminal, from 1.
+     */
+    private void moveTo(int row, int column) {
+        append("\033[");
+        append(Integer.toString(row));
+        append((byte) ';');
+        append(Integer.toString(column));
+        append((byte) 'H');
+    }
+
+    /**
+     * Adds text to the escape codes, characters out of ASCII are replaced with '?'.
+     * @param text the text.
+     */
+    private void append(String text) {
+        for (int k = 0; k < text.length(); k++) {
+            char c = text.charAt(k);
+            append(c < 128 ? (byte) c : (byte) '?');
+        }
+    }
+
+    /**
+     * Adds bytes to the escape codes.
+     * @param bytes the bytes.
+     * @param count the number of bytes to add.
+     */
+    private void append(byte[] bytes, int count) {
+        if (codesSize + count > codes.length) {
+            codes = Arrays.copyOf(codes, Math.max(codes.length * 2, codesSize + count));
+        }
+        System.arraycopy(bytes, 0, codes, codesSize, count);
+        codesSize += count;
+    }
+
+    /**
+     * Adds a byte to the escape codes.
+     * @param b the byte.
+     */
+    private void append(byte b) {
+        if (codesSize == codes.length) {
+            codes = Arrays.copyOf(codes, codes.length * 2);
+        }
+        codes[codesSize++] = b;
+    }
+
+    /**
+     * Patches the changed cells of the frame.
+     */
+    void update() {
+        if (refresh) {
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < columns; j++) {
+                    frame[offset(i, j)] = (byte) board.getField(firstRow + i, firstColumn + j);
+                }
+            }
+            refresh = false;
+        } else {
+            for (int k = 0; k < dirtySize; k++) {
+                int i = dirty[k] / columns;
+                int j = dirty[k] % columns;
+                frame[offset(i, j)] = (byte) board.getField(firstRow + i, firstColumn + j);
+            }
+        }
+        dirtySize = 0;
+    }
+
+    /**
+     * Get the offset of a cell in the frame, a cell is written in the last character of its place.
+     * @param firstIndex the first index of a dimension inside the viewport.
+     * @param secondIndex the second index of a dimension inside the viewport.
+     * @return the offset.
+     */
+    private int offset(int firstIndex, int secondIndex) {
+        return top + firstIndex * rowWidth + margin + secondIndex * (cellWidth + 1) + cellWidth - 1;
+    }
+
+    /**
+     * Writes a number aligned to the right.
+     * @param offset the offset of the first character of the place.
+     * @param places the number of characters of the place.
+     * @param number the number to write.
+     */
+    private void writeNumber(int offset, int places, int number) {
+        for (int k = offset + places - 1; k >= offset; k--) {
+            frame[k] = (byte) ('0' + number % 10);
+            number /= 10;
+            if (number == 0) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Get the number of digits of a number.
+     * @param number a number that is 0 or above.
+     * @return the number of digits.
+     */
+    private static int digits(int number) {
+        int digits = 1;
+        while (number >= 10) {
+            number /= 10;
+            digits++;
+        }
+        return digits;
+    }
+}
@@ -0,0 +1,124 @@
+package battleship;
+
+/**
+ * A board that keeps every layer in a matrix of chars.
+ */
+public class CharBoard extends Board {
+    /**
+     * An ocean with ships.
+     */
+    private final char[][] ocean;
+
+    /**
+     * Extra array of a Game field to show misses and hits.
+     */
+    private final char[][] gameField;
+
+    /**
+     * Ids of ships that take cells.
+     */
+    private final int[][] shipIds;
+
+    public CharBoard(int length, int width) {
+        super(length, width);
+        ocean = new char[length][width];
+        gameField = new char[length][width];
+        shipIds = new int[length][width];
+
+        // When initializing the board populate matrices with empty cells.
+        for (int i = 0; i < length; i++) {
+            for (int j = 0; j < width; j++) {
+                ocean[i][j] = '.';
+                gameField[i][j] = '.';
+            }
+        }
+    }
+
+    @Override
+    long getMemorySize() {
+        // Two chars and an id for every cell, and three arrays for every row.
+        return (long) length * (width * 8L + 3 * HEADER_BYTES);
+    }
+
+    @Override
+    public char get(int firstIndex, int secondIndex) {
+        return ocean[firstIndex][secondIndex];
+    }
+
+    @Override
+    public void set(char value, int firstIndex, int secondIndex) {
+        ocean[firstIndex][secondIndex] = value;
+    }
+
+    @Override
+    public char getField(int firstIndex, int secondIndex) {
+        return gameField[firstIndex][secondIndex];
+    }
+
+    @Override
+    public void setField(char value, int firstIndex, int secondIndex) {
+        gameField[firstIndex][secondIndex] = value;
+    }
+
+    @Override
+    public int getShipId(int firstIndex, int secondIndex) {
+        return shipIds[firstIndex][secondIndex];
+    }
+
+    @Override
+    public void setShipId(int id, int firstIndex, int secondIndex) {
+        shipIds[firstIndex][secondIndex] = id;
+    }
+
+    @Override
+    public boolean isFree(int X, int Y, int repeatRow, int repeatColumn) {
+        if (X < 0 || Y < 0 || X + repeatRow > length || Y + repeatColumn > width) {
+            return false;
+        }
+        // The whole point of the method is that we check whether we try to set the ship on empty cells or not.
+        for (int i = X; i < X + repeatRow; i++) {
+            for (int j = Y; j < Y + repeatColumn; j++) {
+                if (ocean[i][j] == 'X' || ocean[i][j] == ',') {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void fence(int X, int Y, int repeatRow, int repeatColumn) {
+        // When some ship is populated in the ocean it gets fenced with commas in matrix.
+        // It was made for the sake of easy check of adjacency rules.
+        int lastRow = Math.min(X + repeatRow, length - 1);
+        int lastColumn = Math.min(Y + repeatColumn, width - 1);
+        for (int i = Math.max(X - 1, 0); i <= lastRow; i++) {
+            for (int j = Math.max(Y - 1, 0); j <= lastColumn; j++) {
+                if (ocean[i][j] == '.') {
+                    ocean[i][j] = ',';
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean hasShips() {
+        for (char[] chars : ocean) {
+            for (int j = 0; j < width; j++) {
+                if (chars[j] == 'X') {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the matrix of the ocean layer itself.
+     * @return the ocean.
+     */
+    @Override
+    public char[][] toArray() {
+        return ocean;
+    }
+}
@@ -0,0 +1,135 @@
+package battleship;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A TCP server that plays the console game with every connection, the same prompts as in a terminal.
+ * Every connection gets its own virtual thread, so a player who thinks about the next shot only keeps
+ * a blocked virtual thread and its buffers, and many mostly idle players share a few platform threads.
+ * The game of a session lives in its thread, so a player who does not answer for {@link #IDLE_MILLIS}
+ * loses the game and the connection, and an abandoned terminal does not keep its ocean forever.
+ */
+public class ConsoleServer implements Runnable, Closeable {
+    /**
+     * The number of milliseconds a session waits for an answer of a player before it is closed.
+     */
+    public static final int IDLE_MILLIS = 30 * 60 * 1000;
+
+    /**
+     * The socket that accepts connections.
+     */
+    private final ServerSocket server;
+
+    /**
+     * True to redraw only changed cells in terminals of players.
+     */
+    private final boolean ansi;
+
+    /**
+     * The number of open sessions.
+     */
+    private final AtomicInteger sessions = new AtomicInteger();
+
+    /**
+     * Opens a server, the port 0 takes a free port.
+     * @param address the address to listen to.
+     * @param ansi true to redraw only changed cells in terminals of players.
+     * @throws IOException if the socket cannot be opened.
+     */
+    public ConsoleServer(InetSocketAddress address, boolean ansi) throws IOException {
+        this.ansi = ansi;
+        server = new ServerSocket();
+        try {
+            server.bind(address, 1024);
+        } catch (IOException e) {
+            server.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Get the port the server listens to.
+     * @return the port.
+     */
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Get the number of open sessions.
+     * @return the number of sessions.
+     */
+    public int getSessions() {
+        return sessions.get();
+    }
+
+    /**
+     * Accepts connections until the server is closed.
+     */
+    @Override
+    public void run() {
+        long number = 0;
+        while (!server.isClosed()) {
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (IOException e) {
+                if (server.isClosed()) {
+                    return;
+                }
+                throw new IllegalStateException("The server cannot accept connections.", e);
+            }
+            sessions.incrementAndGet();
+            Thread.ofVirtual().name("console-" + number++).start(() -> serve(socket));
+        }
+    }
+
+    /**
+     * Stops accepting connections, the sessions go on until their players leave.
+     * @throws IOException if the socket cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+
+    /**
+     * Plays the console game with a connection until the player quits or leaves.
+     * @param socket the connection.
+     */
+    private void serve(Socket socket) {
+        try (socket) {
+            socket.setSoTimeout(IDLE_MILLIS);
+            play(socket);
+        } catch (IOException e) {
+            // The player left before the game started.
+        } finally {
+            sessions.decrementAndGet();
+        }
+    }
+
+    /**
+     * Plays the console game over a connection, a read that times out ends the input like a closed connection.
+     * @param socket the connection.
+     */
+    private void play(Socket socket) {
+        try (Scanner in = new Scanner(socket.getInputStream(), StandardCharsets.US_ASCII);
+             PrintStream out = new PrintStream(new BufferedOutputStream(socket.getOutputStream()),
+                     true, StandardCharsets.US_ASCII)) {
+            out.println("Welcome to Battleships!");
+            Main.start(in, out, ansi);
+        } catch (IOException | NoSuchElementException e) {
+            // The player left or was idle in the middle of the game.
+        }
+    }
+}
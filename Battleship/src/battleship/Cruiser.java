@@ -1,50 +1,69 @@
 package battleship;
 
+import java.io.PrintStream;
 import java.util.Scanner;
-import java.util.concurrent.ThreadLocalRandom;
 
 public class Cruiser extends Ship {
     public Cruiser(Scanner in) {
         // When initializing an instance the user has to enter the number of submarines in the ocean.
-        enterNumberOfShips(in);
+        this(in, System.out);
     }
 
     /**
-     * Generate a cruiser in the ocean.
-     * @param length length of the ocean.
-     * @param width width of the ocean.
-     * @param ocean a game field, i.e. an ocean.
+     * Creates ships of a particular type with the number entered by a user.
+     * @param in an instance of a Scanner class to input data.
+     * @param out the stream to write messages to.
      */
-    public void randomShipGenerator(int length, int width, Ocean ocean) {
-        // Randomly generate one cell of the ocean.
-        int randomX = ThreadLocalRandom.current().nextInt(0, ocean.getLength());
-        int randomY = ThreadLocalRandom.current().nextInt(0, ocean.getWidth());
-
-        // Generate 0 or 1 to decide if the ship is going to be populated vertically or horizontally.
-        int verticalOrHorizontal = ThreadLocalRandom.current().nextInt(0, 2);
-
-        // Depending on the generated number the system populates the ship vertically or horizontally.
-        switch (verticalOrHorizontal) {
-            case 0 -> populate(randomX, randomY, 1, 3, ocean.getLength(), ocean.getWidth(), ocean);
-            case 1 -> populate(randomX, randomY, 3, 1, ocean.getLength(), ocean.getWidth(), ocean);
-        }
+    public Cruiser(Scanner in, PrintStream out) {
+        super(readNumberOfShips(in, out));
+    }
+
+    public Cruiser(int numberOfShips) {
+        super(numberOfShips);
     }
 
     /**
-     * Enter needed number of cruisers.
+     * Get the number of cells of a cruiser.
+     * @return the number of cells.
+     */
+    public int getSize() {
+        return 3;
+    }
+
+    /**
+     * Enter needed number of cruisers in the console.
      * @param in an instance of a Scanner class to input data.
      */
     public void enterNumberOfShips(Scanner in) {
+        enterNumberOfShips(in, System.out);
+    }
+
+    /**
+     * Enter needed number of cruisers.
+     * @param in an instance of a Scanner class to input data.
+     * @param out the stream to write messages to.
+     */
+    public void enterNumberOfShips(Scanner in, PrintStream out) {
+        numberOfShips = readNumberOfShips(in, out);
+    }
+
+    /**
+     * Reads the number of cruisers, it is asked again until it is 0 or above.
+     * @param in an instance of a Scanner class to input data.
+     * @param out the stream to write messages to.
+     * @return the number of cruisers.
+     */
+    private static int readNumberOfShips(Scanner in, PrintStream out) {
         int cruisers;
         // The number of it cannot be less than zero and user can only enter an integer value.
         do {
-            System.out.println("Enter the number of cruisers. The number of this type of ship should be 0 or above: ");
+            out.println("Enter the number of cruisers. The number of this type of ship should be 0 or above: ");
             while (!in.hasNextInt()) {
-                System.out.println("Incorrect input. Try again.");
+                out.println("Incorrect input. Try again.");
                 in.next();
             }
             cruisers = in.nextInt();
         } while (cruisers < 0);
-        numberOfShips = cruisers;
+        return cruisers;
     }
 }
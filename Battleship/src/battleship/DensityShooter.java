@@ -0,0 +1,559 @@
+package battleship;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * A shooter that counts for every cell how many legal positions of ships of the remaining types cover it
+ * and shoots the cell with the largest count. The counts are not computed again every turn: when a cell
+ * is known to be empty only the positions that cover it are taken out, and cells are kept in buckets by their
+ * counts, so the largest count is found at once. After a hit the shooter targets the cells next to the hits.
+ */
+public class DensityShooter implements Shooter {
+    /**
+     * The largest type of ships, i.e. the number of cells of a carrier.
+     */
+    private static final int MAX_TYPE = 5;
+
+    /**
+     * The game.
+     */
+    private GameEngine engine;
+
+    /**
+     * Length of the ocean.
+     */
+    private int length;
+
+    /**
+     * Width of the ocean.
+     */
+    private int width;
+
+    /**
+     * True for a type of ships that still has ships afloat.
+     */
+    private final boolean[] alive = new boolean[MAX_TYPE + 1];
+
+    /**
+     * Legal positions of ships by their type and orientation, 0 is horizontal and 1 is vertical,
+     * a position is known by its first cell, 1 if it is legal.
+     */
+    private final byte[][][] legal = new byte[MAX_TYPE + 1][2][];
+
+    /**
+     * The number of legal positions of ships of alive types that cover every cell.
+     */
+    private int[] density;
+
+    /**
+     * Cells that are known to be empty or that take a sunk ship.
+     */
+    private boolean[] blocked;
+
+    /**
+     * The first cell of every bucket of cells that may be shot, by their density, or -1.
+     */
+    private int[] head;
+
+    /**
+     * The next cell in the bucket or -1.
+     */
+    private int[] next;
+
+    /**
+     * The previous cell in the bucket or -1.
+     */
+    private int[] previous;
+
+    /**
+     * True if a cell lies in a bucket.
+     */
+    private boolean[] queued;
+
+    /**
+     * The largest density that may have a not empty bucket.
+     */
+    private int top;
+
+    /**
+     * Hit cells of ships that are not sunk yet.
+     */
+    private int[] hits = new int[16];
+
+    /**
+     * The number of hit cells.
+     */
+    private int hitsSize;
+
+    /**
+     * True if a cell lies in the list of hit cells.
+     */
+    private boolean[] known;
+
+    /**
+     * Hit cells that became not hit again when their ship was recovered, some of them may be shot already.
+     */
+    private int[] recovered = new int[16];
+
+    /**
+     * The number of recovered cells.
+     */
+    private int recoveredSize;
+
+    /**
+     * The cell the game memorized before the last shot, its ship is recovered if the shot breaks the series,
+     * or -1.
+     */
+    private int memorized;
+
+    /**
+     * True if the last chosen cell was next to a hit.
+     */
+    private boolean targeting;
+
+    @Override
+    public void newGame(GameEngine engine, RandomGenerator random) {
+        this.engine = engine;
+        length = engine.getOcean().getLength();
+        width = engine.getOcean().getWidth();
+        int size = Shooter.cells(engine);
+        density = new int[size];
+        blocked = new boolean[size];
+        next = new int[size];
+        previous = new int[size];
+        queued = new boolean[size];
+        known = new boolean[size];
+        hitsSize = 0;
+        recoveredSize = 0;
+        memorized = -1;
+        targeting = false;
+
+        // No cell is known yet, so a position is legal if it lies in the ocean, and whole rows are scanned at once.
+        PlacementScan scan = PlacementScan.best();
+        byte[] free = new byte[size];
+        Arrays.fill(free, (byte) 1);
+        byte[] counts = new byte[size];
+        for (int type = 1; type <= MAX_TYPE; type++) {
+            alive[type] = engine.getOcean().getRemainingShips(type) > 0;
+            for (int orientation = 0; orientation < 2; orientation++) {
+                legal[type][orientation] = null;
+                if (!alive[type] || (type == 1 && orientation == 1)) {
+                    continue;
+                }
+                byte[] positions = new byte[size];
+                if (orientation == 1) {
+                    scan.legalVertical(free, length, width, type, positions);
+                } else {
+                    scan.legalHorizontal(free, length, width, type, positions);
+                }
+                scan.addDensity(positions, length, width, type, orientation == 1, counts);
+                legal[type][orientation] = positions;
+            }
+        }
+
+        int maxDensity = 0;
+        for (int cell = 0; cell < size; cell++) {
+            density[cell] = counts[cell];
+            maxDensity = Math.max(maxDensity, density[cell]);
+        }
+        head = new int[maxDensity + 1];
+        Arrays.fill(head, -1);
+        top = 0;
+        // Cells join buckets in a random order, so that cells with equal densities are shot in a random order.
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            int j = random.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+        for (int cell : order) {
+            enqueue(cell);
+        }
+    }
+
+    @Override
+    public int nextShot() {
+        Ocean ocean = engine.getOcean();
+        memorized = ocean.getFirstMemorizedIndex() == -1 ? -1
+                : ocean.getFirstMemorizedIndex() * width + ocean.getSecondMemorizedIndex();
+        int target = target();
+        targeting = target != -1;
+        if (targeting) {
+            return target;
+        }
+        while (top > 0 && head[top] == -1) {
+            top--;
+        }
+        if (head[top] == -1) {
+            throw new IllegalStateException("There are no cells left to shoot.");
+        }
+        return head[top];
+    }
+
+    @Override
+    public boolean useTorpedo() {
+        return targeting;
+    }
+
+    @Override
+    public void onResult(int cell, ShotResult result) {
+        int i = cell / width;
+        int j = cell % width;
+        if (result == ShotResult.MISS) {
+            block(cell);
+        } else if (result == ShotResult.HIT) {
+            dequeue(cell);
+            // A recovered cell that is hit again is in the list already.
+            if (!known[cell]) {
+                known[cell] = true;
+                if (hitsSize == hits.length) {
+                    hits = Arrays.copyOf(hits, hitsSize * 2);
+                }
+                hits[hitsSize++] = cell;
+            }
+            // Diagonal cells of a hit never take a ship, and two hits in a line show how the ship lies.
+            block(i - 1, j - 1);
+            block(i - 1, j + 1);
+            block(i + 1, j - 1);
+            block(i + 1, j + 1);
+            if (isHit(i, j - 1) || isHit(i, j + 1)) {
+                block(i - 1, j);
+                block(i + 1, j);
+            }
+            if (isHit(i - 1, j) || isHit(i + 1, j)) {
+                block(i, j - 1);
+                block(i, j + 1);
+            }
+        } else if (result.isSunk()) {
+            sink(cell, result.getShipType());
+        }
+        if (engine.isRecoveryMode() && memorized != -1 && known[memorized]
+                && engine.getField(memorized / width, memorized % width) == '.') {
+            recover(memorized);
+        }
+    }
+
+    /**
+     * Get the density of a cell, i.e. the number of legal positions of ships of alive types that cover it.
+     * @param row the row of the cell.
+     * @param column the column of the cell.
+     * @return the density.
+     */
+    public int getDensity(int row, int column) {
+        return density[row * width + column];
+    }
+
+    /**
+     * Chooses a cell next to hits of a ship that is not sunk.
+     * @return the cell or -1 if there are no hits.
+     */
+    private int target() {
+        // A recovered cell of a known ship is shot again first, the one that lies first in the ocean.
+        int first = -1;
+        int k = 0;
+        for (int r = 0; r < recoveredSize; r++) {
+            int cell = recovered[r];
+            if (engine.getField(cell / width, cell % width) == '.') {
+                recovered[k++] = cell;
+                first = first == -1 ? cell : Math.min(first, cell);
+            }
+        }
+        recoveredSize = k;
+        if (first != -1) {
+            return first;
+        }
+        int best = -1;
+        for (int h = 0; h < hitsSize; h++) {
+            int cell = hits[h];
+            int i = cell / width;
+            int j = cell % width;
+            best = better(best, i, j - 1);
+            best = better(best, i, j + 1);
+            best = better(best, i - 1, j);
+            best = better(best, i + 1, j);
+        }
+        return best;
+    }
+
+    /**
+     * Puts the hit cells of a recovered ship back to the cells that may be shot. The ship lies in a line
+     * through the memorized cell and none of its cells is blocked, so only that line is walked.
+     * @param cell the memorized cell of the ship.
+     */
+    private void recover(int cell) {
+        int i = cell / width;
+        int j = cell % width;
+        restore(cell);
+        for (int k = 1; k < MAX_TYPE; k++) {
+            if (j - k < 0 || blocked[cell - k] || !restore(cell - k)) {
+                break;
+            }
+        }
+        for (int k = 1; k < MAX_TYPE; k++) {
+            if (j + k >= width || blocked[cell + k] || !restore(cell + k)) {
+                break;
+            }
+        }
+        for (int k = 1; k < MAX_TYPE; k++) {
+            if (i - k < 0 || blocked[cell - k * width] || !restore(cell - k * width)) {
+                break;
+            }
+        }
+        for (int k = 1; k < MAX_TYPE; k++) {
+            if (i + k >= length || blocked[cell + k * width] || !restore(cell + k * width)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Puts a recovered hit cell back to the cells that may be shot.
+     * @param cell the cell.
+     * @return false if the cell was shot and is not a recovered one, so the ship does not go on past it.
+     */
+    private boolean restore(int cell) {
+        if (engine.getField(cell / width, cell % width) != '.') {
+            return false;
+        }
+        if (known[cell] && !queued[cell]) {
+            if (recoveredSize == recovered.length) {
+                recovered = Arrays.copyOf(recovered, recoveredSize * 2);
+            }
+            recovered[recoveredSize++] = cell;
+            enqueue(cell);
+        }
+        return true;
+    }
+
+    /**
+     * Chooses the cell with the larger density.
+     * @param best the best cell so far or -1.
+     * @param i the row of another cell.
+     * @param j the column of another cell.
+     * @return the better cell.
+     */
+    private int better(int best, int i, int j) {
+        if (!inside(i, j) || !queued[i * width + j]) {
+            return best;
+        }
+        int cell = i * width + j;
+        return best == -1 || density[cell] > density[best] ? cell : best;
+    }
+
+    /**
+     * Blocks a sunk ship with the cells around it and takes out its type if no ships of it are afloat.
+     * @param cell a cell of the ship.
+     * @param type the type of the ship.
+     */
+    private void sink(int cell, int type) {
+        int[] ship = new int[MAX_TYPE];
+        int shipSize = 0;
+        ship[shipSize++] = cell;
+        // The cells of the ship are found by walking over sunk cells from the shot cell.
+        for (int k = 0; k < shipSize; k++) {
+            int i = ship[k] / width;
+            int j = ship[k] % width;
+            for (int di = -1; di <= 1; di++) {
+                for (int dj = -1; dj <= 1; dj++) {
+                    int row = i + di;
+                    int column = j + dj;
+                    if (!inside(row, column)) {
+                        continue;
+                    }
+                    int neighbour = row * width + column;
+                    if (engine.getField(row, column) == '^' && !contains(ship, shipSize, neighbour)) {
+                        if (shipSize == ship.length) {
+                            ship = Arrays.copyOf(ship, shipSize * 2);
+                        }
+                        ship[shipSize++] = neighbour;
+                    }
+                }
+            }
+        }
+        int k = 0;
+        for (int h = 0; h < hitsSize; h++) {
+            if (!contains(ship, shipSize, hits[h])) {
+                hits[k++] = hits[h];
+            } else {
+                known[hits[h]] = false;
+            }
+        }
+        hitsSize = k;
+        if (type <= MAX_TYPE && engine.getOcean().getRemainingShips(type) == 0 && alive[type]) {
+            extinguish(type);
+        }
+        for (int s = 0; s < shipSize; s++) {
+            int i = ship[s] / width;
+            int j = ship[s] % width;
+            for (int di = -1; di <= 1; di++) {
+                for (int dj = -1; dj <= 1; dj++) {
+                    block(i + di, j + dj);
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes out all positions of a type of ships that has no ships afloat.
+     * @param type the type of ships.
+     */
+    private void extinguish(int type) {
+        alive[type] = false;
+        for (int orientation = 0; orientation < 2; orientation++) {
+            byte[] positions = legal[type][orientation];
+            if (positions == null) {
+                continue;
+            }
+            for (int cell = 0; cell < positions.length; cell++) {
+                if (positions[cell] != 0) {
+                    cover(cell, type, orientation, -1);
+                }
+            }
+            legal[type][orientation] = null;
+        }
+    }
+
+    /**
+     * Blocks a cell if it lies in the ocean.
+     * @param i the row of the cell.
+     * @param j the column of the cell.
+     */
+    private void block(int i, int j) {
+        if (inside(i, j)) {
+            block(i * width + j);
+        }
+    }
+
+    /**
+     * Marks a cell as empty and takes out all legal positions that cover it.
+     * @param cell the cell.
+     */
+    private void block(int cell) {
+        if (blocked[cell]) {
+            return;
+        }
+        blocked[cell] = true;
+        dequeue(cell);
+        int i = cell / width;
+        int j = cell % width;
+        for (int type = 1; type <= MAX_TYPE; type++) {
+            if (!alive[type]) {
+                continue;
+            }
+            for (int orientation = 0; orientation < 2; orientation++) {
+                byte[] positions = legal[type][orientation];
+                if (positions == null) {
+                    continue;
+                }
+                // The positions that cover the cell start up to the length of the ship before it.
+                for (int k = 0; k < type; k++) {
+                    int row = orientation == 1 ? i - k : i;
+                    int column = orientation == 0 ? j - k : j;
+                    if (row < 0 || column < 0) {
+                        break;
+                    }
+                    int first = row * width + column;
+                    if (positions[first] != 0) {
+                        positions[first] = 0;
+                        cover(first, type, orientation, -1);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds a number to the density of every cell of a position of a ship.
+     * @param first the first cell of the position.
+     * @param type the number of cells of the ship.
+     * @param orientation 0 if the ship lies horizontally, 1 if vertically.
+     * @param delta 1 to add the position, -1 to take it out.
+     */
+    private void cover(int first, int type, int orientation, int delta) {
+        int step = orientation == 1 ? width : 1;
+        for (int k = 0, cell = first; k < type; k++, cell += step) {
+            if (queued[cell]) {
+                dequeue(cell);
+                density[cell] += delta;
+                enqueue(cell);
+            } else {
+                density[cell] += delta;
+            }
+        }
+    }
+
+    /**
+     * Puts a cell that may be shot in the bucket of its density.
+     * @param cell the cell.
+     */
+    private void enqueue(int cell) {
+        if (queued[cell] || blocked[cell] || engine.getField(cell / width, cell % width) != '.') {
+            return;
+        }
+        int value = density[cell];
+        queued[cell] = true;
+        previous[cell] = -1;
+        next[cell] = head[value];
+        if (head[value] != -1) {
+            previous[head[value]] = cell;
+        }
+        head[value] = cell;
+        top = Math.max(top, value);
+    }
+
+    /**
+     * Takes a cell out of its bucket.
+     * @param cell the cell.
+     */
+    private void dequeue(int cell) {
+        if (!queued[cell]) {
+            return;
+        }
+        queued[cell] = false;
+        if (previous[cell] != -1) {
+            next[previous[cell]] = next[cell];
+        } else {
+            head[density[cell]] = next[cell];
+        }
+        if (next[cell] != -1) {
+            previous[next[cell]] = previous[cell];
+        }
+    }
+
+    /**
+     * Checks if a cell is a hit cell of a ship that is not sunk.
+     * @param i the row of the cell.
+     * @param j the column of the cell.
+     * @return true if the cell is hit.
+     */
+    private boolean isHit(int i, int j) {
+        return inside(i, j) && engine.getField(i, j) == 'X';
+    }
+
+    /**
+     * Checks if a cell lies in the ocean.
+     * @param i the row of the cell.
+     * @param j the column of the cell.
+     * @return true if the cell exists.
+     */
+    private boolean inside(int i, int j) {
+        return i >= 0 && i < length && j >= 0 && j < width;
+    }
+
+    /**
+     * Checks if a part of an array contains a value.
+     * @param array the array.
+     * @param size the number of values in the part.
+     * @param value the value.
+     * @return true if the value is there.
+     */
+    private static boolean contains(int[] array, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (array[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,50 +1,69 @@
 package battleship;
 
+import java.io.PrintStream;
 import java.util.Scanner;
-import java.util.concurrent.ThreadLocalRandom;
 
 public class Destroyer extends Ship {
     public Destroyer(Scanner in) {
         // When initializing an instance the user has to enter the number of submarines in the ocean.
-        enterNumberOfShips(in);
+        this(in, System.out);
     }
 
     /**
-     * Generate a destroyer in the ocean.
-     * @param length length of the ocean.
-     * @param width width of the ocean.
-     * @param ocean a game field, i.e. an ocean.
+     * Creates ships of a particular type with the number entered by a user.
+     * @param in an instance of a Scanner class to input data.
+     * @param out the stream to write messages to.
      */
-    public void randomShipGenerator(int length, int width, Ocean ocean) {
-        // Randomly generate one cell of the ocean.
-        int randomX = ThreadLocalRandom.current().nextInt(0, ocean.getLength());
-        int randomY = ThreadLocalRandom.current().nextInt(0, ocean.getWidth());
-
-        // Generate 0 or 1 to decide if the ship is going to be populated vertically or horizontally.
-        int verticalOrHorizontal = ThreadLocalRandom.current().nextInt(0, 2);
-
-        // Depending on the generated number the system populates the ship vertically or horizontally.
-        switch (verticalOrHorizontal) {
-            case 0 -> populate(randomX, randomY, 1, 2, ocean.getLength(), ocean.getWidth(), ocean);
-            case 1 -> populate(randomX, randomY, 2, 1, ocean.getLength(), ocean.getWidth(), ocean);
-        }
+    public Destroyer(Scanner in, PrintStream out) {
+        super(readNumberOfShips(in, out));
+    }
+
+    public Destroyer(int numberOfShips) {
+        super(numberOfShips);
     }
 
     /**
-     * Enter needed number of destroyers.
+     * Get the number of cells of a destroyer.
+     * @return the number of cells.
+     */
+    public int getSize() {
+        return 2;
+    }
+
+    /**
+     * Enter needed number of destroyers in the console.
      * @param in an instance of a Scanner class to input data.
      */
     public void enterNumberOfShips(Scanner in) {
+        enterNumberOfShips(in, System.out);
+    }
+
+    /**
+     * Enter needed number of destroyers.
+     * @param in an instance of a Scanner class to input data.
+     * @param out the stream to write messages to.
+     */
+    public void enterNumberOfShips(Scanner in, PrintStream out) {
+        numberOfShips = readNumberOfShips(in, out);
+    }
+
+    /**
+     * Reads the number of destroyers, it is asked again until it is 0 or above.
+     * @param in an instance of a Scanner class to input data.
+     * @param out the stream to write messages to.
+     * @return the number of destroyers.
+     */
+    private static int readNumberOfShips(Scanner in, PrintStream out) {
         int destroyers;
         // The number of it cannot be less than zero and user can only enter an integer value.
         do {
-            System.out.println("Enter the number of destroyers. The number of this type of ship should be 0 or above: ");
+            out.println("Enter the number of destroyers. The number of this type of ship should be 0 or above: ");
             while (!in.hasNextInt()) {
-                System.out.println("Incorrect input. Try again.");
+                out.println("Incorrect input. Try again.");
                 in.next();
             }
             destroyers = in.nextInt();
         } while (destroyers < 0);
-        numberOfShips = destroyers;
+        return destroyers;
     }
 }
@@ -0,0 +1,87 @@
+package battleship;
+
+import java.util.Arrays;
+
+/**
+ * Ids of ships by the indexes of their first cells, for boards that do not keep an id for every cell.
+ * Cells are added in any order and sorted when an id is looked for, then an id is found by halves.
+ * Every ship takes 20 bytes.
+ */
+class FirstCells {
+    /**
+     * The number of ships.
+     */
+    private int size;
+
+    /**
+     * First cells of ships by their ids.
+     */
+    private long[] cells = new long[16];
+
+    /**
+     * First cells of ships in ascending order.
+     */
+    private long[] sorted = new long[0];
+
+    /**
+     * Ids of ships in the order of their first cells.
+     */
+    private int[] ids = new int[0];
+
+    /**
+     * Adds the first cell of a ship, ids go one after another from 1.
+     * @param id the id of the ship.
+     * @param cell the index of the first cell, i.e. row * width + column.
+     */
+    void add(int id, long cell) {
+        if (id != size + 1) {
+            throw new IllegalArgumentException("Ships have to be added one after another.");
+        }
+        if (id == cells.length) {
+            cells = Arrays.copyOf(cells, id * 2);
+        }
+        cells[id] = cell;
+        size = id;
+    }
+
+    /**
+     * Get the number of ships.
+     * @return the number of ships.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get the number of bytes the first cells take, roughly.
+     * @return the number of bytes.
+     */
+    long getMemorySize() {
+        return (long) Long.BYTES * (cells.length + sorted.length) + (long) Integer.BYTES * ids.length;
+    }
+
+    /**
+     * Get the id of a ship by its first cell.
+     * @param cell the index of the first cell, i.e. row * width + column.
+     * @return the id of the ship or 0 if no ship starts in the cell.
+     */
+    int get(long cell) {
+        if (sorted.length != size) {
+            sort();
+        }
+        int position = Arrays.binarySearch(sorted, cell);
+        return position < 0 ? 0 : ids[position];
+    }
+
+    /**
+     * Sorts the first cells of all ships, it is done once the fleet is arranged.
+     */
+    private void sort() {
+        sorted = Arrays.copyOfRange(cells, 1, size + 1);
+        Arrays.sort(sorted);
+        ids = new int[size];
+        for (int id = 1; id <= size; id++) {
+            ids[Arrays.binarySearch(sorted, cells[id])] = id;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package battleship;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Tells whether a fleet can be arranged in an ocean of a particular size so that ships do not touch.
+ * Cheap bounds are checked first, the exact search of {@link FleetPlacer} runs only when they are not enough,
+ * and the answers are remembered for the latest sizes and fleets. The search checks a limited number of
+ * positions from a few starts, so an answer takes a fraction of a second, and a fleet that none of them
+ * arranges is refused although it might fit. An ocean of more than {@link Board#DENSE_LIMIT}
+ * cells is too large for the exact search, so there the fleet is arranged once the way a game arranges it,
+ * and a fleet that this does not arrange is refused, since a game would not arrange it either.
+ */
+public class FleetFeasibility {
+    /**
+     * The number of answers remembered by default.
+     */
+    private static final int DEFAULT_CAPACITY = 256;
+
+    /**
+     * The largest number of ships of a fleet, a larger fleet is refused before its ships are listed.
+     */
+    private static final long MAX_SHIPS = Board.DENSE_LIMIT;
+
+    /**
+     * The number of positions the exact search checks from one start, tens of milliseconds.
+     */
+    private static final long SEARCH_BUDGET = 4_000_000;
+
+    /**
+     * The number of starts of the exact search in random orders of positions.
+     */
+    private static final int SEARCH_STARTS = 4;
+
+    /**
+     * Answers for the latest sizes and fleets, the least recently used one is forgotten first.
+     */
+    private final Map<String, Boolean> cache;
+
+    /**
+     * The number of answers found by the exact search.
+     */
+    private long searches;
+
+    public FleetFeasibility() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an oracle that remembers a limited number of answers.
+     * @param capacity the number of answers to remember.
+     */
+    public FleetFeasibility(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The capacity should be 0 or above.");
+        }
+        cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Checks if ships of all given types can be arranged. A fleet of more cells than the ocean has
+     * or of more than {@link Board#DENSE_LIMIT} ships is refused before its ships are listed.
+     * @param rows the number of rows of the ocean.
+     * @param columns the number of columns of the ocean.
+     * @param ships ships of particular types.
+     * @return true if the fleet fits.
+     */
+    public boolean isFeasible(int rows, int columns, Ship... ships) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("The sizes of the ocean have to be positive.");
+        }
+        long count = 0;
+        long cells = 0;
+        for (Ship ship : ships) {
+            count += ship.getShips();
+            cells += (long) ship.getShips() * ship.getSize();
+        }
+        if (count > MAX_SHIPS || cells > (long) rows * columns) {
+            return false;
+        }
+        int[] lengths = new int[(int) count];
+        int k = 0;
+        for (Ship ship : ships) {
+            for (int i = 0; i < ship.getShips(); i++) {
+                lengths[k++] = ship.getSize();
+            }
+        }
+        return isFeasible(rows, columns, lengths);
+    }
+
+    /**
+     * Checks if ships of the given lengths can be arranged.
+     * @param rows the number of rows of the ocean.
+     * @param columns the number of columns of the ocean.
+     * @param lengths the number of cells of every ship.
+     * @return true if the fleet fits.
+     */
+    public boolean isFeasible(int rows, int columns, int[] lengths) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("The sizes of the ocean have to be positive.");
+        }
+        int longest = 0;
+        for (int shipLength : lengths) {
+            if (shipLength <= 0) {
+                throw new IllegalArgumentException("The length of a ship has to be positive.");
+            }
+            longest = Math.max(longest, shipLength);
+        }
+        int[] counts = new int[longest + 1];
+        for (int shipLength : lengths) {
+            counts[shipLength]++;
+        }
+
+        // The same fleet is written the same way whatever the order of ships was.
+        StringBuilder key = new StringBuilder().append(rows).append('x').append(columns);
+        for (int shipLength = 1; shipLength <= longest; shipLength++) {
+            key.append(shipLength == 1 ? ':' : ',').append(counts[shipLength]);
+        }
+        String fleet = key.toString();
+        synchronized (cache) {
+            Boolean known = cache.get(fleet);
+            if (known != null) {
+                return known;
+            }
+        }
+
+        boolean feasible = decide(rows, columns, counts, lengths);
+        synchronized (cache) {
+            cache.put(fleet, feasible);
+        }
+        return feasible;
+    }
+
+    /**
+     * Get the number of answers that needed the exact search.
+     * @return the number of searches.
+     */
+    public synchronized long getSearches() {
+        return searches;
+    }
+
+    /**
+     * Finds the answer from bounds, a simple arrangement or the exact search.
+     * @param rows the number of rows of the ocean.
+     * @param columns the number of columns of the ocean.
+     * @param counts the number of ships of every length.
+     * @param lengths the number of cells of every ship.
+     * @return true if the fleet fits.
+     */
+    private boolean decide(int rows, int columns, int[] counts, int[] lengths) {
+        if (lengths.length == 0) {
+            return true;
+        }
+        int longest = counts.length - 1;
+        if (longest > Math.max(rows, columns)) {
+            return false;
+        }
+        // Two ships never share a 2x2 block of cells and a ship takes at least half of its length of blocks.
+        long blocks = 0;
+        // A ship with its fence cut to the right and bottom takes 2 * (length + 1) cells of a larger ocean.
+        long area = 0;
+        for (int shipLength = 1; shipLength <= longest; shipLength++) {
+            blocks += (long) counts[shipLength] * ((shipLength + 1) / 2);
+            area += (long) counts[shipLength] * 2 * (shipLength + 1);
+        }
+        if (blocks > (long) ((rows + 1) / 2) * ((columns + 1) / 2)
+                || area > (long) (rows + 1) * (columns + 1)) {
+            return false;
+        }
+        if (fitsInLanes(rows, columns, counts) || fitsInLanes(columns, rows, counts)) {
+            return true;
+        }
+        synchronized (this) {
+            searches++;
+        }
+        // Fixed seeds keep the answers repeatable.
+        long seed = rows * 31L + columns;
+        if ((long) rows * columns > Board.DENSE_LIMIT) {
+            // A sparse ocean is too large for the exact search, random positions are tried as in a game.
+            return new FleetPlacer(new SplittableRandom(seed)).place(new Ocean(rows, columns), lengths);
+        }
+        // A search that is stuck in one order of positions often finishes at once in another one.
+        for (int start = 0; start < SEARCH_STARTS; start++) {
+            FleetPlacer placer = new FleetPlacer(new SplittableRandom(seed + start));
+            if (placer.search(new CharBoard(rows, columns), lengths, SEARCH_BUDGET) != null) {
+                return true;
+            }
+            if (!placer.isOutOfBudget()) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tries to put all ships horizontally in every second row, the largest ships first.
+     * @param rows the number of rows of the ocean.
+     * @param columns the number of columns of the ocean.
+     * @param counts the number of ships of every length.
+     * @return true if all ships were put, false if it is not known whether the fleet fits.
+     */
+    private static boolean fitsInLanes(int rows, int columns, int[] counts) {
+        if (counts.length - 1 > columns) {
+            return false;
+        }
+        // Every ship takes its cells and one cell of a gap, the last ship of a row does not need the gap.
+        int[] space = new int[(rows + 1) / 2];
+        Arrays.fill(space, columns + 1);
+        for (int shipLength = counts.length - 1; shipLength >= 1; shipLength--) {
+            int lane = 0;
+            for (int i = 0; i < counts[shipLength]; i++) {
+                while (lane < space.length && space[lane] < shipLength + 1) {
+                    lane++;
+                }
+                if (lane == space.length) {
+                    return false;
+                }
+                space[lane] -= shipLength + 1;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,379 @@
+package battleship;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Arranges a whole fleet in the ocean or proves that it cannot be arranged.
+ * Ships are placed from the largest to the smallest one on legal cells only,
+ * and when a ship does not fit anywhere the previous ships are moved.
+ */
+public class FleetPlacer {
+    /**
+     * The source of random numbers, or null to use the random of the current thread.
+     */
+    private final RandomGenerator random;
+
+    /**
+     * The number of positions checked during the last arrangement.
+     */
+    private long attempts;
+
+    /**
+     * The number of ships taken back during the last arrangement.
+     */
+    private long backtracks;
+
+    /**
+     * True if the last search ran out of its positions before it found an answer.
+     */
+    private boolean outOfBudget;
+
+    /**
+     * The number of placed ships and fences that cover every cell during a search.
+     */
+    private int[] covered;
+
+    /**
+     * The number of blocks of 2x2 cells in a row, for every of four ways to split the ocean into blocks.
+     */
+    private int blockWidth;
+
+    /**
+     * The number of free cells of every block of 2x2 cells during a search, for every way to split the ocean.
+     */
+    private int[][] freeInBlock;
+
+    /**
+     * The number of blocks of 2x2 cells that have a free cell, for every way to split the ocean.
+     */
+    private int[] freeBlocks;
+
+    public FleetPlacer() {
+        this(null);
+    }
+
+    public FleetPlacer(RandomGenerator random) {
+        this.random = random;
+    }
+
+    /**
+     * Arranges ships of all given types in the ocean.
+     * @param ocean an instance of the game field.
+     * @param ships ships of particular types.
+     * @return true if all ships were arranged, false if the ocean is left untouched.
+     */
+    public boolean place(Ocean ocean, Ship... ships) {
+        int count = 0;
+        for (Ship ship : ships) {
+            count += ship.getShips();
+        }
+        int[] lengths = new int[count];
+        int k = 0;
+        for (Ship ship : ships) {
+            for (int i = 0; i < ship.getShips(); i++) {
+                lengths[k++] = ship.getSize();
+            }
+        }
+        return place(ocean, lengths);
+    }
+
+    /**
+     * Arranges ships of the given lengths in the ocean.
+     * @param ocean an instance of the game field.
+     * @param lengths the number of cells of every ship.
+     * @return true if all ships were arranged, false if the ocean is left untouched
+     * or, on a sparse board, if some ship did not find a position.
+     */
+    public boolean place(Ocean ocean, int[] lengths) {
+        if (ocean.getBoard().isSparse()) {
+            return placeRandomly(ocean, lengths);
+        }
+        int[] positions = search(ocean.getBoard(), lengths);
+        if (positions == null) {
+            return false;
+        }
+        for (int position : positions) {
+            int length = position >>> 24;
+            int cell = (position >>> 1) & 0x7FFFFF;
+            int X = cell / ocean.getWidth();
+            int Y = cell % ocean.getWidth();
+            int repeatRow = (position & 1) == 1 ? length : 1;
+            int repeatColumn = (position & 1) == 1 ? 1 : length;
+            ocean.placeShip(X, Y, repeatRow, repeatColumn);
+        }
+        return true;
+    }
+
+    /**
+     * Arranges ships on random free positions, the largest ships first. A sparse board is too large
+     * for the search, and its fleet takes a small part of it, so random positions are found at once.
+     * @param ocean an instance of the game field.
+     * @param lengths the number of cells of every ship.
+     * @return true if all ships were arranged, false if a ship did not find a position.
+     */
+    private boolean placeRandomly(Ocean ocean, int[] lengths) {
+        attempts = 0;
+        backtracks = 0;
+        RandomGenerator generator = random != null ? random : ThreadLocalRandom.current();
+        int[] sorted = lengths.clone();
+        Arrays.sort(sorted);
+        for (int k = sorted.length - 1; k >= 0; k--) {
+            attempts++;
+            if (ocean.placeRandomShip(sorted[k], generator) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the number of positions checked during the last arrangement.
+     * @return the number of attempts.
+     */
+    public long getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Get the number of ships taken back during the last arrangement.
+     * @return the number of backtracks.
+     */
+    public long getBacktracks() {
+        return backtracks;
+    }
+
+    /**
+     * Checks if the last search stopped before it found an answer.
+     * @return true if the positions of the search ran out.
+     */
+    public boolean isOutOfBudget() {
+        return outOfBudget;
+    }
+
+    /**
+     * Searches positions of all ships. A position packs the length of a ship in the highest byte,
+     * the index of its first cell and 1 in the lowest bit if the ship lies vertically.
+     * @param board cells of the ocean.
+     * @param lengths the number of cells of every ship.
+     * @return positions of ships or null if they cannot be arranged.
+     */
+    int[] search(Board board, int[] lengths) {
+        return search(board, lengths, Long.MAX_VALUE);
+    }
+
+    /**
+     * Searches positions of all ships, checking a limited number of positions.
+     * @param board cells of the ocean.
+     * @param lengths the number of cells of every ship.
+     * @param budget the largest number of positions to check.
+     * @return positions of ships or null if they cannot be arranged or the budget ran out,
+     * see {@link #isOutOfBudget()}.
+     */
+    int[] search(Board board, int[] lengths, long budget) {
+        attempts = 0;
+        backtracks = 0;
+        outOfBudget = false;
+        int length = board.getLength();
+        int width = board.getWidth();
+        if ((long) length * width > 0x7FFFFF) {
+            throw new IllegalArgumentException("The ocean is too large to arrange a fleet in it.");
+        }
+
+        // The largest ships go first.
+        int[] sorted = lengths.clone();
+        Arrays.sort(sorted);
+        int n = sorted.length;
+        for (int i = 0; i < n / 2; i++) {
+            int t = sorted[i];
+            sorted[i] = sorted[n - 1 - i];
+            sorted[n - 1 - i] = t;
+        }
+        // Two ships never share a 2x2 block of cells, and a ship takes at least half of its length of blocks.
+        int[] blocksLeft = new int[n + 1];
+        for (int i = n - 1; i >= 0; i--) {
+            if (sorted[i] <= 0) {
+                throw new IllegalArgumentException("The length of a ship has to be positive.");
+            }
+            blocksLeft[i] = blocksLeft[i + 1] + (sorted[i] + 1) / 2;
+        }
+
+        // Every cell remembers how many placed ships and fences cover it, and every block remembers
+        // how many of its cells are free. The ocean is split into blocks starting from each of the
+        // four cells of the top left corner, so that each split gives its own bound.
+        covered = new int[length * width];
+        blockWidth = width / 2 + 1;
+        freeInBlock = new int[4][(length / 2 + 1) * blockWidth];
+        freeBlocks = new int[4];
+        for (int i = 0; i < length; i++) {
+            for (int j = 0; j < width; j++) {
+                if (board.get(i, j) == '.') {
+                    for (int split = 0; split < 4; split++) {
+                        if (freeInBlock[split][block(split, i, j)]++ == 0) {
+                            freeBlocks[split]++;
+                        }
+                    }
+                } else {
+                    covered[i * width + j] = 1;
+                }
+            }
+        }
+
+        RandomGenerator generator = random != null ? random : ThreadLocalRandom.current();
+        int[][] anchors = new int[n == 0 ? 0 : sorted[0] + 1][];
+        int[] chosen = new int[n];
+        int depth = 0;
+        if (n != 0) {
+            chosen[0] = -1;
+        }
+        while (depth < n) {
+            int shipLength = sorted[depth];
+            if (anchors[shipLength] == null) {
+                anchors[shipLength] = anchors(length, width, shipLength, generator);
+            }
+            int[] list = anchors[shipLength];
+            int found = -1;
+            if (Math.min(Math.min(freeBlocks[0], freeBlocks[1]), Math.min(freeBlocks[2], freeBlocks[3]))
+                    >= blocksLeft[depth]) {
+                for (int k = chosen[depth] + 1; k < list.length; k++) {
+                    if (++attempts > budget) {
+                        outOfBudget = true;
+                        covered = null;
+                        freeInBlock = null;
+                        return null;
+                    }
+                    if (fits(covered, width, list[k], shipLength)) {
+                        found = k;
+                        break;
+                    }
+                }
+            }
+            if (found != -1) {
+                chosen[depth] = found;
+                cover(length, width, list[found], shipLength, 1);
+                depth++;
+                // Ships of the same type are interchangeable, so the next one takes only later positions.
+                if (depth < n) {
+                    chosen[depth] = sorted[depth] == shipLength ? found : -1;
+                }
+            } else {
+                depth--;
+                if (depth < 0) {
+                    covered = null;
+                    freeInBlock = null;
+                    return null;
+                }
+                backtracks++;
+                cover(length, width, anchors[sorted[depth]][chosen[depth]], sorted[depth], -1);
+            }
+        }
+
+        covered = null;
+        freeInBlock = null;
+        int[] positions = new int[n];
+        for (int i = 0; i < n; i++) {
+            positions[i] = sorted[i] << 24 | anchors[sorted[i]][chosen[i]];
+        }
+        return positions;
+    }
+
+    /**
+     * Lists all positions of a ship that lie in the ocean in a random order.
+     * @param length length of the ocean.
+     * @param width width of the ocean.
+     * @param shipLength the number of cells of the ship.
+     * @param generator the source of random numbers.
+     * @return positions of the first cell with 1 in the lowest bit if the ship lies vertically.
+     */
+    private static int[] anchors(int length, int width, int shipLength, RandomGenerator generator) {
+        int horizontal = width >= shipLength ? length * (width - shipLength + 1) : 0;
+        int vertical = shipLength == 1 || length < shipLength ? 0 : (length - shipLength + 1) * width;
+        int[] list = new int[horizontal + vertical];
+        int k = 0;
+        for (int i = 0; i < length; i++) {
+            for (int j = 0; j + shipLength <= width; j++) {
+                list[k++] = (i * width + j) << 1;
+            }
+        }
+        if (vertical != 0) {
+            for (int i = 0; i + shipLength <= length; i++) {
+                for (int j = 0; j < width; j++) {
+                    list[k++] = (i * width + j) << 1 | 1;
+                }
+            }
+        }
+        for (int i = list.length - 1; i > 0; i--) {
+            int j = generator.nextInt(i + 1);
+            int t = list[i];
+            list[i] = list[j];
+            list[j] = t;
+        }
+        return list;
+    }
+
+    /**
+     * Checks if none of the cells of a ship is covered.
+     * @param covered the number of ships and fences that cover every cell.
+     * @param width width of the ocean.
+     * @param anchor the position of the first cell of the ship.
+     * @param shipLength the number of cells of the ship.
+     * @return true if the ship fits.
+     */
+    private static boolean fits(int[] covered, int width, int anchor, int shipLength) {
+        int cell = anchor >>> 1;
+        int step = (anchor & 1) == 1 ? width : 1;
+        for (int i = 0; i < shipLength; i++, cell += step) {
+            if (covered[cell] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Covers or uncovers a ship together with its fence.
+     * @param length length of the ocean.
+     * @param width width of the ocean.
+     * @param anchor the position of the first cell of the ship.
+     * @param shipLength the number of cells of the ship.
+     * @param delta 1 to cover the cells, -1 to uncover them.
+     */
+    private void cover(int length, int width, int anchor, int shipLength, int delta) {
+        int X = (anchor >>> 1) / width;
+        int Y = (anchor >>> 1) % width;
+        boolean vertical = (anchor & 1) == 1;
+        int lastRow = Math.min(X + (vertical ? shipLength : 1), length - 1);
+        int lastColumn = Math.min(Y + (vertical ? 1 : shipLength), width - 1);
+        for (int i = Math.max(X - 1, 0); i <= lastRow; i++) {
+            for (int j = Math.max(Y - 1, 0); j <= lastColumn; j++) {
+                int before = covered[i * width + j];
+                covered[i * width + j] = before + delta;
+                if (before == 0) {
+                    for (int split = 0; split < 4; split++) {
+                        if (--freeInBlock[split][block(split, i, j)] == 0) {
+                            freeBlocks[split]--;
+                        }
+                    }
+                } else if (before + delta == 0) {
+                    for (int split = 0; split < 4; split++) {
+                        if (freeInBlock[split][block(split, i, j)]++ == 0) {
+                            freeBlocks[split]++;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the index of a block of 2x2 cells that contains a cell.
+     * @param split the way to split the ocean, its bits shift blocks by one row and by one column.
+     * @param i index of the first dimension.
+     * @param j index of the second dimension.
+     * @return the index of the block.
+     */
+    private int block(int split, int i, int j) {
+        return (i + (split >> 1)) / 2 * blockWidth + (j + (split & 1)) / 2;
+    }
+}
@@ -0,0 +1,112 @@
+package battleship;
+
+/**
+ * Settings of a game: the size of the ocean, the fleet and the game modes.
+ */
+public class GameConfig {
+    /**
+     * The number of rows of the ocean.
+     */
+    private final int rows;
+
+    /**
+     * The number of columns of the ocean.
+     */
+    private final int columns;
+
+    /**
+     * The number of cells of every ship of the fleet.
+     */
+    private final int[] lengths;
+
+    /**
+     * True if hit ships are recovered when the next shot does not follow the hit.
+     */
+    private final boolean recoveryMode;
+
+    /**
+     * The number of torpedoes, 0 if the torpedo mode is off.
+     */
+    private final int torpedoes;
+
+    /**
+     * Creates settings of a game.
+     * @param rows the number of rows of the ocean.
+     * @param columns the number of columns of the ocean.
+     * @param recoveryMode true to enable the recovery mode.
+     * @param torpedoes the number of torpedoes, from 0 to the number of all ships.
+     * @param ships ships of particular types.
+     */
+    public GameConfig(int rows, int columns, boolean recoveryMode, int torpedoes, Ship... ships) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("The sizes of the ocean have to be positive.");
+        }
+        int count = 0;
+        for (Ship ship : ships) {
+            count += ship.getShips();
+        }
+        if (torpedoes < 0 || torpedoes > count) {
+            throw new IllegalArgumentException("The number of torpedoes cannot be less than 0" +
+                    " and greater than the number of all ships.");
+        }
+        lengths = new int[count];
+        int k = 0;
+        for (Ship ship : ships) {
+            for (int i = 0; i < ship.getShips(); i++) {
+                lengths[k++] = ship.getSize();
+            }
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.recoveryMode = recoveryMode;
+        this.torpedoes = torpedoes;
+    }
+
+    /**
+     * Get the number of rows of the ocean.
+     * @return the number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Get the number of columns of the ocean.
+     * @return the number of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Get the number of cells of every ship of the fleet.
+     * @return a copy of the lengths of ships.
+     */
+    public int[] getLengths() {
+        return lengths.clone();
+    }
+
+    /**
+     * Get the number of all ships.
+     * @return the number of ships.
+     */
+    public int getNumberOfShips() {
+        return lengths.length;
+    }
+
+    /**
+     * Checks if the recovery mode is enabled.
+     * @return true if it is enabled.
+     */
+    public boolean isRecoveryMode() {
+        return recoveryMode;
+    }
+
+    /**
+     * Get the number of torpedoes.
+     * @return the number of torpedoes.
+     */
+    public int getTorpedoes() {
+        return torpedoes;
+    }
+}
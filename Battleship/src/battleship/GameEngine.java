@@ -0,0 +1,240 @@
+package battleship;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A game without a console: it arranges the fleet, takes shots and tells their results.
+ */
+public class GameEngine {
+    /**
+     * The game field.
+     */
+    private final Ocean ocean;
+
+    /**
+     * True if hit ships are recovered when the next shot does not follow the hit.
+     */
+    private final boolean recoveryMode;
+
+    /**
+     * The number of torpedoes left.
+     */
+    private int torpedoes;
+
+    /**
+     * The number of shots made.
+     */
+    private int shots;
+
+    /**
+     * Creates a game and arranges its fleet in a new ocean.
+     * @param config settings of the game.
+     */
+    public GameEngine(GameConfig config) {
+        this(config, null);
+    }
+
+    /**
+     * Creates a game and arranges its fleet in a new ocean.
+     * @param config settings of the game.
+     * @param random the source of random numbers, or null to use the random of the current thread.
+     */
+    public GameEngine(GameConfig config, RandomGenerator random) {
+        this(config, random, Board.create(config.getRows(), config.getColumns()));
+    }
+
+    /**
+     * Creates a game and arranges its fleet on an empty board, e.g. a {@link MappedBoard} that keeps the game.
+     * @param config settings of the game.
+     * @param random the source of random numbers, or null to use the random of the current thread.
+     * @param board the empty board of the size of the ocean.
+     */
+    public GameEngine(GameConfig config, RandomGenerator random, Board board) {
+        this(new Ocean(board), config.isRecoveryMode(), config.getTorpedoes());
+        if (board.getLength() != config.getRows() || board.getWidth() != config.getColumns()) {
+            throw new IllegalArgumentException("The board does not have the size of the ocean.");
+        }
+        if (!new FleetPlacer(random).place(ocean, config.getLengths())) {
+            throw new IllegalArgumentException("The ships cannot be arranged in the ocean of this size.");
+        }
+    }
+
+    /**
+     * Continues a game that a board kept, e.g. a {@link MappedBoard} that was opened again.
+     * @param board the board with the ships, the shots and the state of the game.
+     */
+    public GameEngine(Board board) {
+        this(storedOcean(board), board.getStoredGame());
+    }
+
+    /**
+     * Continues a game in an ocean of a board that kept the game.
+     * @param ocean the game field with the memorized cell of recovery mode.
+     * @param game the state of the game kept by the board.
+     */
+    private GameEngine(Ocean ocean, int[] game) {
+        this(ocean, game[0] == 1, game[4], game[5]);
+    }
+
+    /**
+     * Creates a game in an ocean with ships.
+     * @param ocean the game field.
+     * @param recoveryMode true to enable the recovery mode.
+     * @param torpedoes the number of torpedoes.
+     */
+    public GameEngine(Ocean ocean, boolean recoveryMode, int torpedoes) {
+        this(ocean, recoveryMode, torpedoes, 0);
+    }
+
+    /**
+     * Creates a saved game in an ocean with ships.
+     * @param ocean the game field.
+     * @param recoveryMode true to enable the recovery mode.
+     * @param torpedoes the number of torpedoes left.
+     * @param shots the number of shots made.
+     */
+    GameEngine(Ocean ocean, boolean recoveryMode, int torpedoes, int shots) {
+        if (torpedoes < 0 || shots < 0) {
+            throw new IllegalArgumentException("The numbers of torpedoes and shots should be 0 or above.");
+        }
+        this.ocean = ocean;
+        this.recoveryMode = recoveryMode;
+        this.torpedoes = torpedoes;
+        this.shots = shots;
+        store();
+    }
+
+    /**
+     * Shoots a cell.
+     * @param row the index of the row.
+     * @param column the index of the column.
+     * @return the result of the shot, a shot out of the ocean is not counted.
+     */
+    public ShotResult fire(int row, int column) {
+        ShotResult result = recoveryMode ? ocean.hitRecovery(row, column) : ocean.hit(row, column);
+        if (result != ShotResult.OUT_OF_BOUNDS) {
+            shots++;
+        }
+        store();
+        return result;
+    }
+
+    /**
+     * Shoots many cells in one call.
+     * @param rows indexes of rows.
+     * @param columns indexes of columns.
+     * @return results of the shots in the same order, shots out of the ocean are not counted.
+     */
+    public ShotResult[] fire(int[] rows, int[] columns) {
+        ShotResult[] results = ocean.salvo(rows, columns, false, recoveryMode);
+        for (ShotResult result : results) {
+            if (result != ShotResult.OUT_OF_BOUNDS) {
+                shots++;
+            }
+        }
+        store();
+        return results;
+    }
+
+    /**
+     * Shoots a cell with a torpedo, it sinks a whole ship.
+     * @param row the index of the row.
+     * @param column the index of the column.
+     * @return the result of the shot, a shot out of the ocean does not spend a torpedo.
+     */
+    public ShotResult fireTorpedo(int row, int column) {
+        if (torpedoes < 1) {
+            throw new IllegalStateException("There are no torpedoes left.");
+        }
+        ShotResult result = recoveryMode
+                ? ocean.hitWithTorpedoInRecoveryMode(row, column)
+                : ocean.hitWithTorpedo(row, column);
+        if (result != ShotResult.OUT_OF_BOUNDS) {
+            torpedoes--;
+            shots++;
+        }
+        store();
+        return result;
+    }
+
+    /**
+     * Checks if all ships are sunk.
+     * @return true if the game is over.
+     */
+    public boolean isOver() {
+        return !ocean.checkForShips();
+    }
+
+    /**
+     * Get the number of shots made.
+     * @return the number of shots.
+     */
+    public int getShots() {
+        return shots;
+    }
+
+    /**
+     * Get the number of torpedoes left.
+     * @return the number of torpedoes.
+     */
+    public int getTorpedoes() {
+        return torpedoes;
+    }
+
+    /**
+     * Checks if the recovery mode is enabled.
+     * @return true if it is enabled.
+     */
+    public boolean isRecoveryMode() {
+        return recoveryMode;
+    }
+
+    /**
+     * Get the number of ships that are not sunk.
+     * @return the number of ships.
+     */
+    public int getRemainingShips() {
+        return ocean.getRemainingShips();
+    }
+
+    /**
+     * Get a cell of the game field as the player sees it.
+     * @param row the index of the row.
+     * @param column the index of the column.
+     * @return '.' if the cell was not shot, '*' if missed, 'X' if hit and '^' if the ship is sunk.
+     */
+    public char getField(int row, int column) {
+        return ocean.getBoard().getField(row, column);
+    }
+
+    /**
+     * Get the game field.
+     * @return the ocean.
+     */
+    public Ocean getOcean() {
+        return ocean;
+    }
+
+    /**
+     * Builds the ocean of a game a board kept, with the memorized cell of recovery mode.
+     * @param board the board.
+     * @return the ocean.
+     */
+    private static Ocean storedOcean(Board board) {
+        int[] game = board.getStoredGame();
+        if (game == null) {
+            throw new IllegalArgumentException("The board does not keep a game.");
+        }
+        Ocean ocean = new Ocean(board);
+        ocean.memorize(game[1], game[2], game[3] == 1);
+        return ocean;
+    }
+
+    /**
+     * Lets a board that outlives its ocean keep the state of the game that does not live in cells.
+     */
+    private void store() {
+        ocean.getBoard().storeGame(recoveryMode, ocean.getFirstMemorizedIndex(), ocean.getSecondMemorizedIndex(),
+                ocean.isHit(), torpedoes, shots);
+    }
+}
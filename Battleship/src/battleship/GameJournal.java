@@ -0,0 +1,357 @@
+package battleship;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+/**
+ * An append-only file of the events of a game. The first record is the game itself: the size of the ocean,
+ * the fleet, the modes and the seed of the arrangement of ships, and then every shot and torpedo follows in
+ * the order they were made. Replaying the records arranges the same fleet from the seed and makes the same
+ * shots, so any state of the game is built again without snapshots of the ocean.
+ * <pre>
+ * int     magic "BSJR"
+ * byte    version
+ * byte    flags: 1 - recovery mode
+ * short   0
+ * int     rows, columns, torpedoes
+ * long    the seed of the arrangement of ships
+ * int     the numbers of carriers, battleships, cruisers, destroyers and submarines
+ * records 'S' for a shot or 'T' for a torpedo, int row, int column; 'Q' and two zeros when the player quits
+ * </pre>
+ * Numbers are big-endian. Records are gathered in a buffer and forced to the disk together, after a number
+ * of records or when {@link #sync()} is called, so a crash loses at most the records that were not synced.
+ * A record that was cut by a crash is dropped when the journal is replayed or opened again.
+ * A journal has one writer: the file is locked while it is open, and it cannot be opened again until it is closed.
+ */
+public class GameJournal implements Closeable {
+    /**
+     * The first bytes of a journal, "BSJR".
+     */
+    public static final int MAGIC = 0x42534A52;
+
+    /**
+     * The version of the format that is written.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The number of bytes of the record of the game.
+     */
+    private static final int HEADER = 48;
+
+    /**
+     * The number of bytes of a record of a shot.
+     */
+    private static final int RECORD = 9;
+
+    /**
+     * The number of bytes of the buffer of records.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * The flag of the recovery mode.
+     */
+    private static final int RECOVERY_MODE = 1;
+
+    /**
+     * The largest number of cells of a ship.
+     */
+    private static final int TYPES = 5;
+
+    /**
+     * The file of the journal.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Records that are not written yet.
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /**
+     * The number of records after which they are forced to the disk.
+     */
+    private final int syncEvery;
+
+    /**
+     * The number of records that are not forced to the disk.
+     */
+    private int unsynced;
+
+    private GameJournal(FileChannel channel, int syncEvery) {
+        this.channel = channel;
+        this.syncEvery = syncEvery;
+    }
+
+    /**
+     * Creates a journal of a new game, an existing file is replaced. The record of the game is forced at once.
+     * @param file the path of the journal.
+     * @param config settings of the game.
+     * @param seed the seed of the arrangement of ships, the game has to be arranged with a SplittableRandom of it.
+     * @param syncEvery the number of records after which they are forced to the disk.
+     * @return the journal.
+     * @throws IOException if the file cannot be written.
+     */
+    public static GameJournal create(Path file, GameConfig config, long seed, int syncEvery) throws IOException {
+        checkSyncEvery(syncEvery);
+        int[] ships = new int[TYPES + 1];
+        for (int length : config.getLengths()) {
+            if (length < 1 || length > TYPES) {
+                throw new IllegalArgumentException("A ship of " + length + " cells cannot be written to a journal.");
+            }
+            ships[length]++;
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        GameJournal journal = new GameJournal(channel, syncEvery);
+        try {
+            lock(channel);
+            channel.truncate(0);
+            journal.buffer.putInt(MAGIC).put((byte) VERSION).put((byte) (config.isRecoveryMode() ? RECOVERY_MODE : 0))
+                    .putShort((short) 0).putInt(config.getRows()).putInt(config.getColumns())
+                    .putInt(config.getTorpedoes()).putLong(seed);
+            for (int length = TYPES; length >= 1; length--) {
+                journal.buffer.putInt(ships[length]);
+            }
+            journal.unsynced++;
+            journal.sync();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return journal;
+    }
+
+    /**
+     * Opens a journal to add records, a record that was cut by a crash is dropped.
+     * @param file the path of the journal.
+     * @param syncEvery the number of records after which they are forced to the disk.
+     * @return the journal.
+     * @throws IOException if the file cannot be opened, it is open by another writer or it is not a journal.
+     */
+    public static GameJournal append(Path file, int syncEvery) throws IOException {
+        checkSyncEvery(syncEvery);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            lock(channel);
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Read until the whole record of the game is in the buffer.
+            }
+            checkHeader(header.flip());
+            long end = HEADER + (channel.size() - HEADER) / RECORD * RECORD;
+            channel.truncate(end);
+            channel.position(end);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        return new GameJournal(channel, syncEvery);
+    }
+
+    /**
+     * Adds a shot.
+     * @param row the index of the row.
+     * @param column the index of the column.
+     * @throws IOException if the records cannot be written.
+     */
+    public void shot(int row, int column) throws IOException {
+        add('S', row, column);
+    }
+
+    /**
+     * Adds a shot with a torpedo.
+     * @param row the index of the row.
+     * @param column the index of the column.
+     * @throws IOException if the records cannot be written.
+     */
+    public void torpedo(int row, int column) throws IOException {
+        add('T', row, column);
+    }
+
+    /**
+     * Adds the end of the game by the player and forces the records.
+     * @throws IOException if the records cannot be written.
+     */
+    public void quit() throws IOException {
+        add('Q', 0, 0);
+        sync();
+    }
+
+    /**
+     * Writes the records and forces them to the disk, nothing is done if all records are forced.
+     * @throws IOException if the records cannot be written.
+     */
+    public void sync() throws IOException {
+        if (unsynced == 0) {
+            return;
+        }
+        write();
+        channel.force(false);
+        unsynced = 0;
+    }
+
+    /**
+     * Forces the records and closes the file.
+     * @throws IOException if the records cannot be written.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Builds a game again from its journal. The shots are made by the same game engine as in the game,
+     * nothing is drawn, and the records after the player quit or a record cut by a crash are not replayed.
+     * @param file the path of the journal.
+     * @return the game after the last record.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if the file is not a journal of a known version or it is broken.
+     */
+    public static GameEngine replay(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("The journal is too large.");
+            }
+            MappedByteBuffer records = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            GameEngine engine = checkHeader(records);
+            while (records.remaining() >= RECORD) {
+                int kind = records.get();
+                int row = records.getInt();
+                int column = records.getInt();
+                switch (kind) {
+                    case 'S' -> engine.fire(row, column);
+                    case 'T' -> {
+                        if (engine.getTorpedoes() < 1) {
+                            throw new IllegalArgumentException("The journal is broken.");
+                        }
+                        engine.fireTorpedo(row, column);
+                    }
+                    case 'Q' -> {
+                        return engine;
+                    }
+                    default -> throw new IllegalArgumentException("The journal is broken.");
+                }
+            }
+            return engine;
+        }
+    }
+
+    /**
+     * Checks if the player of the game of a journal quit.
+     * @param file the path of the journal.
+     * @return true if the last record is the end of the game.
+     * @throws IOException if the file cannot be read.
+     */
+    public static boolean isQuit(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long records = (channel.size() - HEADER) / RECORD;
+            if (records <= 0) {
+                return false;
+            }
+            ByteBuffer kind = ByteBuffer.allocate(1);
+            channel.read(kind, HEADER + (records - 1) * RECORD);
+            return kind.get(0) == 'Q';
+        }
+    }
+
+    /**
+     * Locks a journal for its writer, the lock is released when the file is closed.
+     * @param channel the file of the journal.
+     * @throws IOException if the file is locked by another writer.
+     */
+    private static void lock(FileChannel channel) throws IOException {
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Another writer of this process has the file open.
+            lock = null;
+        }
+        if (lock == null) {
+            throw new IOException("The journal is open by another writer.");
+        }
+    }
+
+    /**
+     * Checks the number of records between syncs.
+     * @param syncEvery the number of records after which they are forced to the disk.
+     */
+    private static void checkSyncEvery(int syncEvery) {
+        if (syncEvery <= 0) {
+            throw new IllegalArgumentException("The number of records between syncs has to be positive.");
+        }
+    }
+
+    /**
+     * Reads the record of the game and arranges its fleet.
+     * @param buffer the bytes of the journal from the first one.
+     * @return the game before the first shot.
+     * @throws IllegalArgumentException if the bytes are not a journal of a known version.
+     */
+    private static GameEngine checkHeader(ByteBuffer buffer) {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("The file is not a journal of a game.");
+            }
+            int version = buffer.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("The version " + version + " of the journal is not supported.");
+            }
+            boolean recoveryMode = (buffer.get() & RECOVERY_MODE) != 0;
+            buffer.getShort();
+            int rows = buffer.getInt();
+            int columns = buffer.getInt();
+            int torpedoes = buffer.getInt();
+            long seed = buffer.getLong();
+            Ship[] ships = {new Carrier(buffer.getInt()), new Battleship(buffer.getInt()), new Cruiser(buffer.getInt()),
+                    new Destroyer(buffer.getInt()), new Submarine(buffer.getInt())};
+            return new GameEngine(new GameConfig(rows, columns, recoveryMode, torpedoes, ships),
+                    new SplittableRandom(seed));
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("The journal is broken.", e);
+        }
+    }
+
+    /**
+     * Adds a record, the records are written when the buffer is full and forced after a number of records.
+     * @param kind the kind of the record.
+     * @param row the index of the row.
+     * @param column the index of the column.
+     * @throws IOException if the records cannot be written.
+     */
+    private void add(char kind, int row, int column) throws IOException {
+        if (buffer.remaining() < RECORD) {
+            write();
+        }
+        buffer.put((byte) kind).putInt(row).putInt(column);
+        if (++unsynced >= syncEvery) {
+            sync();
+        }
+    }
+
+    /**
+     * Writes the records of the buffer to the file.
+     * @throws IOException if the records cannot be written.
+     */
+    private void write() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,796 @@
+package battleship;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * A TCP server that hosts many games in one thread: a selector wakes it up for the connections that
+ * have bytes to read or room to write, and every connection plays its own game in its own ocean.
+ * A client sends commands in lines, the words of the commands are the ones of scripts:
+ * <pre>
+ * game rows columns carriers battleships cruisers destroyers submarines recovery torpedoes seed
+ * shot row column
+ * torpedo row column
+ * resume id
+ * quit
+ * </pre>
+ * Every command gets one line back. A game is answered with "G", the number of ships and the id of the game,
+ * a shot with the code of its result and the number of ships left, i.e. 'M', 'H', 'A', 'O', 'N' or the number
+ * of cells of a sunk ship, like in scripts. A wrong command is answered with "E" and a message,
+ * and a command that fails in the server is answered so and closes its connection.
+ * Clients may send many commands without waiting for the answers.
+ * Games live in a store of sessions rather than in connections, so a client that lost its connection resumes
+ * the game by its id and is answered with "R" and the number of ships left. Games that are not played for
+ * a while are evicted from memory, and quitting removes the game.
+ * With a journal directory every game has a {@link GameJournal} of its shots, the journals are synced with
+ * every sweep, and a game that is in neither memory nor the spill directory, e.g. after a crash, is resumed
+ * by replaying its journal. A game is played by one connection at a time: a connection that resumes a game
+ * takes it over, and the connection that played it before is left without a game.
+ */
+public class GameServer implements Runnable, Closeable {
+    /**
+     * The size of the buffer of commands of a connection, a longer line closes the connection.
+     */
+    private static final int INPUT_SIZE = 4096;
+
+    /**
+     * The number of bytes of answers after which commands of a connection are not read until they are sent.
+     */
+    private static final int OUTPUT_LIMIT = 1 << 16;
+
+    /**
+     * The largest number of ships of a game, so that one command cannot take the memory of all games.
+     */
+    private static final int MAX_SHIPS = 1 << 20;
+
+    /**
+     * The number of milliseconds between sweeps of games that are not played.
+     */
+    private static final long SWEEP_MILLIS = 1000;
+
+    /**
+     * The largest number of games in memory of the default store.
+     */
+    private static final int DEFAULT_GAMES = 100_000;
+
+    /**
+     * The largest number of bytes of games in memory of the default store, half of the largest heap.
+     */
+    private static final long DEFAULT_BYTES = Runtime.getRuntime().maxMemory() / 2;
+
+    /**
+     * The time after which the default store evicts a game that is not played.
+     */
+    private static final Duration DEFAULT_IDLE = Duration.ofMinutes(30);
+
+    /**
+     * The number of shots of a game after which its journal is synced before the next sweep.
+     */
+    private static final int JOURNAL_SYNC_EVERY = 256;
+
+    /**
+     * Answers whether fleets fit, shared by all games.
+     */
+    private final FleetFeasibility feasibility;
+
+    /**
+     * The games of all connections.
+     */
+    private final SessionStore store;
+
+    /**
+     * The directory of journals of games or null if games are not journaled.
+     */
+    private final Path journals;
+
+    /**
+     * The connections that play games by the ids of the games.
+     */
+    private final Map<Long, Session> owners = new HashMap<>();
+
+    /**
+     * The selector of all connections.
+     */
+    private final Selector selector;
+
+    /**
+     * The socket that accepts connections.
+     */
+    private final ServerSocketChannel server;
+
+    /**
+     * The number of open connections.
+     */
+    private volatile int sessions;
+
+    /**
+     * True when the server is asked to stop.
+     */
+    private volatile boolean stopped;
+
+    /**
+     * Opens a server with a store that drops games that are not played for half an hour or do not fit in half
+     * of the heap, the port 0 takes a free port.
+     * @param address the address to listen to.
+     * @param feasibility the oracle of fleets.
+     * @throws IOException if the socket cannot be opened.
+     */
+    public GameServer(InetSocketAddress address, FleetFeasibility feasibility) throws IOException {
+        this(address, feasibility, new SessionStore(DEFAULT_GAMES, DEFAULT_BYTES, DEFAULT_IDLE, null));
+    }
+
+    /**
+     * Opens a server, the port 0 takes a free port.
+     * @param address the address to listen to.
+     * @param feasibility the oracle of fleets.
+     * @param store the store of games.
+     * @throws IOException if the socket cannot be opened.
+     */
+    public GameServer(InetSocketAddress address, FleetFeasibility feasibility, SessionStore store) throws IOException {
+        this(address, feasibility, store, null);
+    }
+
+    /**
+     * Opens a server that journals its games, the port 0 takes a free port.
+     * @param address the address to listen to.
+     * @param feasibility the oracle of fleets.
+     * @param store the store of games.
+     * @param journals the directory of journals of games or null if games are not journaled.
+     * @throws IOException if the socket cannot be opened or the directory cannot be created.
+     */
+    public GameServer(InetSocketAddress address, FleetFeasibility feasibility, SessionStore store, Path journals)
+            throws IOException {
+        this.feasibility = feasibility;
+        this.store = store;
+        this.journals = journals;
+        if (journals != null) {
+            Files.createDirectories(journals);
+        }
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        try {
+            server.bind(address, 1024);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            server.close();
+            selector.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Get the port the server listens to.
+     * @return the port.
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Get the number of open connections.
+     * @return the number of connections.
+     */
+    public int getSessions() {
+        return sessions;
+    }
+
+    /**
+     * Get the store of games.
+     * @return the store.
+     */
+    public SessionStore getStore() {
+        return store;
+    }
+
+    /**
+     * Serves connections until the server is closed.
+     */
+    @Override
+    public void run() {
+        try {
+            long sweep = System.nanoTime();
+            while (!stopped) {
+                selector.select(SWEEP_MILLIS);
+                if (System.nanoTime() - sweep >= SWEEP_MILLIS * 1_000_000) {
+                    sweep = System.nanoTime();
+                    store.evictIdle();
+                    syncJournals();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Session session = (Session) key.attachment();
+                    try {
+                        if (key.isReadable()) {
+                            session.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            session.write();
+                        }
+                    } catch (IOException e) {
+                        // A client that went away closes only its own connection.
+                        session.close();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("The server cannot wait for connections.", e);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Session session) {
+                    session.close();
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // Nothing is left to serve.
+            }
+        }
+    }
+
+    /**
+     * Stops serving and closes the socket.
+     * @throws IOException if the socket cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        stopped = true;
+        selector.wakeup();
+        server.close();
+    }
+
+    /**
+     * Forces the shots of all connections to their journals, so a crash loses at most the last second.
+     */
+    private void syncJournals() {
+        if (journals == null) {
+            return;
+        }
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Session session) {
+                session.syncJournal();
+            }
+        }
+    }
+
+    /**
+     * Get the journal file of a game.
+     * @param id the id of the game.
+     * @return the path of the journal.
+     */
+    private Path journal(long id) {
+        return journals.resolve(Long.toHexString(id) + ".journal");
+    }
+
+    /**
+     * Accepts all waiting connections.
+     * @throws IOException if a connection cannot be set up.
+     */
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Session session = new Session(channel);
+            session.key = channel.register(selector, SelectionKey.OP_READ, session);
+            sessions++;
+        }
+    }
+
+    /**
+     * A connection and its game.
+     */
+    private final class Session {
+        /**
+         * The connection.
+         */
+        private final SocketChannel channel;
+
+        /**
+         * The key of the connection in the selector.
+         */
+        private SelectionKey key;
+
+        /**
+         * Bytes of commands that are not handled yet.
+         */
+        private final ByteBuffer input = ByteBuffer.allocate(INPUT_SIZE);
+
+        /**
+         * Answers that are not sent yet.
+         */
+        private ByteBuffer output = ByteBuffer.allocate(256);
+
+        /**
+         * The position of the next byte of the line being parsed.
+         */
+        private int position;
+
+        /**
+         * The position after the last byte of the line being parsed.
+         */
+        private int end;
+
+        /**
+         * The id of the game in the store or 0 if no game was started.
+         */
+        private long game;
+
+        /**
+         * The journal of the game or null if the game is not journaled.
+         */
+        private GameJournal journal;
+
+        /**
+         * True if the connection is closed after the answers are sent.
+         */
+        private boolean closing;
+
+        Session(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Reads commands and answers all complete lines.
+         * @throws IOException if the connection fails.
+         */
+        void read() throws IOException {
+            if (channel.read(input) < 0) {
+                close();
+                return;
+            }
+            byte[] bytes = input.array();
+            int start = 0;
+            for (int k = 0; k < input.position() && !closing; k++) {
+                if (bytes[k] == '\n') {
+                    handle(bytes, start, k);
+                    start = k + 1;
+                }
+            }
+            if (start == 0 && !input.hasRemaining()) {
+                answerError("The line is too long.");
+                closing = true;
+            }
+            // The beginning of an incomplete line is moved to the start of the buffer.
+            input.limit(input.position()).position(start);
+            input.compact();
+            write();
+        }
+
+        /**
+         * Sends answers and decides what to wait for next.
+         * @throws IOException if the connection fails.
+         */
+        void write() throws IOException {
+            output.flip();
+            channel.write(output);
+            output.compact();
+            if (output.position() == 0 && closing) {
+                close();
+                return;
+            }
+            int interest = output.position() == 0 ? 0 : SelectionKey.OP_WRITE;
+            // A client that does not read its answers is not read either.
+            if (output.position() < OUTPUT_LIMIT && !closing) {
+                interest |= SelectionKey.OP_READ;
+            }
+            key.interestOps(interest);
+        }
+
+        /**
+         * Closes the connection.
+         */
+        void close() {
+            if (!channel.isOpen()) {
+                return;
+            }
+            sessions--;
+            key.cancel();
+            disown();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // The connection is gone anyway.
+            }
+        }
+
+        /**
+         * Forces the shots of the game to its journal.
+         */
+        void syncJournal() {
+            if (journal == null) {
+                return;
+            }
+            try {
+                journal.sync();
+            } catch (IOException e) {
+                // The game goes on without its journal.
+                closeJournal();
+            }
+        }
+
+        /**
+         * Closes the journal of the game, the game can still be resumed from it.
+         */
+        private void closeJournal() {
+            if (journal == null) {
+                return;
+            }
+            try {
+                journal.close();
+            } catch (IOException e) {
+                // The shots that were not synced are lost from the journal.
+            }
+            journal = null;
+        }
+
+        /**
+         * Removes the game of the connection, its journal is ended so that it is not resumed.
+         */
+        private void leave() {
+            if (game == 0) {
+                return;
+            }
+            store.remove(game);
+            if (journal != null) {
+                try {
+                    journal.quit();
+                } catch (IOException e) {
+                    // The journal stays without its end.
+                }
+            }
+            disown();
+        }
+
+        /**
+         * Makes the connection the player of a game, the connection that played it before is left without it
+         * and hands its journal over, so the journal of a game has one writer.
+         * @param id the id of the game.
+         */
+        private void own(long id) {
+            Session previous = owners.put(id, this);
+            if (previous != null && previous != this) {
+                journal = previous.journal;
+                previous.journal = null;
+                previous.game = 0;
+            }
+            game = id;
+        }
+
+        /**
+         * Leaves the game of the connection to others without removing it, its journal is closed.
+         */
+        private void disown() {
+            closeJournal();
+            if (game != 0) {
+                owners.remove(game, this);
+                game = 0;
+            }
+        }
+
+        /**
+         * Handles a line of a command.
+         * @param bytes the buffer of commands.
+         * @param from the first byte of the line.
+         * @param to the position of the line break.
+         */
+        private void handle(byte[] bytes, int from, int to) {
+            position = from;
+            end = to > from && bytes[to - 1] == '\r' ? to - 1 : to;
+            skipSpaces(bytes);
+            if (position == end) {
+                return;
+            }
+            int command = bytes[position] | 0x20;
+            while (position < end && bytes[position] != ' ') {
+                position++;
+            }
+            try {
+                switch (command) {
+                    case 'g' -> newGame(bytes);
+                    case 's', 't' -> shoot(bytes, command == 't');
+                    case 'r' -> resume(bytes);
+                    case 'q' -> quit();
+                    default -> throw new IllegalArgumentException("Unknown command.");
+                }
+            } catch (IllegalArgumentException e) {
+                answerError(e.getMessage());
+            } catch (RuntimeException e) {
+                // A command that broke the game closes only its own connection, the other games go on.
+                answerError("The command failed.");
+                closing = true;
+            }
+        }
+
+        /**
+         * Starts a new game.
+         * @param bytes the buffer of commands.
+         */
+        private void newGame(byte[] bytes) {
+            int rows = nextInt(bytes);
+            int columns = nextInt(bytes);
+            Ship[] ships = {new Carrier(nextInt(bytes)), new Battleship(nextInt(bytes)),
+                    new Cruiser(nextInt(bytes)), new Destroyer(nextInt(bytes)), new Submarine(nextInt(bytes))};
+            boolean recoveryMode = nextInt(bytes) != 0;
+            int torpedoes = nextInt(bytes);
+            long seed = nextLong(bytes);
+            // The fleet is measured before anything of its size is allocated.
+            long count = 0;
+            long cells = 0;
+            for (Ship ship : ships) {
+                count += ship.getShips();
+                cells += (long) ship.getShips() * ship.getSize();
+            }
+            if (rows <= 0 || columns <= 0 || rows > Main.MAX_SIDE || columns > Main.MAX_SIDE
+                    || count > MAX_SHIPS || cells > (long) rows * columns
+                    || !feasibility.isFeasible(rows, columns, ships)) {
+                throw new IllegalArgumentException("The ships cannot be arranged.");
+            }
+            GameConfig config = new GameConfig(rows, columns, recoveryMode, torpedoes, ships);
+            GameEngine engine = new GameEngine(config, new SplittableRandom(seed));
+            leave();
+            own(store.add(engine));
+            if (journals != null) {
+                try {
+                    journal = GameJournal.create(journal(game), config, seed, JOURNAL_SYNC_EVERY);
+                } catch (IOException e) {
+                    leave();
+                    throw new IllegalArgumentException("The journal of the game cannot be written.");
+                }
+            }
+            answer((byte) 'G', engine.getRemainingShips(), game);
+        }
+
+        /**
+         * Goes on with a game of a connection that was lost.
+         * @param bytes the buffer of commands.
+         */
+        private void resume(byte[] bytes) {
+            long id = nextLong(bytes);
+            GameEngine engine = id > 0 ? store.get(id) : null;
+            if (engine == null && id > 0 && journals != null) {
+                engine = replay(id);
+            }
+            if (engine == null) {
+                throw new IllegalArgumentException("There is no such game.");
+            }
+            if (id != game) {
+                disown();
+                own(id);
+            }
+            // The journal is opened when no connection has it open, e.g. after the game was evicted.
+            if (journal == null && journals != null) {
+                try {
+                    journal = GameJournal.append(journal(id), JOURNAL_SYNC_EVERY);
+                } catch (IOException | IllegalArgumentException e) {
+                    // A game that was started without a journal goes on without it.
+                }
+            }
+            answer((byte) 'R', engine.getRemainingShips());
+        }
+
+        /**
+         * Builds a game again from its journal and puts it in the store.
+         * @param id the id of the game.
+         * @return the game or null if it has no journal, the player quit it or the journal is broken.
+         */
+        private GameEngine replay(long id) {
+            Session owner = owners.get(id);
+            if (owner != null) {
+                // The shots in the buffer of the journal are written before it is read.
+                owner.syncJournal();
+            }
+            Path file = journal(id);
+            try {
+                if (!Files.exists(file) || GameJournal.isQuit(file)) {
+                    return null;
+                }
+                GameEngine engine = GameJournal.replay(file);
+                store.restore(id, engine);
+                return engine;
+            } catch (IOException | IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Removes the game and closes the connection after the answers are sent.
+         */
+        private void quit() {
+            leave();
+            closing = true;
+        }
+
+        /**
+         * Shoots a cell of the game.
+         * @param bytes the buffer of commands.
+         * @param torpedo true to shoot with a torpedo.
+         */
+        private void shoot(byte[] bytes, boolean torpedo) {
+            int row = nextInt(bytes);
+            int column = nextInt(bytes);
+            if (game == 0) {
+                throw new IllegalArgumentException("A shot before a game.");
+            }
+            GameEngine engine = store.get(game);
+            if (engine == null && journals != null) {
+                // The store dropped the game, but its journal has every shot.
+                engine = replay(game);
+            }
+            if (engine == null) {
+                disown();
+                throw new IllegalArgumentException("The game was dropped.");
+            }
+            byte code;
+            if (torpedo && engine.getTorpedoes() < 1) {
+                code = 'N';
+            } else {
+                // The shot is written to the journal before it is made.
+                if (journal != null) {
+                    try {
+                        if (torpedo) {
+                            journal.torpedo(row, column);
+                        } else {
+                            journal.shot(row, column);
+                        }
+                    } catch (IOException e) {
+                        closeJournal();
+                        throw new IllegalArgumentException("The shot cannot be written to the journal.");
+                    }
+                }
+                ShotResult result = torpedo ? engine.fireTorpedo(row, column) : engine.fire(row, column);
+                code = switch (result) {
+                    case MISS -> 'M';
+                    case HIT -> 'H';
+                    case ALREADY_HIT -> 'A';
+                    case OUT_OF_BOUNDS -> 'O';
+                    default -> (byte) ('0' + result.getShipType());
+                };
+            }
+            answer(code, engine.getRemainingShips());
+        }
+
+        /**
+         * Reads a number of the line.
+         * @param bytes the buffer of commands.
+         * @return the number.
+         */
+        private int nextInt(byte[] bytes) {
+            long value = nextLong(bytes);
+            if (value > Integer.MAX_VALUE || value < -Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The number is too large.");
+            }
+            return (int) value;
+        }
+
+        /**
+         * Reads a long number of the line.
+         * @param bytes the buffer of commands.
+         * @return the number.
+         */
+        private long nextLong(byte[] bytes) {
+            skipSpaces(bytes);
+            boolean negative = position < end && bytes[position] == '-';
+            if (negative) {
+                position++;
+            }
+            if (position == end || bytes[position] < '0' || bytes[position] > '9') {
+                throw new IllegalArgumentException("A number was expected.");
+            }
+            long value = 0;
+            while (position < end && bytes[position] >= '0' && bytes[position] <= '9') {
+                int digit = bytes[position++] - '0';
+                if (value > (Long.MAX_VALUE - digit) / 10) {
+                    throw new IllegalArgumentException("The number is too large.");
+                }
+                value = value * 10 + digit;
+            }
+            return negative ? -value : value;
+        }
+
+        /**
+         * Skips spaces of the line.
+         * @param bytes the buffer of commands.
+         */
+        private void skipSpaces(byte[] bytes) {
+            while (position < end && (bytes[position] == ' ' || bytes[position] == '\t')) {
+                position++;
+            }
+        }
+
+        /**
+         * Adds an answer of a code and a number.
+         * @param code the code.
+         * @param number the number, 0 or above.
+         */
+        private void answer(byte code, int number) {
+            reserve(13);
+            output.put(code).put((byte) ' ');
+            putNumber(number);
+            output.put((byte) '\n');
+        }
+
+        /**
+         * Adds an answer of a code and two numbers.
+         * @param code the code.
+         * @param number the first number, 0 or above.
+         * @param second the second number, 0 or above.
+         */
+        private void answer(byte code, int number, long second) {
+            reserve(33);
+            output.put(code).put((byte) ' ');
+            putNumber(number);
+            output.put((byte) ' ');
+            putNumber(second);
+            output.put((byte) '\n');
+        }
+
+        /**
+         * Adds the digits of a number, the room for them is reserved.
+         * @param number the number, 0 or above.
+         */
+        private void putNumber(long number) {
+            int from = output.position();
+            do {
+                output.put((byte) ('0' + number % 10));
+                number /= 10;
+            } while (number != 0);
+            // The digits were put from the last one.
+            for (int i = from, j = output.position() - 1; i < j; i++, j--) {
+                byte t = output.get(i);
+                output.put(i, output.get(j));
+                output.put(j, t);
+            }
+        }
+
+        /**
+         * Adds an answer of an error.
+         * @param message the message.
+         */
+        private void answerError(String message) {
+            reserve(message.length() + 3);
+            output.put((byte) 'E').put((byte) ' ');
+            for (int i = 0; i < message.length(); i++) {
+                char c = message.charAt(i);
+                output.put(c < 128 ? (byte) c : (byte) '?');
+            }
+            output.put((byte) '\n');
+        }
+
+        /**
+         * Makes room for answers.
+         * @param bytes the number of bytes to add.
+         */
+        private void reserve(int bytes) {
+            if (output.remaining() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(output.capacity() * 2, output.position() + bytes));
+                output.flip();
+                larger.put(output);
+                output = larger;
+            }
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package battleship;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * A shooter that hunts ships on cells of one colour of a chessboard and, after a hit, targets the cells
+ * next to it. Ships do not touch, so cells around a sunk ship and diagonal cells of a hit are known to be empty
+ * and are never shot. Candidates are kept in a stack and checked only when they are taken out of it,
+ * so every decision takes constant time on average.
+ */
+public class HuntTargetShooter implements Shooter {
+    /**
+     * The game.
+     */
+    private GameEngine engine;
+
+    /**
+     * Width of the ocean.
+     */
+    private int width;
+
+    /**
+     * Length of the ocean.
+     */
+    private int length;
+
+    /**
+     * Cells to hunt: cells of one colour in a random order and then the other cells in a random order.
+     */
+    private int[] hunt;
+
+    /**
+     * The position of the next cell to hunt.
+     */
+    private int huntPosition;
+
+    /**
+     * Cells next to hits that may take a ship, the last pushed cell is shot first.
+     */
+    private int[] candidates = new int[64];
+
+    /**
+     * The number of candidates.
+     */
+    private int candidatesSize;
+
+    /**
+     * Cells that are known to be empty because ships do not touch.
+     */
+    private boolean[] empty;
+
+    /**
+     * Hit cells of ships that are not sunk yet.
+     */
+    private int[] hits = new int[16];
+
+    /**
+     * The number of hit cells.
+     */
+    private int hitsSize;
+
+    /**
+     * True if the last chosen cell was a candidate next to a hit.
+     */
+    private boolean targeting;
+
+    @Override
+    public void newGame(GameEngine engine, RandomGenerator random) {
+        this.engine = engine;
+        length = engine.getOcean().getLength();
+        width = engine.getOcean().getWidth();
+        int size = Shooter.cells(engine);
+        if (empty == null || empty.length != size) {
+            empty = new boolean[size];
+            hunt = new int[size];
+        } else {
+            Arrays.fill(empty, false);
+        }
+        // Every ship longer than one cell covers a cell of each colour, so one colour finds them first.
+        int parity = random.nextInt(2);
+        int k = 0;
+        for (int cell = 0; cell < size; cell++) {
+            if ((cell / width + cell % width) % 2 == parity) {
+                hunt[k++] = cell;
+            }
+        }
+        int firstColour = k;
+        for (int cell = 0; cell < size; cell++) {
+            if ((cell / width + cell % width) % 2 != parity) {
+                hunt[k++] = cell;
+            }
+        }
+        shuffle(hunt, 0, firstColour, random);
+        shuffle(hunt, firstColour, size, random);
+        huntPosition = 0;
+        candidatesSize = 0;
+        hitsSize = 0;
+        targeting = false;
+    }
+
+    @Override
+    public int nextShot() {
+        while (candidatesSize > 0) {
+            int cell = candidates[--candidatesSize];
+            if (canShoot(cell)) {
+                targeting = true;
+                return cell;
+            }
+        }
+        targeting = false;
+        for (int round = 0; round < 2; round++) {
+            while (huntPosition < hunt.length) {
+                int cell = hunt[huntPosition++];
+                if (canShoot(cell)) {
+                    return cell;
+                }
+            }
+            // In recovery mode hit cells can become not shot again, so the cells are hunted once more.
+            huntPosition = 0;
+        }
+        throw new IllegalStateException("There are no cells left to shoot.");
+    }
+
+    @Override
+    public boolean useTorpedo() {
+        // A torpedo sinks the whole ship, so it is kept for cells that probably take a ship.
+        return targeting;
+    }
+
+    @Override
+    public void onResult(int cell, ShotResult result) {
+        int i = cell / width;
+        int j = cell % width;
+        if (result == ShotResult.MISS) {
+            empty[cell] = true;
+        } else if (result == ShotResult.HIT) {
+            addHit(cell);
+            // Diagonal cells of a hit never take a ship.
+            markEmpty(i - 1, j - 1);
+            markEmpty(i - 1, j + 1);
+            markEmpty(i + 1, j - 1);
+            markEmpty(i + 1, j + 1);
+            // Two hits in a line show how the ship lies, so the cells at its sides are empty.
+            if (isHit(i, j - 1) || isHit(i, j + 1)) {
+                markSides(i, j, false);
+            }
+            if (isHit(i - 1, j) || isHit(i + 1, j)) {
+                markSides(i, j, true);
+            }
+            push(i, j - 1);
+            push(i, j + 1);
+            push(i - 1, j);
+            push(i + 1, j);
+        } else if (result.isSunk()) {
+            fenceSunkShip(cell);
+        }
+        if (engine.isRecoveryMode()) {
+            pushRecoveredHits();
+        }
+    }
+
+    /**
+     * Marks all cells around a sunk ship as empty and forgets its hits.
+     * @param cell a cell of the ship.
+     */
+    private void fenceSunkShip(int cell) {
+        // The cells of the ship are found by walking over sunk cells from the shot cell.
+        int[] ship = new int[8];
+        int shipSize = 0;
+        ship[shipSize++] = cell;
+        empty[cell] = true;
+        for (int k = 0; k < shipSize; k++) {
+            int i = ship[k] / width;
+            int j = ship[k] % width;
+            for (int di = -1; di <= 1; di++) {
+                for (int dj = -1; dj <= 1; dj++) {
+                    int row = i + di;
+                    int column = j + dj;
+                    if (!inside(row, column) || empty[row * width + column]) {
+                        continue;
+                    }
+                    empty[row * width + column] = true;
+                    if (engine.getField(row, column) == '^') {
+                        if (shipSize == ship.length) {
+                            ship = Arrays.copyOf(ship, shipSize * 2);
+                        }
+                        ship[shipSize++] = row * width + column;
+                    }
+                }
+            }
+        }
+        int k = 0;
+        for (int h = 0; h < hitsSize; h++) {
+            if (engine.getField(hits[h] / width, hits[h] % width) == 'X') {
+                hits[k++] = hits[h];
+            }
+        }
+        hitsSize = k;
+    }
+
+    /**
+     * In recovery mode a ship that was not sunk in time becomes not hit, so its known cells are shot again
+     * in the order they lie in the ocean, one next to another.
+     */
+    private void pushRecoveredHits() {
+        int k = 0;
+        int recovered = 0;
+        int[] cells = null;
+        for (int h = 0; h < hitsSize; h++) {
+            if (engine.getField(hits[h] / width, hits[h] % width) == '.') {
+                if (cells == null) {
+                    cells = new int[hitsSize];
+                }
+                cells[recovered++] = hits[h];
+            } else {
+                hits[k++] = hits[h];
+            }
+        }
+        hitsSize = k;
+        if (recovered == 0) {
+            return;
+        }
+        Arrays.sort(cells, 0, recovered);
+        for (int r = recovered - 1; r >= 0; r--) {
+            push(cells[r] / width, cells[r] % width);
+        }
+    }
+
+    /**
+     * Marks the cells at both sides of a hit as empty.
+     * @param i the row of the hit.
+     * @param j the column of the hit.
+     * @param vertical true if the ship lies vertically.
+     */
+    private void markSides(int i, int j, boolean vertical) {
+        if (vertical) {
+            markEmpty(i, j - 1);
+            markEmpty(i, j + 1);
+        } else {
+            markEmpty(i - 1, j);
+            markEmpty(i + 1, j);
+        }
+    }
+
+    /**
+     * Remembers a hit cell of a ship that is not sunk.
+     * @param cell the cell.
+     */
+    private void addHit(int cell) {
+        if (hitsSize == hits.length) {
+            hits = Arrays.copyOf(hits, hitsSize * 2);
+        }
+        hits[hitsSize++] = cell;
+    }
+
+    /**
+     * Pushes a cell to the candidates if it can be shot.
+     * @param i the row of the cell.
+     * @param j the column of the cell.
+     */
+    private void push(int i, int j) {
+        if (!inside(i, j) || !canShoot(i * width + j)) {
+            return;
+        }
+        if (candidatesSize == candidates.length) {
+            candidates = Arrays.copyOf(candidates, candidatesSize * 2);
+        }
+        candidates[candidatesSize++] = i * width + j;
+    }
+
+    /**
+     * Marks a cell as empty if it lies in the ocean.
+     * @param i the row of the cell.
+     * @param j the column of the cell.
+     */
+    private void markEmpty(int i, int j) {
+        if (inside(i, j)) {
+            empty[i * width + j] = true;
+        }
+    }
+
+    /**
+     * Checks if a cell is a hit cell of a ship that is not sunk.
+     * @param i the row of the cell.
+     * @param j the column of the cell.
+     * @return true if the cell is hit.
+     */
+    private boolean isHit(int i, int j) {
+        return inside(i, j) && engine.getField(i, j) == 'X';
+    }
+
+    /**
+     * Checks if a cell is worth shooting.
+     * @param cell the index of the cell.
+     * @return true if the cell was not shot and may take a ship.
+     */
+    private boolean canShoot(int cell) {
+        return !empty[cell] && engine.getField(cell / width, cell % width) == '.';
+    }
+
+    /**
+     * Checks if a cell lies in the ocean.
+     * @param i the row of the cell.
+     * @param j the column of the cell.
+     * @return true if the cell exists.
+     */
+    private boolean inside(int i, int j) {
+        return i >= 0 && i < length && j >= 0 && j < width;
+    }
+
+    /**
+     * Shuffles a part of an array.
+     * @param array the array.
+     * @param from the first index of the part.
+     * @param to the index after the part.
+     * @param random the source of random numbers.
+     */
+    private static void shuffle(int[] array, int from, int to, RandomGenerator random) {
+        for (int i = to - 1; i > from; i--) {
+            int j = from + random.nextInt(i - from + 1);
+            int t = array[i];
+            array[i] = array[j];
+            array[j] = t;
+        }
+    }
+}
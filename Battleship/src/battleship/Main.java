@@ -1,59 +1,212 @@
 package battleship;
 
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Scanner;
 
 public class Main {
     /**
-     * The number of all ships in the ocean.
+     * Answers whether fleets fit in oceans of particular sizes, shared by all games.
      */
-    static int numberOfShips = 0;
+    static final FleetFeasibility feasibility = new FleetFeasibility();
 
     /**
-     * The number of shots made.
+     * The largest number of rows or columns of the ocean, large oceans keep only chunks with ships and shots.
      */
-    static int shotCounter = 0;
+    static final int MAX_SIDE = 100_000;
 
     /**
-     * The number of torpedoes.
+     * The port of the game server if no port is given.
      */
-    static int torpedoes = 0;
+    static final int DEFAULT_PORT = 7070;
 
-    private static void message() {
-        System.out.println("""
+    /**
+     * The largest number of games the game server keeps in memory.
+     */
+    private static final int SERVER_GAMES = 100_000;
+
+    /**
+     * The largest number of bytes of games the game server keeps in memory, half of the largest heap.
+     */
+    private static final long SERVER_BYTES = Runtime.getRuntime().maxMemory() / 2;
+
+    /**
+     * The time after which the game server evicts a game that is not played.
+     */
+    private static final Duration SERVER_IDLE = Duration.ofMinutes(30);
+
+    private static void message(PrintStream out) {
+        out.println("""
                 Choose an option by only entering 1 or 2:\s
                 1.Start the game.
                 2.Quit the game.""");
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        // With --script games are played from a file or from the standard input without prompts.
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--script")) {
+                runScript(i + 1 < args.length ? args[i + 1] : null);
+                return;
+            }
+            // With --replay the game of a journal is built again and its game field is shown.
+            if (args[i].equals("--replay") && i + 1 < args.length) {
+                runReplay(args[i + 1]);
+                return;
+            }
+            // With --server games are played by clients over TCP, with --spill games that are not played
+            // for a while are written to files of a directory until their players resume them,
+            // and with --journal the shots of every game are written to a journal in a directory.
+            if (args[i].equals("--server")) {
+                boolean port = i + 1 < args.length && !args[i + 1].startsWith("--");
+                String spill = null;
+                String journals = null;
+                for (int k = 0; k + 1 < args.length; k++) {
+                    if (args[k].equals("--spill")) {
+                        spill = args[k + 1];
+                    } else if (args[k].equals("--journal")) {
+                        journals = args[k + 1];
+                    }
+                }
+                runServer(port ? Integer.parseInt(args[i + 1]) : DEFAULT_PORT, spill, journals);
+                return;
+            }
+        }
+        // With --ansi the game field is drawn once and then only the shot cells are redrawn.
+        boolean ansi = false;
+        for (String arg : args) {
+            if (arg.equals("--ansi")) {
+                ansi = true;
+            }
+        }
+        // With --board the ocean of the game lives in a file, and a game that was not finished goes on.
+        Path board = null;
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals("--board")) {
+                board = Path.of(args[i + 1]);
+            }
+        }
+        // With --console-server the console game is played by clients over TCP, e.g. with telnet.
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--console-server")) {
+                boolean port = i + 1 < args.length && !args[i + 1].startsWith("--");
+                runConsoleServer(port ? Integer.parseInt(args[i + 1]) : DEFAULT_PORT, ansi);
+                return;
+            }
+        }
         System.out.println("Welcome to Battleships!");
         Scanner in = new Scanner(System.in);
-        start(in);
+        start(in, System.out, ansi, board);
+    }
+
+    /**
+     * Plays the games of a script and writes their results in the standard output.
+     * @param file the path of the script or null to read it from the standard input.
+     * @throws IOException if the script cannot be read.
+     */
+    private static void runScript(String file) throws IOException {
+        try (InputStream script = file == null ? System.in : new FileInputStream(file)) {
+            new ScriptRunner(feasibility).run(script, System.out);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Serves games over TCP until the process is stopped.
+     * @param port the port to listen to.
+     * @param spill the directory of games that are not played or null to drop them.
+     * @param journals the directory of journals of games or null if games are not journaled.
+     * @throws IOException if the socket cannot be opened.
+     */
+    private static void runServer(int port, String spill, String journals) throws IOException {
+        SessionStore store = new SessionStore(SERVER_GAMES, SERVER_BYTES, SERVER_IDLE,
+                spill == null ? null : Path.of(spill));
+        try (GameServer server = new GameServer(new InetSocketAddress(port), feasibility, store,
+                journals == null ? null : Path.of(journals))) {
+            System.out.println("Serving games on port " + server.getPort() + ".");
+            server.run();
+        }
+    }
+
+    /**
+     * Builds the game of a journal again and shows its game field and counters.
+     * @param file the path of the journal.
+     * @throws IOException if the journal cannot be read.
+     */
+    private static void runReplay(String file) throws IOException {
+        GameEngine engine;
+        try {
+            engine = GameJournal.replay(Path.of(file));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+        engine.getOcean().display(System.out);
+        System.out.printf("Shots: %d. Torpedoes: %d. Ships left: %d.%n",
+                engine.getShots(), engine.getTorpedoes(), engine.getRemainingShips());
+    }
+
+    /**
+     * Plays the console game with clients over TCP until the process is stopped.
+     * @param port the port to listen to.
+     * @param ansi true to redraw only changed cells in terminals of players.
+     * @throws IOException if the socket cannot be opened.
+     */
+    private static void runConsoleServer(int port, boolean ansi) throws IOException {
+        try (ConsoleServer server = new ConsoleServer(new InetSocketAddress(port), ansi)) {
+            System.out.println("Serving the console game on port " + server.getPort() + ".");
+            server.run();
+        }
     }
 
     /**
      * Start the game.
      * @param in an instance of a class Scanner.
+     * @param out the stream to write messages to.
+     * @param ansi true to redraw only changed cells in a terminal.
      */
-    private static void start(Scanner in) {
+    static void start(Scanner in, PrintStream out, boolean ansi) {
+        start(in, out, ansi, null);
+    }
+
+    /**
+     * Start the game, a game kept in the file of the board goes on first.
+     * @param in an instance of a class Scanner.
+     * @param out the stream to write messages to.
+     * @param ansi true to redraw only changed cells in a terminal.
+     * @param board the file of the board of games or null to keep games in memory.
+     */
+    static void start(Scanner in, PrintStream out, boolean ansi, Path board) {
+        if (board != null && Files.exists(board)) {
+            resume(in, out, ansi, board);
+        }
         boolean flag = true;
         int option;
         while (flag) {
-            message();
+            message(out);
 
             // Enter the option.
             while (!in.hasNextInt()) {
-                System.out.println("Incorrect input. Try again.");
+                out.println("Incorrect input. Try again.");
                 in.next();
             }
             option = in.nextInt();
 
             // Do the next step depending on the chosen option.
             switch (option) {
-                case 1 -> game(in);
+                case 1 -> game(in, out, ansi, board);
                 case 2 -> {
                     flag = false;
-                    System.out.println("Bye!");
+                    out.println("Bye!");
                 }
             }
         }
@@ -62,119 +215,139 @@ public class Main {
     /**
      * User enters the number of all types of ships.
      * @param in an instance of class Scanner to input data.
-     * @param ocean an instance of the game field.
+     * @param out the stream to write messages to.
+     * @return ships of all types.
      */
-    private static void clarifyShipTypes(Scanner in, Ocean ocean) {
+    private static Ship[] clarifyShipTypes(Scanner in, PrintStream out) {
         // Instantiate the ships and enter their quantity.
-        Carrier carrier = new Carrier(in);
-        Battleship battleship = new Battleship(in);
-        Cruiser cruiser = new Cruiser(in);
-        Destroyer destroyer = new Destroyer(in);
-        Submarine submarine = new Submarine(in);
-
-        // Adding ships in the ocean.
-        carrier.addShipsInOcean(ocean);
-        battleship.addShipsInOcean(ocean);
-        cruiser.addShipsInOcean(ocean);
-        destroyer.addShipsInOcean(ocean);
-        submarine.addShipsInOcean(ocean);
-
-        // Counting the number of all ships.
-        numberOfShips +=
-                carrier.getShips() + battleship.getShips() +
-                        cruiser.getShips() + destroyer.getShips() + submarine.getShips();
+        return new Ship[] {new Carrier(in, out), new Battleship(in, out), new Cruiser(in, out),
+                new Destroyer(in, out), new Submarine(in, out)};
     }
 
     /**
      * Play the game.
      * @param in an instance of class Scanner to input data.
+     * @param out the stream to write messages to.
+     * @param ansi true to redraw only changed cells in a terminal.
+     * @param board the file of the board of the game or null to keep the game in memory.
      */
-    private static void game(Scanner in) {
+    private static void game(Scanner in, PrintStream out, boolean ansi, Path board) {
         int rows;
         int columns;
 
-        rows = correctInputOfOceanParameters(in, "rows");
+        rows = correctInputOfOceanParameters(in, out, "rows");
 
-        columns = correctInputOfOceanParameters(in, "columns");
+        columns = correctInputOfOceanParameters(in, out, "columns");
 
-        Ocean ocean = new Ocean(rows, columns);
+        Ship[] ships = clarifyShipTypes(in, out);
 
-        clarifyShipTypes(in, ocean);
+        // Counting the number of all ships.
+        int numberOfShips = 0;
+        for (Ship ship : ships) {
+            numberOfShips += ship.getShips();
+        }
 
-        if (Ocean.getNumberOfShips() < numberOfShips) {
-            System.out.println("The System was unable to arrange all the ships." +
+        // The fleet is checked before it is arranged, either all ships get in the ocean or none.
+        if (!feasibility.isFeasible(rows, columns, ships)) {
+            out.println("The ships cannot be arranged in the ocean of this size." +
                     " Please try again or you can quit the game.");
         } else if (numberOfShips == 0) {
-            System.out.println("The number of ships is 0. Please try again and enter at least one ship.");
+            out.println("The number of ships is 0. Please try again and enter at least one ship.");
         } else {
-            switch (enableRecoveryMode(in)) {
-                case 1 -> recoveryModeEnabled(in, ocean);
-                case 2 -> recoveryModeDisabled(in, ocean);
+            boolean recoveryMode = enableRecoveryMode(in, out) == 1;
+            // Choosing the game mode depending on the fact whether the torpedo mode was enabled.
+            int torpedoes = enableTorpedoMode(in, out) == 1 ? enterNumberOfTorpedoes(in, out, numberOfShips) : 0;
+            GameConfig config = new GameConfig(rows, columns, recoveryMode, torpedoes, ships);
+            GameEngine engine;
+            MappedBoard mapped = null;
+            try {
+                if (board == null) {
+                    engine = new GameEngine(config);
+                } else {
+                    mapped = MappedBoard.create(board, rows, columns, 0);
+                    engine = new GameEngine(config, null, mapped);
+                }
+            } catch (IllegalArgumentException e) {
+                // Huge oceans arrange ships on random positions, and a dense fleet may not find them.
+                out.println(e.getMessage() + " Please try again or you can quit the game.");
+                finish(out, mapped, board);
+                return;
+            } catch (IOException e) {
+                out.println("The board cannot be created: " + e.getMessage());
+                return;
             }
+            playersTurn(in, out, engine, ansi, mapped);
+            out.printf("Congrats! You won the game with %s shots%n\n", engine.getShots());
+            finish(out, mapped, board);
         }
-        Ocean.setNumberOfShips(0);
-        numberOfShips = 0;
-        torpedoes = 0;
     }
 
     /**
-     * Suggest game options to user when the recovery mode is disabled.
+     * Goes on with the game kept in the file of a board.
      * @param in an instance of class Scanner to input data.
-     * @param ocean the game field.
+     * @param out the stream to write messages to.
+     * @param ansi true to redraw only changed cells in a terminal.
+     * @param board the file of the board.
      */
-    private static void recoveryModeDisabled(Scanner in, Ocean ocean) {
-        // Choosing the game mode depending on the fact whether the torpedo mode was enabled.
-        switch (enableTorpedoMode(in)) {
-            case 1 -> {
-                torpedoes = enterNumberOfTorpedoes(in);
-                playersTurn(in, ocean);
-                System.out.printf("Congrats! You won the game with %s shots%n\n", shotCounter);
-                shotCounter = 0;
-            }
-            case 2 -> {
-                playersTurn(in, ocean);
-                System.out.printf("Congrats! You won the game with %s shots%n\n", shotCounter);
-                shotCounter = 0;
-            }
+    private static void resume(Scanner in, PrintStream out, boolean ansi, Path board) {
+        MappedBoard mapped;
+        GameEngine engine;
+        try {
+            mapped = MappedBoard.open(board, 0);
+        } catch (IOException e) {
+            out.println("The game cannot be opened: " + e.getMessage());
+            return;
         }
+        try {
+            engine = new GameEngine(mapped);
+        } catch (IllegalArgumentException e) {
+            out.println(e.getMessage());
+            finish(out, mapped, null);
+            return;
+        }
+        out.println("The game goes on.");
+        if (!engine.isOver()) {
+            playersTurn(in, out, engine, ansi, mapped);
+        }
+        out.printf("Congrats! You won the game with %s shots%n\n", engine.getShots());
+        finish(out, mapped, board);
     }
 
     /**
-     * Suggest game options to user when the recovery mode is enabled.
-     * @param in an instance of class Scanner to input data.
-     * @param ocean the game field.
+     * Closes the board of a game and deletes its file, so that the next game starts anew.
+     * @param out the stream to write messages to.
+     * @param mapped the board or null if the game was kept in memory.
+     * @param board the file of the board or null to keep it.
      */
-    private static void recoveryModeEnabled(Scanner in, Ocean ocean) {
-        // Choosing the game mode depending on the fact whether the torpedo mode was enabled.
-        switch (enableTorpedoMode(in)) {
-            case 1 -> {
-                torpedoes = enterNumberOfTorpedoes(in);
-                playersTurnRecovery(in, ocean);
-                System.out.printf("Congrats! You won the game with %s shots%n\n", shotCounter);
-                shotCounter = 0;
-            }
-            case 2 -> {
-                playersTurnRecovery(in, ocean);
-                System.out.printf("Congrats! You won the game with %s shots%n\n", shotCounter);
-                shotCounter = 0;
+    private static void finish(PrintStream out, MappedBoard mapped, Path board) {
+        if (mapped == null) {
+            return;
+        }
+        try {
+            mapped.close();
+            if (board != null) {
+                Files.deleteIfExists(board);
             }
+        } catch (IOException e) {
+            out.println("The board cannot be closed: " + e.getMessage());
         }
     }
 
     /**
      * Choosing whether to turn on the recovery mode.
      * @param in an instance of class Scanner to input data.
+     * @param out the stream to write messages to.
      * @return the option in a list of suggestions.
      */
-    private static int enableRecoveryMode(Scanner in) {
+    private static int enableRecoveryMode(Scanner in, PrintStream out) {
         int value;
         do {
-            System.out.println("""
+            out.println("""
                     Do you wish to enable recovery mode?
                     1. Yes.
                     2. No.""");
             while (!in.hasNextInt()) {
-                System.out.println("Incorrect input. Try again.");
+                out.println("Incorrect input. Try again.");
                 in.next();
             }
             value = in.nextInt();
@@ -185,17 +358,18 @@ public class Main {
     /**
      * Choosing whether to turn on the torpedo mode.
      * @param in an instance of class Scanner to input data.
+     * @param out the stream to write messages to.
      * @return the option in a list of suggestions.
      */
-    private static int enableTorpedoMode(Scanner in) {
+    private static int enableTorpedoMode(Scanner in, PrintStream out) {
         int value;
         do {
-            System.out.println("""
+            out.println("""
                     Do you wish to enable torpedo mode?
                     1. Yes.
                     2. No.""");
             while (!in.hasNextInt()) {
-                System.out.println("Incorrect input. Try again.");
+                out.println("Incorrect input. Try again.");
                 in.next();
             }
             value = in.nextInt();
@@ -204,158 +378,110 @@ public class Main {
     }
 
     /**
-     * Turns of a player when the recovery mode is disabled.
-     * @param in an instance of class Scanner to input data.
-     * @param ocean the game field.
-     */
-    private static void playersTurn(Scanner in, Ocean ocean) {
-        ocean.display();
-        do {
-            if (torpedoes < 1) {
-                playWithNoTorpedoes(in, ocean);
-            } else {
-                switch (useTorpedoOrNot(in)) {
-                    case 1 -> playWithTorpedoes(in, ocean);
-                    case 2 -> playWithNoTorpedoes(in, ocean);
-                }
-            }
-        } while (ocean.checkForShips());
-    }
-
-    /**
-     * Turns of a player when the recovery mode is enabled.
+     * Turns of a player until all ships are sunk.
      * @param in an instance of class Scanner to input data.
-     * @param ocean the game field.
+     * @param out the stream to write messages to.
+     * @param engine the game.
+     * @param ansi true to redraw only changed cells in a terminal.
+     * @param mapped the board of the game that is forced to the disk after every shot or null.
      */
-    private static void playersTurnRecovery(Scanner in, Ocean ocean) {
-        ocean.display();
+    private static void playersTurn(Scanner in, PrintStream out, GameEngine engine, boolean ansi,
+                                    MappedBoard mapped) {
+        if (ansi) {
+            engine.getOcean().redraw(out, status(engine, ""));
+        } else {
+            engine.getOcean().display(out);
+        }
         do {
-            if (torpedoes < 1) {
-                playRecoveryMode(in, ocean);
-            } else {
-                switch (useTorpedoOrNot(in)) {
-                    case 1 -> playRecoveryModeWithTorpedoes(in, ocean);
-                    case 2 -> playRecoveryMode(in, ocean);
+            boolean torpedo = engine.getTorpedoes() >= 1 && useTorpedoOrNot(in, out) == 1;
+            shoot(in, out, engine, torpedo, ansi);
+            if (mapped != null) {
+                try {
+                    mapped.flush();
+                } catch (IOException e) {
+                    throw new IllegalStateException("The board cannot be written to the file.", e);
                 }
             }
-        } while (ocean.checkForShips());
+        } while (!engine.isOver());
     }
 
     /**
-     * Shot the ocean when recovery mode is on.
+     * Shot the ocean.
      * @param in an instance of class Scanner to input data.
-     * @param ocean the game field.
+     * @param out the stream to write messages to.
+     * @param engine the game.
+     * @param torpedo true to shoot with a torpedo.
+     * @param ansi true to redraw only changed cells in a terminal.
      */
-    private static void playRecoveryMode(Scanner in, Ocean ocean) {
+    private static void shoot(Scanner in, PrintStream out, GameEngine engine, boolean torpedo, boolean ansi) {
         int row;
         int column;
-        // Input a cell to shoot.
-        row = correctInputOfFiringCells(in, "Row index");
-        column = correctInputOfFiringCells(in, "Column index");
-
-        // Check if a chosen cell exists.
-        try {
-            ocean.hitRecovery(row, column);
-        } catch (Exception e) {
-            System.out.println("The cell does not exist. Try again.");
-            return;
-        }
-        shotCounter++;
-        ocean.display();
-    }
-
-    /**
-     * Shot the ocean when recovery mode is on and the torpedo mode is on.
-     * @param in an instance of class Scanner to input data.
-     * @param ocean the game field.
-     */
-    private static void playRecoveryModeWithTorpedoes(Scanner in, Ocean ocean) {
-        int column;
-        int row;
-
-        torpedoes--;
 
         // Input a cell to shoot.
-        row = correctInputOfFiringCells(in, "Row index");
-        column = correctInputOfFiringCells(in, "Column index");
-
-        // Check if a chosen cell exists.
-        try {
-            ocean.hitWithTorpedoInRecoveryMode(row, column);
-        } catch (Exception e) {
-            System.out.println("The cell does not exist. Try again.");
-            torpedoes++;
+        row = correctInputOfFiringCells(in, out, "Row index");
+        column = correctInputOfFiringCells(in, out, "Column index");
+
+        ShotResult result = torpedo ? engine.fireTorpedo(row, column) : engine.fire(row, column);
+        // An ocean larger than the screen shows the part around the last shot.
+        engine.getOcean().follow(row, column);
+        if (ansi) {
+            // The message goes to the status line together with the changed cells.
+            engine.getOcean().redraw(out, status(engine, report(result)));
             return;
         }
-        shotCounter++;
-        ocean.display();
+        out.println(report(result));
+        // Show the game field if a chosen cell exists.
+        if (result.isShot()) {
+            engine.getOcean().display(out);
+        }
     }
 
     /**
-     * Shot the ocean when recovery mode is off and the torpedo mode is on.
-     * @param in an instance of class Scanner to input data.
-     * @param ocean the game field.
+     * Get the message of a result of a shot.
+     * @param result the result of the shot.
+     * @return the message.
      */
-    private static void playWithTorpedoes(Scanner in, Ocean ocean) {
-        int column;
-        int row;
-        torpedoes--;
-
-        // Input a cell to shoot.
-        row = correctInputOfFiringCells(in, "Row index");
-        column = correctInputOfFiringCells(in, "Column index");
-
-        // Check if a chosen cell exists.
-        try {
-            ocean.hitWithTorpedo(row, column);
-        } catch (Exception e) {
-            System.out.println("The cell does not exist. Try again.");
-            torpedoes++;
-            return;
-        }
-        shotCounter++;
-        ocean.display();
+    private static String report(ShotResult result) {
+        return switch (result) {
+            case MISS -> "Miss!";
+            case HIT -> "Hit!";
+            case ALREADY_HIT -> "The cell was already hit!";
+            case OUT_OF_BOUNDS -> "The cell does not exist. Try again.";
+            case SUNK_SUBMARINE -> "You have sunk the submarine!";
+            case SUNK_DESTROYER -> "You have sunk the destroyer!";
+            case SUNK_CRUISER -> "You have sunk the cruiser!";
+            case SUNK_BATTLESHIP -> "You have sunk the battleship!";
+            case SUNK_CARRIER -> "You have sunk the carrier!";
+        };
     }
 
     /**
-     * Shot the ocean when recovery mode is off and the torpedo mode is off.
-     * @param in an instance of class Scanner to input data.
-     * @param ocean the game field.
+     * Get the status line of the game.
+     * @param engine the game.
+     * @param message the message of the last shot.
+     * @return the status line.
      */
-    private static void playWithNoTorpedoes(Scanner in, Ocean ocean) {
-        int row;
-        int column;
-
-        // Input a cell to shoot.
-        row = correctInputOfFiringCells(in, "Row index");
-        column = correctInputOfFiringCells(in, "Column index");
-
-        // Check if a chosen cell exists.
-        try {
-            ocean.hit(row, column);
-        } catch (Exception e) {
-            System.out.println("The cell does not exist. Try again.");
-            return;
-        }
-        shotCounter++;
-        ocean.display();
+    private static String status(GameEngine engine, String message) {
+        return String.format("%-36s Shots: %d. Torpedoes: %d. Ships left: %d.", message,
+                engine.getShots(), engine.getTorpedoes(), engine.getRemainingShips());
     }
 
     /**
      * Choose an option to use torpedo to shoot or not.
      * @param in an instance of class Scanner to input data.
+     * @param out the stream to write messages to.
      * @return an option in a suggested list.
      */
-    private static int useTorpedoOrNot(Scanner in) {
+    private static int useTorpedoOrNot(Scanner in, PrintStream out) {
         int value;
         do {
-            System.out.println("""
+            out.println("""
                     Do you want to use torpedo? Enter only 1 or 2:
                     1. Use torpedo.
                     2. Do not use torpedo.""");
 
             while (!in.hasNextInt()) {
-                System.out.println("Incorrect input. Try again.");
+                out.println("Incorrect input. Try again.");
                 in.next();
             }
             value = in.nextInt();
@@ -366,16 +492,18 @@ public class Main {
     /**
      * Enter the number of torpedoes.
      * @param in an instance of class Scanner to input data.
+     * @param out the stream to write messages to.
+     * @param numberOfShips the number of all ships.
      * @return an option in a suggested list.
      */
-    private static int enterNumberOfTorpedoes(Scanner in) {
+    private static int enterNumberOfTorpedoes(Scanner in, PrintStream out, int numberOfShips) {
         int value;
         do {
-            System.out.println("Enter the number of torpedoes." +
+            out.println("Enter the number of torpedoes." +
                     " It cannot be less than 1 and greater than the number of all ships");
 
             while (!in.hasNextInt()) {
-                System.out.println("Incorrect input. Try again.");
+                out.println("Incorrect input. Try again.");
                 in.next();
             }
             value = in.nextInt();
@@ -386,34 +514,37 @@ public class Main {
     /**
      * Enter the parameters of the ocean.
      * @param in an instance of class Scanner to input data.
+     * @param out the stream to write messages to.
      * @param parameter string that puts into a message.
      * @return the length of one of dimensions.
      */
-    private static int correctInputOfOceanParameters(Scanner in, String parameter) {
+    private static int correctInputOfOceanParameters(Scanner in, PrintStream out, String parameter) {
         int value;
         do {
-            System.out.printf("Input the positive number of %s. It has to be less than 11: %n", parameter);
+            out.printf("Input the positive number of %s. It cannot be greater than %d: %n",
+                    parameter, MAX_SIDE);
             while (!in.hasNextInt()) {
-                System.out.println("Incorrect input. Try again.");
+                out.println("Incorrect input. Try again.");
                 in.next();
             }
             value = in.nextInt();
-        } while (value <= 0 || value > 10);
+        } while (value <= 0 || value > MAX_SIDE);
         return value;
     }
 
     /**
      * Input the coordinate to shoot.
      * @param in an instance of class Scanner to input data.
+     * @param out the stream to write messages to.
      * @param parameter string that puts into a message.
      * @return the coordinate of one of dimensions.
      */
-    private static int correctInputOfFiringCells(Scanner in, String parameter) {
+    private static int correctInputOfFiringCells(Scanner in, PrintStream out, String parameter) {
         int value;
         do {
-            System.out.printf("Input the positive number of %s: %n", parameter);
+            out.printf("Input the positive number of %s: %n", parameter);
             while (!in.hasNextInt()) {
-                System.out.println("Incorrect input. Try again.");
+                out.println("Incorrect input. Try again.");
                 in.next();
             }
             value = in.nextInt();
@@ -0,0 +1,523 @@
+package battleship;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A board whose cells live in a memory-mapped file, so it may be larger than the heap, it survives restarts
+ * and it is opened without arranging the fleet again. Every cell takes four bits: the ocean layer in the
+ * lowest two bits and the game field layer in the next two bits, two cells share a byte.
+ * The file starts with a header, then the cells follow and then the records of ships. The header keeps
+ * the state of the game that is not in cells too: the recovery mode, the memorized cell of recovery mode,
+ * the torpedoes left and the shots made, so a game goes on after a restart as it was.
+ * Ids of ships are not kept for every cell: a ship cell finds the first cell of its ship, ships never touch.
+ * Cells are written in place and forced to the disk after a number of writes or when the board is flushed.
+ */
+public class MappedBoard extends Board implements Closeable {
+    /**
+     * The first bytes of every file of a board, "BSHP".
+     */
+    private static final int MAGIC = 0x42534850;
+
+    /**
+     * The version of the layout of the file.
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * The number of bytes of the header: magic, version, length, width, ships, flags of the game,
+     * not hit ship cells, the memorized row and column, torpedoes and shots.
+     */
+    private static final int HEADER = 64;
+
+    /**
+     * The offset of the number of ships in the header.
+     */
+    private static final int SHIPS_OFFSET = 16;
+
+    /**
+     * The offset of the flags of the game in the header.
+     */
+    private static final int FLAGS_OFFSET = 20;
+
+    /**
+     * The offset of the number of not hit ship cells in the header.
+     */
+    private static final int SHIP_CELLS_OFFSET = 24;
+
+    /**
+     * The offset of the memorized row and column of recovery mode in the header.
+     */
+    private static final int MEMORIZED_OFFSET = 32;
+
+    /**
+     * The offset of the numbers of torpedoes left and shots made in the header.
+     */
+    private static final int COUNTERS_OFFSET = 40;
+
+    /**
+     * The flag of a game that was stored in the header.
+     */
+    private static final int GAME_STORED = 1;
+
+    /**
+     * The flag of the recovery mode.
+     */
+    private static final int RECOVERY_MODE = 2;
+
+    /**
+     * The flag of a hit of the last shot in recovery mode.
+     */
+    private static final int HIT = 4;
+
+    /**
+     * The number of bytes of a record of a ship: row, column, length and orientation.
+     */
+    private static final int RECORD = 12;
+
+    /**
+     * The number of bits of the size of a mapped segment of cells, a mapping cannot exceed 2 GiB.
+     */
+    private static final int SEGMENT_BITS = 30;
+
+    /**
+     * Cells of the ocean layer by their codes.
+     */
+    private static final char[] OCEAN = {'.', ',', 'X', 'o'};
+
+    /**
+     * Cells of the game field layer by their codes.
+     */
+    private static final char[] FIELD = {'.', '*', 'X', '^'};
+
+    /**
+     * The file.
+     */
+    private final FileChannel channel;
+
+    /**
+     * The mapped header.
+     */
+    private final MappedByteBuffer header;
+
+    /**
+     * The mapped cells, split into segments of 2^30 bytes.
+     */
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * True for segments written since they were forced to the disk.
+     */
+    private final boolean[] dirty;
+
+    /**
+     * The offset of the first record of a ship in the file.
+     */
+    private final long records;
+
+    /**
+     * The number of writes of cells after which they are forced to the disk, 0 to force them only on flush.
+     */
+    private final int flushEvery;
+
+    /**
+     * The number of writes of cells since they were forced to the disk.
+     */
+    private int writes;
+
+    /**
+     * The number of ships.
+     */
+    private int ships;
+
+    /**
+     * The first row of every ship by its id.
+     */
+    private int[] rows = new int[16];
+
+    /**
+     * The first column of every ship by its id.
+     */
+    private int[] columns = new int[16];
+
+    /**
+     * The number of cells of every ship by its id.
+     */
+    private int[] lengths = new int[16];
+
+    /**
+     * Shows if a ship lies vertically, by its id.
+     */
+    private boolean[] vertical = new boolean[16];
+
+    /**
+     * Ids of ships by their first cells.
+     */
+    private final FirstCells firstCells = new FirstCells();
+
+    /**
+     * The number of not hit ship cells.
+     */
+    private long shipCells;
+
+    private MappedBoard(FileChannel channel, int length, int width, int flushEvery) throws IOException {
+        super(length, width);
+        if (flushEvery < 0) {
+            throw new IllegalArgumentException("The number of writes between flushes should be 0 or above.");
+        }
+        this.channel = channel;
+        this.flushEvery = flushEvery;
+        long cellBytes = ((long) length * width + 1) / 2;
+        records = HEADER + cellBytes;
+        header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        int count = (int) ((cellBytes + (1L << SEGMENT_BITS) - 1) >>> SEGMENT_BITS);
+        segments = new MappedByteBuffer[count];
+        dirty = new boolean[count];
+        for (int k = 0; k < count; k++) {
+            long start = (long) k << SEGMENT_BITS;
+            segments[k] = channel.map(FileChannel.MapMode.READ_WRITE, HEADER + start,
+                    Math.min(1L << SEGMENT_BITS, cellBytes - start));
+        }
+    }
+
+    /**
+     * Creates a file of an empty board. The file is sparse, so its size does not depend on the ocean.
+     * @param file the file, it must not exist.
+     * @param length length of the first dimension.
+     * @param width length of the second dimension.
+     * @param flushEvery the number of writes of cells after which they are forced to the disk,
+     *                   0 to force them only on flush and close.
+     * @return the board.
+     * @throws IOException if the file cannot be created.
+     */
+    public static MappedBoard create(Path file, int length, int width, int flushEvery) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.SPARSE);
+        try {
+            MappedBoard board = new MappedBoard(channel, length, width, flushEvery);
+            board.header.putInt(0, MAGIC);
+            board.header.putInt(4, VERSION);
+            board.header.putInt(8, length);
+            board.header.putInt(12, width);
+            board.header.force();
+            return board;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a file of a board. Only the header and the records of ships are read, cells are read when needed.
+     * @param file the file.
+     * @param flushEvery the number of writes of cells after which they are forced to the disk,
+     *                   0 to force them only on flush and close.
+     * @return the board.
+     * @throws IOException if the file cannot be read or it is not a file of a board.
+     */
+    public static MappedBoard open(Path file, int flushEvery) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer head = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            if (channel.read(head, 0) != HEADER || head.getInt(0) != MAGIC) {
+                throw new IOException("The file is not a board: " + file);
+            }
+            if (head.getInt(4) != VERSION) {
+                throw new IOException("The version " + head.getInt(4) + " of the board is not supported: " + file);
+            }
+            MappedBoard board = new MappedBoard(channel, head.getInt(8), head.getInt(12), flushEvery);
+            board.load(head.getInt(SHIPS_OFFSET), head.getLong(SHIP_CELLS_OFFSET));
+            return board;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the records of ships.
+     * @param count the number of ships.
+     * @param notHit the number of not hit ship cells.
+     * @throws IOException if the records cannot be read.
+     */
+    private void load(int count, long notHit) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(count * RECORD).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, records + buffer.position()) < 0) {
+                throw new IOException("The records of ships are cut.");
+            }
+        }
+        buffer.flip();
+        for (int id = 1; id <= count; id++) {
+            addShip(buffer.getInt(), buffer.getInt());
+            lengths[id] = buffer.getShort();
+            vertical[id] = buffer.get() != 0;
+            buffer.get();
+        }
+        shipCells = notHit;
+    }
+
+    @Override
+    public boolean isSparse() {
+        // The cells are not in the heap, so a large board is never gone over as a whole.
+        return (long) length * width > DENSE_LIMIT;
+    }
+
+    @Override
+    long getMemorySize() {
+        // The cells are in the file, the heap keeps only the ships.
+        return 13L * rows.length + firstCells.getMemorySize();
+    }
+
+    @Override
+    int getStoredShips() {
+        return ships;
+    }
+
+    @Override
+    int[] getStoredShip(int id) {
+        if (id < 1 || id > ships) {
+            throw new IndexOutOfBoundsException("There is no ship " + id + ".");
+        }
+        return new int[] {rows[id], columns[id], lengths[id], vertical[id] ? 1 : 0};
+    }
+
+    @Override
+    void storeGame(boolean recoveryMode, int firstMemorizedIndex, int secondMemorizedIndex, boolean hit,
+                   int torpedoes, int shots) {
+        header.putInt(FLAGS_OFFSET, GAME_STORED | (recoveryMode ? RECOVERY_MODE : 0) | (hit ? HIT : 0));
+        header.putInt(MEMORIZED_OFFSET, firstMemorizedIndex);
+        header.putInt(MEMORIZED_OFFSET + 4, secondMemorizedIndex);
+        header.putInt(COUNTERS_OFFSET, torpedoes);
+        header.putInt(COUNTERS_OFFSET + 4, shots);
+    }
+
+    @Override
+    int[] getStoredGame() {
+        int flags = header.getInt(FLAGS_OFFSET);
+        if ((flags & GAME_STORED) == 0) {
+            return null;
+        }
+        return new int[] {(flags & RECOVERY_MODE) != 0 ? 1 : 0, header.getInt(MEMORIZED_OFFSET),
+                header.getInt(MEMORIZED_OFFSET + 4), (flags & HIT) != 0 ? 1 : 0,
+                header.getInt(COUNTERS_OFFSET), header.getInt(COUNTERS_OFFSET + 4)};
+    }
+
+    @Override
+    public char get(int firstIndex, int secondIndex) {
+        checkIndex(firstIndex, secondIndex);
+        return OCEAN[read(firstIndex, secondIndex) & 3];
+    }
+
+    @Override
+    public void set(char value, int firstIndex, int secondIndex) {
+        checkIndex(firstIndex, secondIndex);
+        int code = switch (value) {
+            case '.' -> 0;
+            case ',' -> 1;
+            case 'X' -> 2;
+            case 'o' -> 3;
+            default -> throw new IllegalArgumentException("Unknown cell of the ocean: " + value);
+        };
+        int cell = read(firstIndex, secondIndex);
+        if ((cell & 3) == 2) {
+            shipCells--;
+        }
+        if (code == 2) {
+            shipCells++;
+        }
+        header.putLong(SHIP_CELLS_OFFSET, shipCells);
+        write(firstIndex, secondIndex, cell & ~3 | code);
+    }
+
+    @Override
+    public char getField(int firstIndex, int secondIndex) {
+        checkIndex(firstIndex, secondIndex);
+        return FIELD[read(firstIndex, secondIndex) >> 2];
+    }
+
+    @Override
+    public void setField(char value, int firstIndex, int secondIndex) {
+        checkIndex(firstIndex, secondIndex);
+        int code = switch (value) {
+            case '.' -> 0;
+            case '*' -> 1;
+            case 'X' -> 2;
+            case '^' -> 3;
+            default -> throw new IllegalArgumentException("Unknown cell of the game field: " + value);
+        };
+        write(firstIndex, secondIndex, read(firstIndex, secondIndex) & 3 | code << 2);
+    }
+
+    @Override
+    public int getShipId(int firstIndex, int secondIndex) {
+        checkIndex(firstIndex, secondIndex);
+        if ((read(firstIndex, secondIndex) & 2) == 0) {
+            return 0;
+        }
+        // Ships never touch, so the ship cells to the left or above belong to the same ship.
+        int i = firstIndex;
+        int j = secondIndex;
+        while (j > 0 && (read(i, j - 1) & 2) != 0) {
+            j--;
+        }
+        while (i > 0 && (read(i - 1, j) & 2) != 0) {
+            i--;
+        }
+        return firstCells.get((long) i * width + j);
+    }
+
+    /**
+     * Records a ship cell. Cells of a ship are set one after another from its first cell,
+     * and the record of the ship is written to the file.
+     * @param id the id of the ship, the id of the last ship or the next one.
+     * @param firstIndex index of the first dimension.
+     * @param secondIndex index of the second dimension.
+     */
+    @Override
+    public void setShipId(int id, int firstIndex, int secondIndex) {
+        checkIndex(firstIndex, secondIndex);
+        if (id == ships + 1) {
+            addShip(firstIndex, secondIndex);
+            lengths[id] = 1;
+        } else if (id == ships && id > 0) {
+            lengths[id]++;
+            vertical[id] = firstIndex > rows[id];
+        } else {
+            throw new IllegalArgumentException("Cells of ships have to be set one ship after another.");
+        }
+        ByteBuffer record = ByteBuffer.allocate(RECORD).order(ByteOrder.LITTLE_ENDIAN);
+        record.putInt(rows[id]).putInt(columns[id]).putShort((short) lengths[id]).put((byte) (vertical[id] ? 1 : 0));
+        record.clear();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record, records + (long) (id - 1) * RECORD + record.position());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("The ship cannot be written to the file.", e);
+        }
+        header.putInt(SHIPS_OFFSET, ships);
+    }
+
+    @Override
+    public boolean isFree(int X, int Y, int repeatRow, int repeatColumn) {
+        if (X < 0 || Y < 0 || X + repeatRow > length || Y + repeatColumn > width) {
+            return false;
+        }
+        for (int i = X; i < X + repeatRow; i++) {
+            for (int j = Y; j < Y + repeatColumn; j++) {
+                if ((read(i, j) & 3) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void fence(int X, int Y, int repeatRow, int repeatColumn) {
+        int lastRow = Math.min(X + repeatRow, length - 1);
+        int lastColumn = Math.min(Y + repeatColumn, width - 1);
+        for (int i = Math.max(X - 1, 0); i <= lastRow; i++) {
+            for (int j = Math.max(Y - 1, 0); j <= lastColumn; j++) {
+                int cell = read(i, j);
+                if ((cell & 3) == 0) {
+                    write(i, j, cell | 1);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean hasShips() {
+        return shipCells != 0;
+    }
+
+    /**
+     * Forces the written cells, the header and the records of ships to the disk.
+     * @throws IOException if the file cannot be written.
+     */
+    public void flush() throws IOException {
+        for (int k = 0; k < segments.length; k++) {
+            if (dirty[k]) {
+                segments[k].force();
+                dirty[k] = false;
+            }
+        }
+        channel.force(false);
+        header.force();
+        writes = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Adds a ship with its first cell.
+     * @param firstIndex the row of the first cell.
+     * @param secondIndex the column of the first cell.
+     */
+    private void addShip(int firstIndex, int secondIndex) {
+        int id = ++ships;
+        if (id == rows.length) {
+            rows = Arrays.copyOf(rows, id * 2);
+            columns = Arrays.copyOf(columns, id * 2);
+            lengths = Arrays.copyOf(lengths, id * 2);
+            vertical = Arrays.copyOf(vertical, id * 2);
+        }
+        rows[id] = firstIndex;
+        columns[id] = secondIndex;
+        firstCells.add(id, (long) firstIndex * width + secondIndex);
+    }
+
+    /**
+     * Reads both layers of a cell.
+     * @param firstIndex index of the first dimension.
+     * @param secondIndex index of the second dimension.
+     * @return the four bits of the cell.
+     */
+    private int read(int firstIndex, int secondIndex) {
+        long cell = (long) firstIndex * width + secondIndex;
+        long offset = cell >>> 1;
+        int b = segments[(int) (offset >>> SEGMENT_BITS)].get((int) (offset & (1L << SEGMENT_BITS) - 1));
+        return (cell & 1) == 0 ? b & 0xF : b >> 4 & 0xF;
+    }
+
+    /**
+     * Writes both layers of a cell and forces the cells to the disk if enough writes were made.
+     * @param firstIndex index of the first dimension.
+     * @param secondIndex index of the second dimension.
+     * @param value the four bits of the cell.
+     */
+    private void write(int firstIndex, int secondIndex, int value) {
+        long cell = (long) firstIndex * width + secondIndex;
+        long offset = cell >>> 1;
+        int k = (int) (offset >>> SEGMENT_BITS);
+        int position = (int) (offset & (1L << SEGMENT_BITS) - 1);
+        int b = segments[k].get(position);
+        b = (cell & 1) == 0 ? b & 0xF0 | value : b & 0x0F | value << 4;
+        segments[k].put(position, (byte) b);
+        dirty[k] = true;
+        if (flushEvery > 0 && ++writes >= flushEvery) {
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new IllegalStateException("The board cannot be written to the file.", e);
+            }
+        }
+    }
+}
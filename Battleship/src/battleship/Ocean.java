@@ -1,38 +1,46 @@
 package battleship;
 
+import java.io.PrintStream;
+import java.util.random.RandomGenerator;
+
 /**
  * A description of an essence of the ocean.
  */
 public class Ocean {
     /**
-     * Length of the ocean, i.e. length of the first dimension.
+     * The number of random cells tried before the index of legal positions is built.
      */
-    private final int length;
+    private static final int RANDOM_TRIES = 8;
 
     /**
-     * Width of the ocean, i.e. length of the second dimension.
+     * The number of random cells tried on a sparse board, it never builds the index of legal positions.
      */
-    private final int width;
+    private static final int SPARSE_TRIES = 1 << 16;
 
     /**
-     * An ocean with ships.
+     * The largest number of rows and columns of the game field shown at once.
      */
-    private final char[][] ocean;
+    public static final int MAX_VIEW = 64;
+
+    /**
+     * Length of the ocean, i.e. length of the first dimension.
+     */
+    private final int length;
 
     /**
-     * Extra array of a Game field to show misses and hits.
+     * Width of the ocean, i.e. length of the second dimension.
      */
-    private final char[][] gameField;
+    private final int width;
 
     /**
-     * Extra array for friendly interface of a game field.
+     * Cells of the ocean and of the game field.
      */
-    private final char[][] gameInterface;
+    private final Board board;
 
     /**
-     * The number of ships in the ocean.
+     * The picture of the game field, it is built when the ocean is displayed for the first time.
      */
-    private static int numberOfShips;
+    private BoardRenderer renderer;
 
     /**
      * Memorized extra field of a coordinate of the ocean that used in recovery mode.
@@ -49,18 +57,33 @@ public class Ocean {
      */
     private boolean hit = false;
 
+    /**
+     * The table of ships in the ocean.
+     */
+    private final ShipTable ships = new ShipTable();
+
+    /**
+     * Legal positions of ships, it is built when a random ship is placed for the first time.
+     */
+    private AnchorIndex anchors;
+
     public Ocean(int length, int width) {
-        this.length = length;
-        this.width = width;
-        ocean = new char[length][width];
-        gameField = new char[length][width];
-        gameInterface = new char[length + 2][width + 2];
-
-        // When initializing the ocean populate matrices with empty cells.
-        for (int i = 0; i < length; i++) {
-            for (int j = 0; j < width; j++) {
-                ocean[i][j] = '.';
-                gameField[i][j] = '.';
+        this(Board.create(length, width));
+    }
+
+    public Ocean(Board board) {
+        this.board = board;
+        length = board.getLength();
+        width = board.getWidth();
+        // A board that was saved keeps its ships, and their hit cells are counted again.
+        for (int id = 1; id <= board.getStoredShips(); id++) {
+            int[] ship = board.getStoredShip(id);
+            boolean vertical = ship[3] == 1;
+            ships.add(ship[0], ship[1], ship[2], vertical);
+            for (int k = 0; k < ship[2]; k++) {
+                if (board.get(vertical ? ship[0] + k : ship[0], vertical ? ship[1] : ship[1] + k) == 'o') {
+                    ships.hit(id);
+                }
             }
         }
     }
@@ -73,7 +96,7 @@ public class Ocean {
      * @return true if equals.
      */
     public boolean equals(int firstIndex, int secondIndex, char value) {
-        return ocean[firstIndex][secondIndex] == value;
+        return board.get(firstIndex, secondIndex) == value;
     }
 
     /**
@@ -93,11 +116,19 @@ public class Ocean {
     }
 
     /**
-     * Get the ocean.
+     * Get the ocean. Packed and sparse boards build a copy of it, so it is only for small oceans.
      * @return the ocean.
      */
     public char[][] getArray() {
-        return ocean;
+        return board.toArray();
+    }
+
+    /**
+     * Get the cells of the ocean.
+     * @return the board.
+     */
+    public Board getBoard() {
+        return board;
     }
 
     /**
@@ -107,105 +138,160 @@ public class Ocean {
      * @param secondIndex index of the second dimension.
      */
     public void setOcean(char value, int firstIndex, int secondIndex) {
-        ocean[firstIndex][secondIndex] = value;
+        board.set(value, firstIndex, secondIndex);
     }
 
     /**
-     * Get number of ships.
+     * Get number of ships placed in the ocean.
      * @return the number of ships.
      */
-    public static int getNumberOfShips() {
-        return numberOfShips;
+    public int getNumberOfShips() {
+        return ships.size();
     }
 
     /**
-     * Increment the number of ships.
+     * Display the game interface.
      */
-    public static void incrementNumberOfShips() {
-        numberOfShips++;
+    public void display() {
+        display(System.out);
     }
 
     /**
-     * Set a value to the number of ships.
-     * @param value setting value.
+     * Display the game interface with one write. Oceans with more than {@link #MAX_VIEW} rows or columns
+     * show only the part of the game field in the viewport.
+     * @param out the stream to display the game interface in.
      */
-    public static void setNumberOfShips(int value) {
-        numberOfShips = value;
+    public void display(PrintStream out) {
+        renderer().render(out);
     }
 
     /**
-     * Display the game interface.
+     * Display the game interface in a terminal that understands ANSI escape codes. After the first time
+     * only the cells changed by the last shots are redrawn together with a status line under the game field.
+     * @param out the stream of the terminal.
+     * @param status the text of the status line.
      */
-    public void display() {
-        adjustGameInterface();
-        for (int i = 0; i < length + 2; i++) {
-            for (int j = 0; j < width + 2; j++) {
-                System.out.print(gameInterface[i][j] + " ");
-            }
-            System.out.println();
+    public void redraw(PrintStream out, String status) {
+        renderer().renderAnsi(out, status);
+    }
+
+    /**
+     * Shows a part of the game field when the ocean is displayed. The part is moved and cut to lie in the ocean.
+     * @param firstRow the first row of the part.
+     * @param firstColumn the first column of the part.
+     * @param rows the number of rows of the part.
+     * @param columns the number of columns of the part.
+     */
+    public void setViewport(int firstRow, int firstColumn, int rows, int columns) {
+        if (rows <= 0 || columns <= 0) {
+            throw new IllegalArgumentException("The sizes of the viewport have to be positive.");
         }
+        rows = Math.min(rows, length);
+        columns = Math.min(columns, width);
+        firstRow = Math.max(Math.min(firstRow, length - rows), 0);
+        firstColumn = Math.max(Math.min(firstColumn, width - columns), 0);
+        renderer = new BoardRenderer(board, firstRow, firstColumn, rows, columns);
     }
 
     /**
-     * Tries to hit a cell with torpedo and shows the message of the result.
+     * Moves the viewport so that a cell is in its middle, if the cell is not shown yet.
      * @param firstIndex index of the first dimension.
      * @param secondIndex index of the second dimension.
      */
-    public void hitWithTorpedo(int firstIndex, int secondIndex) {
-        if (ocean[firstIndex][secondIndex] == ',' || ocean[firstIndex][secondIndex] == '.') {
-            gameField[firstIndex][secondIndex] = '*';
-            System.out.println("Miss!");
-        } else if (ocean[firstIndex][secondIndex] == 'o') {
-            System.out.println("The cell was already hit!");
-        } else if (ocean[firstIndex][secondIndex] == 'X') {
-            if (checkIfSubmarineSunk(firstIndex, secondIndex)) {
-                ocean[firstIndex][secondIndex] = 'o';
-                gameField[firstIndex][secondIndex] = '^';
-                typeSunk(1);
-            } else {
-                sinkShipRightAway(firstIndex, secondIndex);
-            }
+    public void follow(int firstIndex, int secondIndex) {
+        BoardRenderer current = renderer();
+        if (!contains(firstIndex, secondIndex) || current.shows(firstIndex, secondIndex)) {
+            return;
+        }
+        int rows = current.getRows();
+        int columns = current.getColumns();
+        setViewport(firstIndex - rows / 2, secondIndex - columns / 2, rows, columns);
+    }
+
+    /**
+     * Get the picture of the game field, the first one shows the top left part of the ocean.
+     * @return the renderer.
+     */
+    private BoardRenderer renderer() {
+        if (renderer == null) {
+            renderer = new BoardRenderer(board, 0, 0, Math.min(length, MAX_VIEW), Math.min(width, MAX_VIEW));
         }
+        return renderer;
     }
 
     /**
-     * Tries to hit a cell with torpedo in the recovery mode and shows a message of the result.
+     * Checks if a cell exists in the ocean.
      * @param firstIndex index of the first dimension.
      * @param secondIndex index of the second dimension.
+     * @return true if the cell exists.
      */
-    public void hitWithTorpedoInRecoveryMode(int firstIndex, int secondIndex) {
-        if (ocean[firstIndex][secondIndex] == ',' || ocean[firstIndex][secondIndex] == '.') {
+    public boolean contains(int firstIndex, int secondIndex) {
+        return firstIndex >= 0 && firstIndex < length && secondIndex >= 0 && secondIndex < width;
+    }
+
+    /**
+     * Tries to hit a cell with torpedo.
+     * @param firstIndex index of the first dimension.
+     * @param secondIndex index of the second dimension.
+     * @return the result of the shot.
+     */
+    public ShotResult hitWithTorpedo(int firstIndex, int secondIndex) {
+        if (!contains(firstIndex, secondIndex)) {
+            return ShotResult.OUT_OF_BOUNDS;
+        }
+        char cell = board.get(firstIndex, secondIndex);
+        if (cell == ',' || cell == '.') {
+            setField('*', firstIndex, secondIndex);
+            return ShotResult.MISS;
+        } else if (cell == 'o') {
+            return ShotResult.ALREADY_HIT;
+        }
+        return sinkShip(board.getShipId(firstIndex, secondIndex));
+    }
+
+    /**
+     * Tries to hit a cell with torpedo in the recovery mode.
+     * @param firstIndex index of the first dimension.
+     * @param secondIndex index of the second dimension.
+     * @return the result of the shot.
+     */
+    public ShotResult hitWithTorpedoInRecoveryMode(int firstIndex, int secondIndex) {
+        if (!contains(firstIndex, secondIndex)) {
+            return ShotResult.OUT_OF_BOUNDS;
+        }
+        char cell = board.get(firstIndex, secondIndex);
+        if (cell == ',' || cell == '.') {
             // Recover ship if the previous cell was hit and in the previous turn the ship was not sunk.
             if (hit && (firstMemorizedIndex != -1 && secondMemorizedIndex != -1)) {
                 recoverShip(firstMemorizedIndex, secondMemorizedIndex);
             }
             hit = false;
-            gameField[firstIndex][secondIndex] = '*';
-            System.out.println("Miss!");
-        } else if (ocean[firstIndex][secondIndex] == 'o') {
-            System.out.println("The cell was already hit!");
+            setField('*', firstIndex, secondIndex);
+            return ShotResult.MISS;
+        } else if (cell == 'o') {
             // Recover ship if the previous cell was hit and in the previous turn the ship was not sunk.
             if (hit && (firstMemorizedIndex != -1 && secondMemorizedIndex != -1)) {
                 recoverShip(firstMemorizedIndex, secondMemorizedIndex);
             }
             hit = false;
-        } else if (ocean[firstIndex][secondIndex] == 'X') {
-            if (checkIfSubmarineSunk(firstIndex, secondIndex)) {
-                caseWhenSubmarineWasHitByTorpedo(firstIndex, secondIndex);
-            } else {
-                if (checkAdjacencyForTorpedo(firstIndex, secondIndex)) {
-                    if (firstMemorizedIndex != -1 && secondMemorizedIndex != -1) {
-                        recoverShip(firstMemorizedIndex, secondMemorizedIndex);
-                    }
-                }
-                sinkShipRightAway(firstIndex, secondIndex);
-
-                // When a ship was sunk set the indexes values.
-                firstMemorizedIndex = -1;
-                secondMemorizedIndex = -1;
-                hit = false;
+            return ShotResult.ALREADY_HIT;
+        }
+        int id = board.getShipId(firstIndex, secondIndex);
+        if (ships.getLength(id) == 1) {
+            return caseWhenSubmarineWasHitByTorpedo(id);
+        }
+        if (checkAdjacencyForTorpedo(firstIndex, secondIndex)) {
+            if (firstMemorizedIndex != -1 && secondMemorizedIndex != -1) {
+                recoverShip(firstMemorizedIndex, secondMemorizedIndex);
             }
         }
+        ShotResult result = sinkShip(id);
+
+        // When a ship was sunk set the indexes values.
+        firstMemorizedIndex = -1;
+        secondMemorizedIndex = -1;
+        hit = false;
+        return result;
     }
 
     /**
@@ -222,284 +308,125 @@ public class Ocean {
     }
 
     /**
-     * Actions when the submaarine was hit by torpedo.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
+     * Actions when the submarine was hit by torpedo.
+     * @param id the id of the submarine.
+     * @return the result of the shot.
      */
-    private void caseWhenSubmarineWasHitByTorpedo(int firstIndex, int secondIndex) {
+    private ShotResult caseWhenSubmarineWasHitByTorpedo(int id) {
         // If the previous cell was not hit make the submarine sunk.
         // Or else get the submarine sunk but recover ship that was already hit.
-        if (!hit) {
-            ocean[firstIndex][secondIndex] = 'o';
-            gameField[firstIndex][secondIndex] = '^';
-            typeSunk(1);
-            firstMemorizedIndex = -1;
-            secondMemorizedIndex = -1;
-        } else {
-            ocean[firstIndex][secondIndex] = 'o';
-            gameField[firstIndex][secondIndex] = '^';
-            typeSunk(1);
+        ShotResult result = sinkShip(id);
+        if (hit) {
             hit = false;
             if (firstMemorizedIndex != -1 && secondMemorizedIndex != -1) {
                 recoverShip(firstMemorizedIndex, secondMemorizedIndex);
             }
-            firstMemorizedIndex = -1;
-            secondMemorizedIndex = -1;
         }
+        firstMemorizedIndex = -1;
+        secondMemorizedIndex = -1;
+        return result;
     }
 
     /**
-     * Ship recovery.
+     * Ship recovery, i.e. all hit cells of a ship that is not sunk become not hit.
      * @param firstIndex the first index of a dimension.
      * @param secondIndex the second index of a dimension.
      */
     private void recoverShip(int firstIndex, int secondIndex) {
-        if (firstIndex != 0 && firstIndex != ocean.length - 1) {
-            // If adjacent vertical cell equals to X or o then we recover ship vertically by going up and down.
-            if (ocean[firstIndex + 1][secondIndex] == 'X' || ocean[firstIndex + 1][secondIndex] == 'o'
-            || ocean[firstIndex - 1][secondIndex] == 'X' || ocean[firstIndex - 1][secondIndex] == 'o') {
-                recoverUpAndDown(firstIndex, secondIndex);
-            }
-        } else if (firstIndex == 0) {
-            // If adjacent vertical cell equals to X or o then we recover ship vertically by going down.
-            if (ocean[firstIndex + 1][secondIndex] == 'X' || ocean[firstIndex + 1][secondIndex] == 'o') {
-                recoverDown(firstIndex, secondIndex);
-            }
-        } else if (firstIndex == ocean.length - 1) {
-            // If adjacent vertical cell equals to X or o then we recover ship vertically by going up.
-            if (ocean[firstIndex - 1][secondIndex] == 'X' || ocean[firstIndex - 1][secondIndex] == 'o') {
-                recoverUp(firstIndex, secondIndex);
-            }
-        }
-
-        if (secondIndex != 0 && secondIndex != ocean[0].length - 1) {
-            // If adjacent horizontal cell equals to X or o then we recover ship vertically by going up and down.
-            if (ocean[firstIndex][secondIndex + 1] == 'X' || ocean[firstIndex][secondIndex + 1] == 'o'
-                    || ocean[firstIndex][secondIndex - 1] == 'X' || ocean[firstIndex][secondIndex - 1] == 'o') {
-                recoverLeftAndRight(firstIndex, secondIndex);
-            }
-        } else if (secondIndex == 0) {
-            // If adjacent horizontal cell equals to X or o then we recover ship vertically by going right.
-            if (ocean[firstIndex][secondIndex + 1] == 'X' || ocean[firstIndex][secondIndex + 1] == 'o') {
-                recoverRight(firstIndex, secondIndex);
-            }
-        } else if (secondIndex == ocean[0].length - 1) {
-            // If adjacent horizontal cell equals to X or o then we recover ship vertically by going left.
-            if (ocean[firstIndex][secondIndex - 1] == 'X' || ocean[firstIndex][secondIndex - 1] == 'o') {
-                recoverLeft(firstIndex, secondIndex);
-            }
-        }
-    }
-
-    /**
-     * Recovering ship by going left horizontally in while loop.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second second of a dimension.
-     */
-    private void recoverLeft(int firstIndex, int secondIndex) {
-        int i = secondIndex;
-        while (ocean[firstIndex][i] != ',') {
-            if (ocean[firstIndex][i] == 'o') {
-                ocean[firstIndex][i] = 'X';
-                if (gameField[firstIndex][i] != '^') {
-                    gameField[firstIndex][i] = '.';
-                }
-            }
-            if (i == 0) {
-                break;
-            }
-            i--;
-        }
-    }
-
-    /**
-     * Recovering ship by going right horizontally in while loop.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second of a dimension.
-     */
-    private void recoverRight(int firstIndex, int secondIndex) {
-        int i = secondIndex;
-        while (ocean[firstIndex][i] != ',') {
-            if (ocean[firstIndex][i] == 'o') {
-                ocean[firstIndex][i] = 'X';
-                if (gameField[firstIndex][i] != '^') {
-                    gameField[firstIndex][i] = '.';
-                }
-            }
-            if (i == ocean[0].length - 1) {
-                break;
-            }
-            i++;
-        }
-    }
-
-    /**
-     * Trying to recover ship by going left and right horizontally.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
-     */
-    private void recoverLeftAndRight(int firstIndex, int secondIndex) {
-        recoverRight(firstIndex, secondIndex);
-        int i;
-        i = secondIndex;
-        while (ocean[firstIndex][i] != ',') {
-            if (ocean[firstIndex][i] == 'o') {
-                ocean[firstIndex][i] = 'X';
-                if (gameField[firstIndex][i] != '^') {
-                    gameField[firstIndex][i] = '.';
-                }
-            }
-            if (i == 0) {
-                break;
-            }
-            i--;
-        }
-    }
-
-    /**
-     * Recover ship by going up vertically.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
-     */
-    private void recoverUp(int firstIndex, int secondIndex) {
-        int i = firstIndex;
-        while (ocean[i][secondIndex] != ',') {
-            if (ocean[i][secondIndex] == 'o') {
-                ocean[i][secondIndex] = 'X';
-                if (gameField[i][secondIndex] != '^') {
-                    gameField[i][secondIndex] = '.';
-                }
-            }
-            if (i == 0) {
-                break;
-            }
-            i--;
-        }
-    }
-
-    /**
-     * Recover ship by going down vertically
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
-     */
-    private void recoverDown(int firstIndex, int secondIndex) {
-        int i = firstIndex;
-        while (ocean[i][secondIndex] != ',') {
-            if (ocean[i][secondIndex] == 'o') {
-                ocean[i][secondIndex] = 'X';
-                if (gameField[i][secondIndex] != '^') {
-                    gameField[i][secondIndex] = '.';
+        int id = board.getShipId(firstIndex, secondIndex);
+        if (id == 0 || ships.getRemaining(id) == 0) {
+            return;
+        }
+        for (int i = 0; i < ships.getLength(id); i++) {
+            int row = ships.getRow(id, i);
+            int column = ships.getColumn(id, i);
+            if (board.get(row, column) == 'o') {
+                board.set('X', row, column);
+                if (board.getField(row, column) != '^') {
+                    setField('.', row, column);
                 }
             }
-            if (i == ocean.length - 1) {
-                break;
-            }
-            i++;
-        }
-    }
-
-    /**
-     * Recovering ship by going up and down vertically.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
-     */
-    private void recoverUpAndDown(int firstIndex, int secondIndex) {
-        recoverDown(firstIndex, secondIndex);
-        int i;
-        i = firstIndex;
-        while (ocean[i][secondIndex] != ',') {
-            if (ocean[i][secondIndex] == 'o') {
-                ocean[i][secondIndex] = 'X';
-                if (gameField[i][secondIndex] != '^') {
-                    gameField[i][secondIndex] = '.';
-                }
-            }
-            if (i == 0) {
-                break;
-            }
-            i--;
         }
+        ships.recover(id);
     }
 
     /**
      * Hits a ship in recovery mode.
      * @param firstIndex the first index of a dimension.
      * @param secondIndex the second index of a dimension.
+     * @return the result of the shot.
      */
-    public void hitRecovery(int firstIndex, int secondIndex) {
+    public ShotResult hitRecovery(int firstIndex, int secondIndex) {
+        if (!contains(firstIndex, secondIndex)) {
+            return ShotResult.OUT_OF_BOUNDS;
+        }
+        char cell = board.get(firstIndex, secondIndex);
         // Case when missed.
-        if (ocean[firstIndex][secondIndex] == ',' || ocean[firstIndex][secondIndex] == '.') {
-            missRecovery(firstIndex, secondIndex);
+        if (cell == ',' || cell == '.') {
+            return missRecovery(firstIndex, secondIndex);
             // Case when the hit cell gets hit again.
-        } else if (ocean[firstIndex][secondIndex] == 'o') {
-            System.out.println("The cell was already hit!");
+        } else if (cell == 'o') {
             if (hit && (firstMemorizedIndex != -1 && secondMemorizedIndex != -1)) {
                 recoverShip(firstMemorizedIndex, secondMemorizedIndex);
             }
             hit = false;
-            // Case when a ship gets hit
-        } else if (ocean[firstIndex][secondIndex] == 'X') {
-            ocean[firstIndex][secondIndex] = 'o';
-            gameField[firstIndex][secondIndex] = 'X';
-
-            if (!hit) {
-                caseWhenCellWasNotHit(firstIndex, secondIndex);
-            } else {
-                if (checkAdjacentHitCells(firstIndex, secondIndex)) {
-                    caseWhenAdjacentCellWasHit(firstIndex, secondIndex);
-                } else {
-                    caseWhenNotAdjacentCellWasHit(firstIndex, secondIndex);
-                }
-            }
+            return ShotResult.ALREADY_HIT;
+        }
+        // Case when a ship gets hit
+        int id = board.getShipId(firstIndex, secondIndex);
+        hitCell(id, firstIndex, secondIndex);
+
+        if (!hit) {
+            return caseWhenCellWasNotHit(id, firstIndex, secondIndex);
+        } else if (checkAdjacentHitCells(firstIndex, secondIndex)) {
+            return caseWhenAdjacentCellWasHit(id, firstIndex, secondIndex);
         }
+        return caseWhenNotAdjacentCellWasHit(id, firstIndex, secondIndex);
     }
 
     /**
      * Case when next adjacent cell was hit in recovery mode.
+     * @param id the id of the hit ship.
      * @param firstIndex the first index of a dimension.
      * @param secondIndex the second index of a dimension.
+     * @return the result of the shot.
      */
-    private void caseWhenAdjacentCellWasHit(int firstIndex, int secondIndex) {
+    private ShotResult caseWhenAdjacentCellWasHit(int id, int firstIndex, int secondIndex) {
         // Check if a ship is sunk.
-        if (checkIfSunk(firstIndex, secondIndex)) {
-            typeSunk(getSunkShipType(firstIndex, secondIndex));
-            hit = false;
-            firstMemorizedIndex = -1;
-            secondMemorizedIndex = -1;
-            // Else hit the cell.
-        } else {
-            firstMemorizedIndex = firstIndex;
-            secondMemorizedIndex = secondIndex;
-            System.out.println("Hit!");
-            hit = true;
-            caseWhenShipSunk(firstIndex, secondIndex);
+        if (ships.getRemaining(id) == 0) {
+            return caseWhenShipSunk(id);
         }
+        // Else hit the cell.
+        firstMemorizedIndex = firstIndex;
+        secondMemorizedIndex = secondIndex;
+        hit = true;
+        return ShotResult.HIT;
     }
 
     /**
      * Check a case when previous cell was not hit.
+     * @param id the id of the hit ship.
      * @param firstIndex the first index of a dimension.
      * @param secondIndex the second index of a dimension.
+     * @return the result of the shot.
      */
-    private void caseWhenCellWasNotHit(int firstIndex, int secondIndex) {
-        System.out.println("Hit!");
+    private ShotResult caseWhenCellWasNotHit(int id, int firstIndex, int secondIndex) {
         firstMemorizedIndex = firstIndex;
         secondMemorizedIndex = secondIndex;
         hit = true;
 
-        caseWhenSubmarineSunk(firstIndex, secondIndex);
-
-        caseWhenShipSunk(firstIndex, secondIndex);
+        return caseWhenShipSunk(id);
     }
 
     /**
      * Checking when not adjacent cell was hit.
+     * @param id the id of the hit ship.
      * @param firstIndex the first index of a dimension.
      * @param secondIndex the second index of a dimension.
+     * @return the result of the shot.
      */
-    private void caseWhenNotAdjacentCellWasHit(int firstIndex, int secondIndex) {
+    private ShotResult caseWhenNotAdjacentCellWasHit(int id, int firstIndex, int secondIndex) {
         // Hitting a cell and recover previous not adjacent cells.
-        System.out.println("Hit!");
         if (firstMemorizedIndex != -1 && secondMemorizedIndex != -1 && firstIndex != firstMemorizedIndex && secondIndex != secondMemorizedIndex) {
             recoverShip(firstMemorizedIndex, secondMemorizedIndex);
         }
@@ -509,7 +436,7 @@ public class Ocean {
         hit = true;
 
         // Check if a ship got sunk.
-        caseWhenShipSunk(firstIndex, secondIndex);
+        return caseWhenShipSunk(id);
     }
 
     /**
@@ -526,671 +453,376 @@ public class Ocean {
     }
 
     /**
-     * Actions when the ship is sunk.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
+     * Actions when the ship is sunk in the recovery mode.
+     * @param id the id of the hit ship.
+     * @return the result of the shot, a hit if the ship is not sunk.
      */
-    private void caseWhenShipSunk(int firstIndex, int secondIndex) {
-        if (checkIfSunk(firstIndex, secondIndex)) {
-            typeSunk(getSunkShipType(firstIndex, secondIndex));
-            hit = false;
-            firstMemorizedIndex = -1;
-            secondMemorizedIndex = -1;
-        }
-    }
-
-    /**
-     * Actions when the submarine is sunk.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
-     */
-    private void caseWhenSubmarineSunk(int firstIndex, int secondIndex) {
-        if (checkIfSubmarineSunk(firstIndex, secondIndex)) {
-            typeSunk(1);
-            gameField[firstIndex][secondIndex] = '^';
-            hit = false;
-            firstMemorizedIndex = -1;
-            secondMemorizedIndex = -1;
+    private ShotResult caseWhenShipSunk(int id) {
+        if (ships.getRemaining(id) != 0) {
+            return ShotResult.HIT;
         }
+        hit = false;
+        firstMemorizedIndex = -1;
+        secondMemorizedIndex = -1;
+        return sinkShip(id);
     }
 
     /**
      * Actions when there was a miss in the recovery mode.
      * @param firstIndex the first index of a dimension.
      * @param secondIndex the second index of a dimension.
+     * @return the result of the shot.
      */
-    private void missRecovery(int firstIndex, int secondIndex) {
-        gameField[firstIndex][secondIndex] = '*';
-        System.out.println("Miss!");
+    private ShotResult missRecovery(int firstIndex, int secondIndex) {
+        setField('*', firstIndex, secondIndex);
         if (hit && (firstMemorizedIndex != -1 && secondMemorizedIndex != -1)) {
             recoverShip(firstMemorizedIndex, secondMemorizedIndex);
         }
         hit = false;
+        return ShotResult.MISS;
     }
 
     /**
-     * Tries to hit a ship and shows a message of a result.
+     * Tries to hit a ship.
      * @param firstIndex the first index of a dimension.
      * @param secondIndex the second index of a dimension.
+     * @return the result of the shot.
      */
-    public void hit(int firstIndex, int secondIndex) {
-        if (ocean[firstIndex][secondIndex] == ',' || ocean[firstIndex][secondIndex] == '.') {
-            gameField[firstIndex][secondIndex] = '*';
-            System.out.println("Miss!");
-        } else if (ocean[firstIndex][secondIndex] == 'o') {
-            System.out.println("The cell was already hit!");
-        } else if (ocean[firstIndex][secondIndex] == 'X') {
-            ocean[firstIndex][secondIndex] = 'o';
-            gameField[firstIndex][secondIndex] = 'X';
-            if (!checkIfSunk(firstIndex, secondIndex)) {
-                System.out.println("Hit!");
-            } else if (checkIfSubmarineSunk(firstIndex, secondIndex)) {
-                typeSunk(1);
-                gameField[firstIndex][secondIndex] = '^';
-            } else if (checkIfSunk(firstIndex, secondIndex)) {
-                typeSunk(getSunkShipType(firstIndex, secondIndex));
-            }
+    public ShotResult hit(int firstIndex, int secondIndex) {
+        if (!contains(firstIndex, secondIndex)) {
+            return ShotResult.OUT_OF_BOUNDS;
         }
+        char cell = board.get(firstIndex, secondIndex);
+        if (cell == ',' || cell == '.') {
+            setField('*', firstIndex, secondIndex);
+            return ShotResult.MISS;
+        } else if (cell == 'o') {
+            return ShotResult.ALREADY_HIT;
+        }
+        int id = board.getShipId(firstIndex, secondIndex);
+        hitCell(id, firstIndex, secondIndex);
+        if (ships.getRemaining(id) != 0) {
+            return ShotResult.HIT;
+        }
+        return sinkShip(id);
     }
 
     /**
-     * Checks if there ships in the ocean.
-     * @return true if ocean contains ships.
+     * Shoots many cells one after another, like {@link #hit(int, int)} does.
+     * @param rows indexes of the first dimension.
+     * @param columns indexes of the second dimension.
+     * @return results of the shots in the same order.
      */
-    public boolean checkForShips() {
-        for (char[] chars : ocean) {
-            for (int j = 0; j < ocean[0].length; j++) {
-                if (chars[j] == 'X') {
-                    return true;
-                }
-            }
-        }
-        return false;
+    public ShotResult[] salvo(int[] rows, int[] columns) {
+        return salvo(rows, columns, false, false);
     }
 
     /**
-     * Extra method that adjusts game interface, makes it more pleasant.
+     * Shoots many cells with torpedoes, like {@link #hitWithTorpedo(int, int)} does.
+     * @param rows indexes of the first dimension.
+     * @param columns indexes of the second dimension.
+     * @return results of the shots in the same order.
      */
-    private void adjustGameInterface() {
-        gameInterface[0][0] = ' ';
-        gameInterface[0][1] = ' ';
-        gameInterface[1][0] = ' ';
-        gameInterface[1][1] = ' ';
-        for (int i = 0; i < 1; i++) {
-            for (int j = 2; j < width + 2; j++) {
-                gameInterface[i][j] = Integer.toString(j - 2).charAt(0);
-            }
-        }
-        for (int i = 2; i < length + 2; i++) {
-            for (int j = 0; j < 1; j++) {
-                gameInterface[i][j] = Integer.toString(i - 2).charAt(0);
-            }
-        }
-        for (int i = 1; i < 2; i++) {
-            for (int j = 2; j < width + 2; j++) {
-                gameInterface[i][j] = '_';
-            }
-        }
-        for (int i = 2; i < length + 2; i++) {
-            for (int j = 1; j < 2; j++) {
-                gameInterface[i][j] = '|';
-            }
-        }
-        for (int i = 2; i < length + 2; i++) {
-            if (width + 2 - 2 >= 0) {
-                System.arraycopy(gameField[i - 2], 0, gameInterface[i], 2, width + 2 - 2);
-            }
-        }
+    public ShotResult[] salvoWithTorpedo(int[] rows, int[] columns) {
+        return salvo(rows, columns, true, false);
     }
 
     /**
-     * Sinks a ship right away when using a torpedo.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
+     * Shoots many cells in recovery mode, like {@link #hitRecovery(int, int)} does.
+     * @param rows indexes of the first dimension.
+     * @param columns indexes of the second dimension.
+     * @return results of the shots in the same order.
      */
-    private void sinkShipRightAway(int firstIndex, int secondIndex) {
-        if (firstIndex != 0 && firstIndex != ocean.length - 1) {
-            if (ocean[firstIndex + 1][secondIndex] == 'X' || ocean[firstIndex + 1][secondIndex] == 'o'
-                    || ocean[firstIndex - 1][secondIndex] == 'X' || ocean[firstIndex - 1][secondIndex] == 'o') {
-                sinkBackAndForth(firstIndex, secondIndex);
-            }
-        } else if (firstIndex == 0) {
-            if (ocean[firstIndex + 1][secondIndex] == 'X' || ocean[firstIndex + 1][secondIndex] == 'o') {
-                sinkDown(firstIndex, secondIndex);
-            }
-        } else if (firstIndex == ocean.length - 1) {
-            if (ocean[firstIndex - 1][secondIndex] == 'X' || ocean[firstIndex - 1][secondIndex] == 'o') {
-                sinkUp(firstIndex, secondIndex);
-            }
-        }
-
-        if (secondIndex != 0 && secondIndex != ocean[0].length - 1) {
-            if (ocean[firstIndex][secondIndex - 1] == 'X' || ocean[firstIndex][secondIndex - 1] == 'o'
-                    || ocean[firstIndex][secondIndex + 1] == 'o' || ocean[firstIndex][secondIndex + 1] == 'X') {
-                sinkLeftAndRight(firstIndex, secondIndex);
-            }
-        } else if (secondIndex == 0) {
-            if (ocean[firstIndex][secondIndex + 1] == 'o' || ocean[firstIndex][secondIndex + 1] == 'X') {
-                sinkRight(firstIndex, secondIndex);
-            }
-        } else if (secondIndex == ocean[0].length - 1) {
-            if (ocean[firstIndex][secondIndex - 1] == 'X' || ocean[firstIndex][secondIndex - 1] == 'o') {
-                sinkLeft(firstIndex, secondIndex);
-            }
-        }
-
-        typeSunk(getSunkShipType(firstIndex, secondIndex));
+    public ShotResult[] salvoRecovery(int[] rows, int[] columns) {
+        return salvo(rows, columns, false, true);
     }
 
     /**
-     * Gets a type sunk ship.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
-     * @return
+     * Shoots many cells with torpedoes in recovery mode, like {@link #hitWithTorpedoInRecoveryMode(int, int)} does.
+     * @param rows indexes of the first dimension.
+     * @param columns indexes of the second dimension.
+     * @return results of the shots in the same order.
      */
-    private int getSunkShipType(int firstIndex, int secondIndex) {
-        int shipType = 0;
-
-        if (firstIndex != 0 && firstIndex != ocean.length - 1) {
-            if (ocean[firstIndex + 1][secondIndex] == 'o' || ocean[firstIndex - 1][secondIndex] == 'o') {
-                shipType = goBackAndForthVertically(firstIndex, secondIndex, shipType);
-            }
-        } else if (firstIndex == 0) {
-            if (ocean[firstIndex + 1][secondIndex] == 'o') {
-                shipType = goDownVertically(firstIndex, secondIndex, shipType);
-            }
-        } else if (firstIndex == ocean.length - 1) {
-            if (ocean[firstIndex - 1][secondIndex] == 'o') {
-                shipType = goUpVertically(firstIndex, secondIndex, shipType);
-            }
-        }
-
-
-        if (secondIndex != 0 && secondIndex != ocean[0].length - 1) {
-            if (ocean[firstIndex][secondIndex + 1] == 'o' || ocean[firstIndex][secondIndex - 1] == 'o') {
-                shipType = goBackAndForthHorizontally(firstIndex, secondIndex, shipType);
-            }
-        } else if (secondIndex == 0) {
-            if (ocean[firstIndex][secondIndex + 1] == 'o') {
-                shipType = goRight(firstIndex, secondIndex, shipType);
-            }
-        } else if (secondIndex == ocean[0].length - 1) {
-            if (ocean[firstIndex][secondIndex - 1] == 'o') {
-                shipType = goLeft(firstIndex, secondIndex, shipType);
-            }
-        }
-
-        return shipType;
+    public ShotResult[] salvoWithTorpedoInRecoveryMode(int[] rows, int[] columns) {
+        return salvo(rows, columns, true, true);
     }
 
     /**
-     * Gets the number of sunk type by going left horizontally.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
-     * @param shipType the number of cells in a ship.
-     * @return the ship type according to the number of cells.
+     * Shoots many cells one after another.
+     * @param rows indexes of the first dimension.
+     * @param columns indexes of the second dimension.
+     * @param torpedo true to shoot with torpedoes.
+     * @param recoveryMode true to shoot in recovery mode.
+     * @return results of the shots in the same order.
      */
-    private int goLeft(int firstIndex, int secondIndex, int shipType) {
-        int i = secondIndex;
-        while (ocean[firstIndex][i] != ',') {
-            if (ocean[firstIndex][i] == 'o') {
-                shipType++;
-                gameField[firstIndex][i] = '^';
-            }
-            if (i == 0) {
-                break;
-            }
-            i--;
+    public ShotResult[] salvo(int[] rows, int[] columns, boolean torpedo, boolean recoveryMode) {
+        if (rows.length != columns.length) {
+            throw new IllegalArgumentException("Every shot needs both a row and a column.");
         }
-        return shipType;
+        ShotResult[] results = new ShotResult[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            results[i] = shoot(rows[i], columns[i], torpedo, recoveryMode);
+        }
+        return results;
     }
 
     /**
-     * Gets the number of sunk type by going right horizontally.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
-     * @param shipType the number of cells in a ship.
-     * @return the ship type according to the number of cells.
+     * Shoots many cells given by their indexes, i.e. row * width + column.
+     * @param cells indexes of cells, a negative index or one past the last cell is out of the ocean.
+     * @param torpedo true to shoot with torpedoes.
+     * @param recoveryMode true to shoot in recovery mode.
+     * @return results of the shots in the same order.
      */
-    private int goRight(int firstIndex, int secondIndex, int shipType) {
-        int i = secondIndex;
-        while (ocean[firstIndex][i] != ',') {
-            if (ocean[firstIndex][i] == 'o') {
-                shipType++;
-                gameField[firstIndex][i] = '^';
-            }
-            if (i == ocean[0].length - 1) {
-                break;
-            }
-            i++;
+    public ShotResult[] salvo(int[] cells, boolean torpedo, boolean recoveryMode) {
+        ShotResult[] results = new ShotResult[cells.length];
+        long size = (long) length * width;
+        for (int i = 0; i < cells.length; i++) {
+            int cell = cells[i];
+            results[i] = cell < 0 || cell >= size
+                    ? ShotResult.OUT_OF_BOUNDS
+                    : shoot(cell / width, cell % width, torpedo, recoveryMode);
         }
-        return shipType;
+        return results;
     }
 
     /**
-     * Gets the number of sunk type by going left and right horizontally.
+     * Shoots a cell in a particular mode.
      * @param firstIndex the first index of a dimension.
      * @param secondIndex the second index of a dimension.
-     * @param shipType the number of cells in a ship.
-     * @return the ship type according to the number of cells.
+     * @param torpedo true to shoot with a torpedo.
+     * @param recoveryMode true to shoot in recovery mode.
+     * @return the result of the shot.
      */
-    private int goBackAndForthHorizontally(int firstIndex, int secondIndex, int shipType) {
-        shipType = goRight(firstIndex, secondIndex, shipType);
-        int i;
-        i = secondIndex;
-        while (ocean[firstIndex][i] != ',') {
-            if (ocean[firstIndex][i] == 'o' && i < secondIndex) {
-                shipType++;
-                gameField[firstIndex][i] = '^';
-            }
-            if (i == 0) {
-                break;
-            }
-            i--;
+    private ShotResult shoot(int firstIndex, int secondIndex, boolean torpedo, boolean recoveryMode) {
+        if (torpedo) {
+            return recoveryMode
+                    ? hitWithTorpedoInRecoveryMode(firstIndex, secondIndex)
+                    : hitWithTorpedo(firstIndex, secondIndex);
         }
-        return shipType;
+        return recoveryMode ? hitRecovery(firstIndex, secondIndex) : hit(firstIndex, secondIndex);
     }
 
     /**
-     * Gets the number of sunk type by going up vertically.
+     * Marks a not hit cell of a ship as hit.
+     * @param id the id of the ship.
      * @param firstIndex the first index of a dimension.
      * @param secondIndex the second index of a dimension.
-     * @param shipType the number of cells in a ship.
-     * @return the ship type according to the number of cells.
      */
-    private int goUpVertically(int firstIndex, int secondIndex, int shipType) {
-        int i = firstIndex;
-        while (ocean[i][secondIndex] != ',') {
-            if (ocean[i][secondIndex] == 'o') {
-                shipType++;
-                gameField[i][secondIndex] = '^';
-            }
-            if (i == 0) {
-                break;
-            }
-            i--;
-        }
-        return shipType;
+    private void hitCell(int id, int firstIndex, int secondIndex) {
+        board.set('o', firstIndex, secondIndex);
+        setField('X', firstIndex, secondIndex);
+        ships.hit(id);
     }
 
     /**
-     * Gets the number of sunk type by going down vertically.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
-     * @param shipType the number of cells in a ship.
-     * @return the ship type according to the number of cells.
+     * Sinks all cells of a ship.
+     * @param id the id of the ship.
+     * @return the result that tells which type of a ship was sunk.
      */
-    private int goDownVertically(int firstIndex, int secondIndex, int shipType) {
-        int i = firstIndex;
-        while (ocean[i][secondIndex] != ',') {
-            if (ocean[i][secondIndex] == 'o') {
-                shipType++;
-                gameField[i][secondIndex] = '^';
-            }
-            if (i == ocean.length - 1) {
-                break;
-            }
-            i++;
+    private ShotResult sinkShip(int id) {
+        for (int i = 0; i < ships.getLength(id); i++) {
+            int row = ships.getRow(id, i);
+            int column = ships.getColumn(id, i);
+            board.set('o', row, column);
+            setField('^', row, column);
         }
-        return shipType;
+        ships.sink(id);
+        return ShotResult.sunk(ships.getLength(id));
     }
 
     /**
-     * Gets the number of sunk type by going up and down vertically.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
-     * @param shipType the number of cells in a ship.
-     * @return the ship type according to the number of cells.
+     * Sets a ship in the ocean, fences it and registers it in the table of ships.
+     * @param X the coordinate of rows.
+     * @param Y the coordinate of columns.
+     * @param repeatRow the length of a ship in rows.
+     * @param repeatColumn the length of a ship in columns.
+     * @return the id of the ship.
      */
-    private int goBackAndForthVertically(int firstIndex, int secondIndex, int shipType) {
-        shipType = goDownVertically(firstIndex, secondIndex, shipType);
-        int i;
-        i = firstIndex;
-        while (ocean[i][secondIndex] != ',') {
-            if (ocean[i][secondIndex] == 'o' && i < firstIndex) {
-                shipType++;
-                gameField[i][secondIndex] = '^';
-            }
-            if (i == 0) {
-                break;
+    public int placeShip(int X, int Y, int repeatRow, int repeatColumn) {
+        int id = ships.add(X, Y, Math.max(repeatRow, repeatColumn), repeatRow > 1);
+        for (int i = X; i < X + repeatRow; i++) {
+            for (int j = Y; j < Y + repeatColumn; j++) {
+                board.set('X', i, j);
+                board.setShipId(id, i, j);
             }
-            i--;
         }
-        return shipType;
+        board.fence(X, Y, repeatRow, repeatColumn);
+        if (anchors != null) {
+            anchors.block(X, Y, repeatRow, repeatColumn);
+        }
+        return id;
     }
 
     /**
-     * Checks if a ship was sunk.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
-     * @return true if was sunk.
+     * Sets a ship on a random legal position. Once the ocean gets dense every vertical
+     * and horizontal legal position is equally likely. A sparse board only tries random cells.
+     * @param shipLength the number of cells of the ship.
+     * @param random the source of random numbers.
+     * @return the id of the ship or 0 if there are no legal positions or none was found on a sparse board.
      */
-    private boolean checkIfSunk(int firstIndex, int secondIndex) {
-        int numberOfXs = 0;
-
-        if (secondIndex != 0 && secondIndex != ocean[0].length - 1) {
-            if (ocean[firstIndex][secondIndex + 1] == 'X' || ocean[firstIndex][secondIndex - 1] == 'X'
-                    || ocean[firstIndex][secondIndex + 1] == 'o' || ocean[firstIndex][secondIndex - 1] == 'o') {
-                numberOfXs = checkBackAndForthHorizontally(firstIndex, secondIndex, numberOfXs);
-            }
-        } else if (secondIndex == 0) {
-            if (ocean[firstIndex][secondIndex + 1] == 'X' || ocean[firstIndex][secondIndex + 1] == 'o') {
-                numberOfXs = checkRight(firstIndex, secondIndex, numberOfXs);
+    public int placeRandomShip(int shipLength, RandomGenerator random) {
+        if (anchors == null) {
+            // While the ocean is sparse a few random cells are cheaper than building the index,
+            // and a sparse board is too large for the index.
+            int tries = board.isSparse() ? SPARSE_TRIES : RANDOM_TRIES;
+            for (int i = 0; i < tries; i++) {
+                boolean vertical = shipLength > 1 && random.nextBoolean();
+                int X = random.nextInt(length);
+                int Y = random.nextInt(width);
+                int repeatRow = vertical ? shipLength : 1;
+                int repeatColumn = vertical ? 1 : shipLength;
+                if (board.isFree(X, Y, repeatRow, repeatColumn)) {
+                    return placeShip(X, Y, repeatRow, repeatColumn);
+                }
             }
-        } else if (secondIndex == ocean[0].length - 1) {
-            if (ocean[firstIndex][secondIndex - 1] == 'X' || ocean[firstIndex][secondIndex - 1] == 'o') {
-                numberOfXs = checkLeft(firstIndex, secondIndex, numberOfXs);
+            if (board.isSparse()) {
+                return 0;
             }
+            anchors = new AnchorIndex(board);
         }
-
-
-        if (firstIndex != 0 && firstIndex != ocean.length - 1) {
-            if (ocean[firstIndex + 1][secondIndex] == 'X'
-                    || ocean[firstIndex - 1][secondIndex] == 'X'
-                    || ocean[firstIndex - 1][secondIndex] == 'o'
-                    || ocean[firstIndex + 1][secondIndex] == 'o') {
-                numberOfXs = checkBackAndForthVertically(firstIndex, secondIndex, numberOfXs);
-            }
-        } else if (firstIndex == 0) {
-            if (ocean[firstIndex + 1][secondIndex] == 'X' || ocean[firstIndex + 1][secondIndex] == 'o') {
-                numberOfXs = checkDown(firstIndex, secondIndex, numberOfXs);
-            }
-        } else if (firstIndex == ocean.length - 1) {
-            if (ocean[firstIndex - 1][secondIndex] == 'X' || ocean[firstIndex - 1][secondIndex] == 'o') {
-                numberOfXs = checkUp(firstIndex, secondIndex, numberOfXs);
-            }
+        int horizontal = anchors.size(shipLength, false);
+        int vertical = anchors.size(shipLength, true);
+        if (horizontal + vertical == 0) {
+            return 0;
         }
-
-        return numberOfXs == 0;
+        int i = random.nextInt(horizontal + vertical);
+        if (i < horizontal) {
+            int cell = anchors.get(shipLength, false, i);
+            return placeShip(cell / width, cell % width, 1, shipLength);
+        }
+        int cell = anchors.get(shipLength, true, i - horizontal);
+        return placeShip(cell / width, cell % width, shipLength, 1);
     }
 
     /**
-     * Checks if a ship is sunk by going up vertically.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
-     * @param numberOfXs the number of not hit cells.
-     * @return the number of not hit cells.
+     * Get a ship of the ocean.
+     * @param id the id of the ship, from 1.
+     * @return the row and the column of the first cell, the number of cells and 1 if the ship lies vertically.
      */
-    private int checkUp(int firstIndex, int secondIndex, int numberOfXs) {
-        int i = firstIndex;
-        while (ocean[i][secondIndex] != ',' || i != 0) {
-            if (ocean[i][secondIndex] == 'X') {
-                numberOfXs++;
-            }
-            if (i == 0) {
-                break;
-            }
-            i--;
+    int[] getShip(int id) {
+        if (id < 1 || id > ships.size()) {
+            throw new IndexOutOfBoundsException("There is no ship " + id + ".");
         }
-        return numberOfXs;
+        return new int[] {ships.getRow(id, 0), ships.getColumn(id, 0), ships.getLength(id), ships.isVertical(id) ? 1 : 0};
     }
 
     /**
-     * Checks if a ship is sunk by going down vertically.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
-     * @param numberOfXs the number of not hit cells.
-     * @return the number of not hit cells.
+     * Get the memorized row of the last hit cell that used in recovery mode.
+     * @return the index of the first dimension, -1 if a ship was sunk.
      */
-    private int checkDown(int firstIndex, int secondIndex, int numberOfXs) {
-        int i = firstIndex;
-        while (ocean[i][secondIndex] != ',' || i != ocean.length - 1) {
-            if (ocean[i][secondIndex] == 'X') {
-                numberOfXs++;
-            }
-            if (i == ocean.length - 1) {
-                break;
-            }
-            i++;
-        }
-        return numberOfXs;
+    int getFirstMemorizedIndex() {
+        return firstMemorizedIndex;
     }
 
     /**
-     * Checks if a ship is sunk by going up and down vertically.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
-     * @param numberOfXs the number of not hit cells.
-     * @return the number of not hit cells.
+     * Get the memorized column of the last hit cell that used in recovery mode.
+     * @return the index of the second dimension, -1 if a ship was sunk.
      */
-    private int checkBackAndForthVertically(int firstIndex, int secondIndex, int numberOfXs) {
-        numberOfXs = checkDown(firstIndex, secondIndex, numberOfXs);
-        int i;
-        i = firstIndex;
-        while (ocean[i][secondIndex] != ',' || i != 0) {
-            if (ocean[i][secondIndex] == 'X') {
-                numberOfXs++;
-            }
-            if (i == 0) {
-                break;
-            }
-            i--;
-        }
-        return numberOfXs;
+    int getSecondMemorizedIndex() {
+        return secondMemorizedIndex;
     }
 
     /**
-     * Checks if a ship is sunk by going horizontally left.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
-     * @param numberOfXs the number of not hit cells.
-     * @return the number of not hit cells.
+     * Checks if the last shot hit a ship that is not sunk, that used in recovery mode.
+     * @return true if the cell was hit.
      */
-    private int checkLeft(int firstIndex, int secondIndex, int numberOfXs) {
-        int i = secondIndex;
-        while (ocean[firstIndex][i] != ',' || i != 0) {
-            if (ocean[firstIndex][i] == 'X') {
-                numberOfXs++;
-            }
-            if (i == 0) {
-                break;
-            }
-            i--;
-        }
-        return numberOfXs;
+    boolean isHit() {
+        return hit;
     }
 
     /**
-     * Checks if a ship is sunk by going horizontally right.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
-     * @param numberOfXs the number of not hit cells.
-     * @return the number of not hit cells.
+     * Sets the memorized fields of recovery mode of a saved game.
+     * @param firstIndex the memorized index of the first dimension.
+     * @param secondIndex the memorized index of the second dimension.
+     * @param hit true if the last shot hit a ship that is not sunk.
      */
-    private int checkRight(int firstIndex, int secondIndex, int numberOfXs) {
-        int i = secondIndex;
-        while (ocean[firstIndex][i] != ',' || i != ocean[0].length - 1) {
-            if (ocean[firstIndex][i] == 'X') {
-                numberOfXs++;
-            }
-            if (i == ocean[0].length - 1) {
-                break;
-            }
-            i++;
-        }
-        return numberOfXs;
+    void memorize(int firstIndex, int secondIndex, boolean hit) {
+        firstMemorizedIndex = firstIndex;
+        secondMemorizedIndex = secondIndex;
+        this.hit = hit;
     }
 
     /**
-     * Checks if a ship is sunk by going horizontally left and right.
+     * Sets a shot cell of the game field of a saved game, a hit or a sunk cell hits the ship under it.
+     * @param value one of '*', 'X' or '^'.
      * @param firstIndex the first index of a dimension.
      * @param secondIndex the second index of a dimension.
-     * @param numberOfXs the number of not hit cells.
-     * @return the number of not hit cells.
      */
-    private int checkBackAndForthHorizontally(int firstIndex, int secondIndex, int numberOfXs) {
-        numberOfXs = checkRight(firstIndex, secondIndex, numberOfXs);
-        int i;
-        i = secondIndex;
-        while (ocean[firstIndex][i] != ',' || i != 0) {
-            if (ocean[firstIndex][i] == 'X') {
-                numberOfXs++;
-            }
-            if (i == 0) {
-                break;
+    void restoreField(char value, int firstIndex, int secondIndex) {
+        if (value == 'X' || value == '^') {
+            int id = board.getShipId(firstIndex, secondIndex);
+            if (id == 0 || board.get(firstIndex, secondIndex) != 'X') {
+                throw new IllegalArgumentException("The cell " + firstIndex + " " + secondIndex + " is not a ship.");
             }
-            i--;
+            board.set('o', firstIndex, secondIndex);
+            ships.hit(id);
         }
-        return numberOfXs;
+        setField(value, firstIndex, secondIndex);
     }
 
     /**
-     * Checks if a submarine is sunk if the adjacent cells are empty.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
-     * @return true if submarine is sunk.
+     * Checks if there ships in the ocean.
+     * @return true if ocean contains ships.
      */
-    public boolean checkIfSubmarineSunk(int firstIndex, int secondIndex) {
-        if (secondIndex != ocean[0].length - 1) {
-            if (ocean[firstIndex][secondIndex + 1] != ',') {
-                return false;
-            }
-        }
-        if (secondIndex != 0) {
-            if (ocean[firstIndex][secondIndex - 1] != ',') {
-                return false;
-            }
-        }
-        if (firstIndex != ocean.length - 1) {
-            if (ocean[firstIndex + 1][secondIndex] != ',') {
-                return false;
-            }
-        }
-        if (firstIndex != 0) {
-            return ocean[firstIndex - 1][secondIndex] == ',';
-        }
-        return true;
+    public boolean checkForShips() {
+        return ships.getRemainingCells() != 0;
     }
 
     /**
-     * Sinks a ship by going left horizontally.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
+     * Get the number of ships that are not sunk.
+     * @return the number of ships.
      */
-    private void sinkLeft(int firstIndex, int secondIndex) {
-        int i = secondIndex;
-        while (ocean[firstIndex][i] != ',') {
-            if (ocean[firstIndex][i] != 'o') {
-                ocean[firstIndex][i] = 'o';
-            }
-            gameField[firstIndex][i] = '^';
-            if (i == 0) {
-                break;
-            }
-            i--;
-        }
+    public int getRemainingShips() {
+        return ships.getRemainingShips();
     }
 
     /**
-     * Sinks a ship by going right horizontally.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
+     * Get the number of ships of a type that are not sunk.
+     * @param type the number of cells of a ship.
+     * @return the number of ships.
      */
-    private void sinkRight(int firstIndex, int secondIndex) {
-        int i = secondIndex;
-        while (ocean[firstIndex][i] != ',') {
-            if (ocean[firstIndex][i] != 'o') {
-                ocean[firstIndex][i] = 'o';
-            }
-            gameField[firstIndex][i] = '^';
-            if (i == ocean[0].length - 1) {
-                break;
-            }
-            i++;
-        }
+    public int getRemainingShips(int type) {
+        return ships.getRemainingShips(type);
     }
 
     /**
-     * Sinks a ship by going left and right horizontally.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
+     * Get the number of not hit cells of all ships.
+     * @return the number of cells.
      */
-    private void sinkLeftAndRight(int firstIndex, int secondIndex) {
-        sinkRight(firstIndex, secondIndex);
-        int i;
-        i = secondIndex;
-        while (ocean[firstIndex][i] != ',') {
-            if (ocean[firstIndex][i] != 'o') {
-                ocean[firstIndex][i] = 'o';
-            }
-            gameField[firstIndex][i] = '^';
-            if (i == 0) {
-                break;
-            }
-            i--;
-        }
+    public int getRemainingCells() {
+        return ships.getRemainingCells();
     }
 
     /**
-     * Sinks a ship by going up vertically.
-     * @param firstIndex the first index of a dimension.
-     * @param secondIndex the second index of a dimension.
+     * Get the number of not hit cells of ships of a type.
+     * @param type the number of cells of a ship.
+     * @return the number of cells.
      */
-    private void sinkUp(int firstIndex, int secondIndex) {
-        int i = firstIndex;
-        while (ocean[i][secondIndex] != ',') {
-            if (ocean[i][secondIndex] != 'o') {
-                ocean[i][secondIndex] = 'o';
-            }
-            gameField[i][secondIndex] = '^';
-            if (i == 0) {
-                break;
-            }
-            i--;
-        }
+    public int getRemainingCells(int type) {
+        return ships.getRemainingCells(type);
     }
 
     /**
-     * Sinks a ship by going down vertically.
+     * Checks if a cell takes a submarine.
      * @param firstIndex the first index of a dimension.
      * @param secondIndex the second index of a dimension.
+     * @return true if the cell takes a submarine.
      */
-    private void sinkDown(int firstIndex, int secondIndex) {
-        int i = firstIndex;
-        while (ocean[i][secondIndex] != ',') {
-            if (ocean[i][secondIndex] != 'o') {
-                ocean[i][secondIndex] = 'o';
-            }
-            gameField[i][secondIndex] = '^';
-            if (i == ocean.length - 1) {
-                break;
-            }
-            i++;
-        }
+    public boolean checkIfSubmarineSunk(int firstIndex, int secondIndex) {
+        int id = board.getShipId(firstIndex, secondIndex);
+        return id != 0 && ships.getLength(id) == 1;
     }
 
     /**
-     * Sinks a ship by going up and down vertically.
+     * Sets a value to a cell of the game field and tells the picture of the game field about it.
+     * @param value setting value.
      * @param firstIndex the first index of a dimension.
      * @param secondIndex the second index of a dimension.
      */
-    private void sinkBackAndForth(int firstIndex, int secondIndex) {
-        sinkDown(firstIndex, secondIndex);
-        int i;
-        i = firstIndex;
-        while (ocean[i][secondIndex] != ',') {
-            if (ocean[i][secondIndex] != 'o') {
-                ocean[i][secondIndex] = 'o';
-            }
-            gameField[i][secondIndex] = '^';
-            if (i == 0) {
-                break;
-            }
-            i--;
-        }
-    }
-
-    /**
-     * Shows the message which type of a ship was sunk.
-     * @param type the number of a type.
-     */
-    private void typeSunk(int type) {
-        switch (type) {
-            case 1 -> System.out.println("You have sunk the submarine!");
-            case 2 -> System.out.println("You have sunk the destroyer!");
-            case 3 -> System.out.println("You have sunk the cruiser!");
-            case 4 -> System.out.println("You have sunk the battleship!");
-            case 5 -> System.out.println("You have sunk the carrier!");
+    private void setField(char value, int firstIndex, int secondIndex) {
+        board.setField(value, firstIndex, secondIndex);
+        if (renderer != null) {
+            renderer.mark(firstIndex, secondIndex);
         }
     }
 }
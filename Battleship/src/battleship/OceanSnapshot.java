@@ -0,0 +1,246 @@
+package battleship;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * A versioned binary form of a game for saving, resuming and recovering it. The ocean layer is not kept,
+ * it follows from the ships and the game field, so a cell takes two bits of the game field:
+ * <pre>
+ * int     magic "BSNP"
+ * byte    version
+ * byte    flags: 1 - recovery mode, 2 - the last shot hit a ship that is not sunk, 4 - sparse cells
+ * short   0
+ * int     rows, columns, torpedoes left, shots made
+ * int     the memorized row and column of recovery mode
+ * int     the number of ships, and for every ship in the order of ids:
+ *         int row, int column, byte the number of cells shifted left by 1 or 1 if it lies vertically
+ * cells   dense: the game field of every cell row by row, 2 bits for a cell from the lowest bits of a byte
+ *         sparse: int the number of shot cells and for every one of them
+ *                 long the index of the cell, i.e. row * columns + column, shifted left by 2 or the 2 bits
+ * </pre>
+ * The 2 bits of a cell are 0 if it was not shot, 1 for a miss, 2 for a hit and 3 for a sunk ship.
+ * Boards that keep every cell get dense cells and sparse boards get the list of shot cells.
+ * Numbers are big-endian. Encoding writes straight into a buffer of the caller, so a game can be
+ * snapshot after every turn without garbage.
+ */
+public final class OceanSnapshot {
+    /**
+     * The first bytes of a snapshot, "BSNP".
+     */
+    public static final int MAGIC = 0x42534E50;
+
+    /**
+     * The version of the format that is written.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The number of bytes before the ships.
+     */
+    private static final int HEADER = 36;
+
+    /**
+     * The number of bytes of a ship.
+     */
+    private static final int SHIP_BYTES = 9;
+
+    /**
+     * The flag of the recovery mode.
+     */
+    private static final int RECOVERY_MODE = 1;
+
+    /**
+     * The flag of a ship that is hit and not sunk by the last shot, in recovery mode.
+     */
+    private static final int HIT = 2;
+
+    /**
+     * The flag of the list of shot cells.
+     */
+    private static final int SPARSE = 4;
+
+    /**
+     * Cells of the game field layer by their codes.
+     */
+    private static final char[] FIELD = {'.', '*', 'X', '^'};
+
+    private OceanSnapshot() {
+    }
+
+    /**
+     * Get the number of bytes of the snapshot of a game. Sparse boards count their shot cells.
+     * @param engine the game.
+     * @return the number of bytes.
+     */
+    public static int size(GameEngine engine) {
+        Ocean ocean = engine.getOcean();
+        long size = HEADER + (long) SHIP_BYTES * ocean.getNumberOfShips();
+        Board board = ocean.getBoard();
+        if (board.isSparse()) {
+            long[] shots = new long[1];
+            board.forEachShot(cell -> shots[0]++);
+            size += 4 + 8 * shots[0];
+        } else {
+            size += ((long) ocean.getLength() * ocean.getWidth() + 3) / 4;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The game is too large for a snapshot.");
+        }
+        return (int) size;
+    }
+
+    /**
+     * Writes the snapshot of a game from the position of a buffer.
+     * @param engine the game.
+     * @param buffer the buffer with at least {@link #size(GameEngine)} bytes remaining.
+     * @return the number of written bytes.
+     * @throws BufferOverflowException if the buffer is too small.
+     */
+    public static int encode(GameEngine engine, ByteBuffer buffer) {
+        int start = buffer.position();
+        Ocean ocean = engine.getOcean();
+        Board board = ocean.getBoard();
+        int length = ocean.getLength();
+        int width = ocean.getWidth();
+        int flags = (engine.isRecoveryMode() ? RECOVERY_MODE : 0) | (ocean.isHit() ? HIT : 0)
+                | (board.isSparse() ? SPARSE : 0);
+        buffer.putInt(MAGIC).put((byte) VERSION).put((byte) flags).putShort((short) 0);
+        buffer.putInt(length).putInt(width).putInt(engine.getTorpedoes()).putInt(engine.getShots());
+        buffer.putInt(ocean.getFirstMemorizedIndex()).putInt(ocean.getSecondMemorizedIndex());
+        buffer.putInt(ocean.getNumberOfShips());
+        for (int id = 1; id <= ocean.getNumberOfShips(); id++) {
+            int[] ship = ocean.getShip(id);
+            if (ship[2] > Byte.MAX_VALUE / 2) {
+                throw new IllegalArgumentException("A ship is too long for a snapshot.");
+            }
+            buffer.putInt(ship[0]).putInt(ship[1]).put((byte) (ship[2] << 1 | ship[3]));
+        }
+        if (board.isSparse()) {
+            int count = buffer.position();
+            buffer.putInt(0);
+            int[] shots = new int[1];
+            board.forEachShot(cell -> {
+                buffer.putLong(cell << 2 | code(board.getField((int) (cell / width), (int) (cell % width))));
+                shots[0]++;
+            });
+            buffer.putInt(count, shots[0]);
+        } else {
+            int packed = 0;
+            int bits = 0;
+            for (int i = 0; i < length; i++) {
+                for (int j = 0; j < width; j++) {
+                    packed |= code(board.getField(i, j)) << bits;
+                    bits += 2;
+                    if (bits == 8) {
+                        buffer.put((byte) packed);
+                        packed = 0;
+                        bits = 0;
+                    }
+                }
+            }
+            if (bits != 0) {
+                buffer.put((byte) packed);
+            }
+        }
+        return buffer.position() - start;
+    }
+
+    /**
+     * Builds the snapshot of a game.
+     * @param engine the game.
+     * @return the bytes of the snapshot.
+     */
+    public static byte[] encode(GameEngine engine) {
+        byte[] bytes = new byte[size(engine)];
+        encode(engine, ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+
+    /**
+     * Reads a game from the position of a buffer, the position is moved after the snapshot.
+     * @param buffer the buffer.
+     * @return the game in a new ocean.
+     * @throws IllegalArgumentException if the bytes are not a snapshot of a known version or it is broken.
+     */
+    public static GameEngine decode(ByteBuffer buffer) {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("The bytes are not a snapshot of a game.");
+            }
+            int version = buffer.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("The version " + version + " of the snapshot is not supported.");
+            }
+            int flags = buffer.get();
+            buffer.getShort();
+            int length = buffer.getInt();
+            int width = buffer.getInt();
+            int torpedoes = buffer.getInt();
+            int shots = buffer.getInt();
+            int firstIndex = buffer.getInt();
+            int secondIndex = buffer.getInt();
+            int ships = buffer.getInt();
+            Ocean ocean = new Ocean(length, width);
+            for (int id = 1; id <= ships; id++) {
+                int row = buffer.getInt();
+                int column = buffer.getInt();
+                int ship = buffer.get();
+                int cells = ship >> 1;
+                boolean vertical = (ship & 1) == 1;
+                ocean.placeShip(row, column, vertical ? cells : 1, vertical ? 1 : cells);
+            }
+            if ((flags & SPARSE) != 0) {
+                for (int count = buffer.getInt(); count > 0; count--) {
+                    long value = buffer.getLong();
+                    long cell = value >>> 2;
+                    restore(ocean, (int) value & 3, cell / width, cell % width);
+                }
+            } else {
+                long cells = (long) length * width;
+                for (long cell = 0; cell < cells; cell += 4) {
+                    int packed = buffer.get() & 0xFF;
+                    // Most bytes are cells that were not shot.
+                    for (int k = 0; packed != 0; k++, packed >>>= 2) {
+                        if ((packed & 3) != 0) {
+                            restore(ocean, packed & 3, (cell + k) / width, (cell + k) % width);
+                        }
+                    }
+                }
+            }
+            ocean.memorize(firstIndex, secondIndex, (flags & HIT) != 0);
+            return new GameEngine(ocean, (flags & RECOVERY_MODE) != 0, torpedoes, shots);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("The snapshot is broken.", e);
+        }
+    }
+
+    /**
+     * Sets a shot cell of the game field.
+     * @param ocean the ocean.
+     * @param code the code of the cell, from 1 to 3.
+     * @param row the row of the cell.
+     * @param column the column of the cell.
+     */
+    private static void restore(Ocean ocean, int code, long row, long column) {
+        if (row >= ocean.getLength()) {
+            throw new IllegalArgumentException("The snapshot is broken.");
+        }
+        ocean.restoreField(FIELD[code], (int) row, (int) column);
+    }
+
+    /**
+     * Get the code of a cell of the game field layer.
+     * @param value one of '.', '*', 'X' or '^'.
+     * @return the code, from 0 to 3.
+     */
+    private static int code(char value) {
+        return switch (value) {
+            case '*' -> 1;
+            case 'X' -> 2;
+            case '^' -> 3;
+            default -> 0;
+        };
+    }
+}
@@ -0,0 +1,138 @@
+package battleship;
+
+/**
+ * Scans of the ocean row by row: where ships of a length fit and how many positions cover every cell.
+ * Cells are given by bytes in rows, i.e. row * width + column, 1 for a free cell and 0 for a taken one.
+ * This class does the scans one cell at a time; when the vector module of the JDK is there,
+ * {@link #best()} gives a scan that works on many cells at once.
+ */
+class PlacementScan {
+    /**
+     * The scan that works on one cell at a time.
+     */
+    private static final PlacementScan SCALAR = new PlacementScan();
+
+    /**
+     * The fastest scan that can be loaded.
+     */
+    private static final PlacementScan BEST = load();
+
+    PlacementScan() {
+    }
+
+    /**
+     * Get the scan that works on one cell at a time.
+     * @return the scan.
+     */
+    static PlacementScan scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * Get the fastest scan. The vector scan is used if its class is on the class path, the module
+     * jdk.incubator.vector is added and the property battleship.vector is not false.
+     * @return the scan.
+     */
+    static PlacementScan best() {
+        return BEST;
+    }
+
+    /**
+     * Loads the vector scan if it can be used.
+     * @return the vector scan or the scan that works on one cell at a time.
+     */
+    private static PlacementScan load() {
+        if (!Boolean.parseBoolean(System.getProperty("battleship.vector", "true"))) {
+            return SCALAR;
+        }
+        try {
+            return (PlacementScan) Class.forName("battleship.VectorPlacementScan")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return SCALAR;
+        }
+    }
+
+    /**
+     * Get the name of the scan.
+     * @return the name.
+     */
+    String getName() {
+        return "scalar";
+    }
+
+    /**
+     * Finds the first cells of legal horizontal positions of a ship.
+     * @param free 1 for every free cell.
+     * @param length the number of rows.
+     * @param width the number of columns.
+     * @param shipLength the number of cells of the ship.
+     * @param legal 1 is set for the first cell of every legal position, 0 for other cells.
+     */
+    void legalHorizontal(byte[] free, int length, int width, int shipLength, byte[] legal) {
+        for (int i = 0; i < length; i++) {
+            // Count free cells going from the end of the row, a ship fits where the count reaches its length.
+            int run = 0;
+            for (int j = width - 1; j >= 0; j--) {
+                int cell = i * width + j;
+                run = free[cell] == 0 ? 0 : run + 1;
+                legal[cell] = (byte) (run >= shipLength ? 1 : 0);
+            }
+        }
+    }
+
+    /**
+     * Finds the first cells of legal vertical positions of a ship.
+     * @param free 1 for every free cell.
+     * @param length the number of rows.
+     * @param width the number of columns.
+     * @param shipLength the number of cells of the ship.
+     * @param legal 1 is set for the first cell of every legal position, 0 for other cells.
+     */
+    void legalVertical(byte[] free, int length, int width, int shipLength, byte[] legal) {
+        int[] run = new int[width];
+        for (int i = length - 1; i >= 0; i--) {
+            for (int j = 0; j < width; j++) {
+                int cell = i * width + j;
+                run[j] = free[cell] == 0 ? 0 : run[j] + 1;
+                legal[cell] = (byte) (run[j] >= shipLength ? 1 : 0);
+            }
+        }
+    }
+
+    /**
+     * Adds to every cell the number of legal positions of a ship that cover it.
+     * @param legal 1 for the first cell of every legal position.
+     * @param length the number of rows.
+     * @param width the number of columns.
+     * @param shipLength the number of cells of the ship.
+     * @param vertical true if the positions are vertical.
+     * @param density the numbers of positions of every cell, they have to stay below 128.
+     */
+    void addDensity(byte[] legal, int length, int width, int shipLength, boolean vertical, byte[] density) {
+        if (vertical) {
+            // Every cell is covered by the positions that start up to the length of the ship above it.
+            int[] window = new int[width];
+            for (int i = 0; i < length; i++) {
+                for (int j = 0; j < width; j++) {
+                    window[j] += legal[i * width + j];
+                    if (i >= shipLength) {
+                        window[j] -= legal[(i - shipLength) * width + j];
+                    }
+                    density[i * width + j] += (byte) window[j];
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            int window = 0;
+            for (int j = 0; j < width; j++) {
+                window += legal[i * width + j];
+                if (j >= shipLength) {
+                    window -= legal[i * width + j - shipLength];
+                }
+                density[i * width + j] += (byte) window;
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package battleship;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A shooter that shoots cells that were not shot yet in a random order.
+ */
+public class RandomShooter implements Shooter {
+    /**
+     * The game.
+     */
+    private GameEngine engine;
+
+    /**
+     * The source of random numbers.
+     */
+    private RandomGenerator random;
+
+    /**
+     * Cells that are not shot yet in a random order.
+     */
+    private int[] cells;
+
+    /**
+     * The number of cells left in the list.
+     */
+    private int left;
+
+    @Override
+    public void newGame(GameEngine engine, RandomGenerator random) {
+        this.engine = engine;
+        this.random = random;
+        int size = Shooter.cells(engine);
+        if (cells == null || cells.length != size) {
+            cells = new int[size];
+        }
+        for (int i = 0; i < size; i++) {
+            cells[i] = i;
+        }
+        left = size;
+    }
+
+    @Override
+    public int nextShot() {
+        int width = engine.getOcean().getWidth();
+        while (true) {
+            if (left == 0) {
+                refill();
+            }
+            // Take a random cell and move the last cell in its place.
+            int i = random.nextInt(left);
+            int cell = cells[i];
+            cells[i] = cells[--left];
+            if (engine.getField(cell / width, cell % width) == '.') {
+                return cell;
+            }
+        }
+    }
+
+    @Override
+    public void onResult(int cell, ShotResult result) {
+    }
+
+    /**
+     * Lists the cells that are not shot again, in recovery mode hit cells of a ship can become not shot.
+     */
+    private void refill() {
+        int width = engine.getOcean().getWidth();
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (engine.getField(cell / width, cell % width) == '.') {
+                cells[left++] = cell;
+            }
+        }
+        if (left == 0) {
+            throw new IllegalStateException("There are no cells left to shoot.");
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package battleship;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.SplittableRandom;
+
+/**
+ * Plays games from a script without prompts. A script is made of commands:
+ * <pre>
+ * game rows columns carriers battleships cruisers destroyers submarines recovery torpedoes seed
+ * shot row column
+ * torpedo row column
+ * </pre>
+ * Only the first letter of a command matters. A game starts with a game command, and its shots follow it.
+ * Every game is written as one line: a code for every shot, the number of shots and the number of ships left.
+ * Codes are 'M' for a miss, 'H' for a hit, 'A' if the cell was already hit, 'O' if the cell does not exist,
+ * 'N' if there are no torpedoes left and the number of cells of a ship if it was sunk.
+ */
+public class ScriptRunner {
+    /**
+     * The size of the buffer of the output.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Answers whether fleets fit, so that an impossible game is reported without arranging it.
+     */
+    private final FleetFeasibility feasibility;
+
+    /**
+     * Bytes of the output that are not written yet.
+     */
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    /**
+     * The number of bytes in the buffer.
+     */
+    private int size;
+
+    public ScriptRunner() {
+        this(new FleetFeasibility());
+    }
+
+    /**
+     * Creates a runner that shares answers about fleets with other parts of the program.
+     * @param feasibility the oracle of fleets.
+     */
+    public ScriptRunner(FleetFeasibility feasibility) {
+        this.feasibility = feasibility;
+    }
+
+    /**
+     * Plays all games of a script.
+     * @param in the stream of the script.
+     * @param out the stream of results.
+     * @throws IOException if a stream cannot be read or written.
+     * @throws IllegalArgumentException if the script is not correct.
+     */
+    public void run(InputStream in, OutputStream out) throws IOException {
+        ScriptTokenizer tokens = new ScriptTokenizer(in);
+        GameEngine engine = null;
+        size = 0;
+        try {
+            int command;
+            while ((command = tokens.nextCommand()) != -1) {
+                switch (command) {
+                    case 'g' -> {
+                        finish(engine, out);
+                        engine = newGame(tokens);
+                    }
+                    case 's', 't' -> {
+                        int row = tokens.nextInt();
+                        int column = tokens.nextInt();
+                        if (engine == null) {
+                            throw new IllegalArgumentException("Line " + tokens.getLine() + ": a shot before a game.");
+                        }
+                        if (command == 't' && engine.getTorpedoes() < 1) {
+                            write((byte) 'N', out);
+                        } else {
+                            write(code(command == 't' ? engine.fireTorpedo(row, column) : engine.fire(row, column)), out);
+                        }
+                    }
+                    default -> throw new IllegalArgumentException("Line " + tokens.getLine() + ": unknown command.");
+                }
+            }
+            finish(engine, out);
+        } finally {
+            out.write(buffer, 0, size);
+            out.flush();
+            size = 0;
+        }
+    }
+
+    /**
+     * Reads the settings of a game and creates it.
+     * @param tokens the script.
+     * @return the game.
+     * @throws IOException if the script cannot be read.
+     */
+    private GameEngine newGame(ScriptTokenizer tokens) throws IOException {
+        int rows = tokens.nextInt();
+        int columns = tokens.nextInt();
+        Ship[] ships = {new Carrier(tokens.nextInt()), new Battleship(tokens.nextInt()),
+                new Cruiser(tokens.nextInt()), new Destroyer(tokens.nextInt()), new Submarine(tokens.nextInt())};
+        boolean recoveryMode = tokens.nextInt() != 0;
+        int torpedoes = tokens.nextInt();
+        long seed = tokens.nextLong();
+        if (rows <= 0 || columns <= 0 || !feasibility.isFeasible(rows, columns, ships)) {
+            throw new IllegalArgumentException("Line " + tokens.getLine() + ": the ships cannot be arranged.");
+        }
+        GameConfig config = new GameConfig(rows, columns, recoveryMode, torpedoes, ships);
+        return new GameEngine(config, new SplittableRandom(seed));
+    }
+
+    /**
+     * Ends the line of a game with the number of shots and the number of ships left.
+     * @param engine the game or null if there was no game yet.
+     * @param out the stream of results.
+     * @throws IOException if the stream cannot be written.
+     */
+    private void finish(GameEngine engine, OutputStream out) throws IOException {
+        if (engine == null) {
+            return;
+        }
+        String end = " " + engine.getShots() + " " + engine.getRemainingShips() + System.lineSeparator();
+        for (int i = 0; i < end.length(); i++) {
+            write((byte) end.charAt(i), out);
+        }
+    }
+
+    /**
+     * Get the code of a result of a shot.
+     * @param result the result of the shot.
+     * @return the code.
+     */
+    private static byte code(ShotResult result) {
+        return switch (result) {
+            case MISS -> 'M';
+            case HIT -> 'H';
+            case ALREADY_HIT -> 'A';
+            case OUT_OF_BOUNDS -> 'O';
+            default -> (byte) ('0' + result.getShipType());
+        };
+    }
+
+    /**
+     * Writes a byte of the output, the buffer is written when it is full.
+     * @param b the byte.
+     * @param out the stream of results.
+     * @throws IOException if the stream cannot be written.
+     */
+    private void write(byte b, OutputStream out) throws IOException {
+        if (size == buffer.length) {
+            out.write(buffer, 0, size);
+            size = 0;
+        }
+        buffer[size++] = b;
+    }
+}
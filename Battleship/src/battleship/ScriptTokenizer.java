@@ -0,0 +1,171 @@
+package battleship;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads words and numbers of a script straight from bytes. Words and numbers are separated by spaces
+ * or line breaks, and everything from '#' to the end of a line is a comment.
+ */
+class ScriptTokenizer {
+    /**
+     * The size of the buffer of bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The stream of the script.
+     */
+    private final InputStream in;
+
+    /**
+     * Bytes read from the stream.
+     */
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    /**
+     * The position of the next byte in the buffer.
+     */
+    private int position;
+
+    /**
+     * The number of bytes in the buffer.
+     */
+    private int limit;
+
+    /**
+     * The number of the current line, from 1.
+     */
+    private int line = 1;
+
+    ScriptTokenizer(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Get the number of the current line.
+     * @return the number of the line, from 1.
+     */
+    int getLine() {
+        return line;
+    }
+
+    /**
+     * Reads a word and gives its first letter, so that "game" and "g" are the same command.
+     * @return the first letter of the word in lower case or -1 if the script is over.
+     * @throws IOException if the stream cannot be read.
+     */
+    int nextCommand() throws IOException {
+        int c = skipSpaces();
+        if (c == -1) {
+            return -1;
+        }
+        if (!isLetter(c)) {
+            throw new IllegalArgumentException("Line " + line + ": a command was expected.");
+        }
+        int next = read();
+        while (isLetter(next)) {
+            next = read();
+        }
+        unread(next);
+        return c | 0x20;
+    }
+
+    /**
+     * Reads a number.
+     * @return the number.
+     * @throws IOException if the stream cannot be read.
+     */
+    int nextInt() throws IOException {
+        long value = nextLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Line " + line + ": the number is too large.");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads a long number, e.g. a seed.
+     * @return the number.
+     * @throws IOException if the stream cannot be read.
+     */
+    long nextLong() throws IOException {
+        int c = skipSpaces();
+        boolean negative = c == '-';
+        if (negative) {
+            c = read();
+        }
+        if (c < '0' || c > '9') {
+            throw new IllegalArgumentException("Line " + line + ": a number was expected.");
+        }
+        long value = 0;
+        while (c >= '0' && c <= '9') {
+            int digit = c - '0';
+            if (value > (Long.MAX_VALUE - digit) / 10) {
+                throw new IllegalArgumentException("Line " + line + ": the number is too large.");
+            }
+            value = value * 10 + digit;
+            c = read();
+        }
+        unread(c);
+        return negative ? -value : value;
+    }
+
+    /**
+     * Skips spaces, line breaks and comments.
+     * @return the first byte after them or -1 if the script is over.
+     * @throws IOException if the stream cannot be read.
+     */
+    private int skipSpaces() throws IOException {
+        int c = read();
+        while (true) {
+            if (c == '#') {
+                while (c != '\n' && c != -1) {
+                    c = read();
+                }
+            }
+            if (c == '\n') {
+                line++;
+            } else if (c != ' ' && c != '\t' && c != '\r') {
+                return c;
+            }
+            c = read();
+        }
+    }
+
+    /**
+     * Reads a byte.
+     * @return the byte or -1 if the script is over.
+     * @throws IOException if the stream cannot be read.
+     */
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    /**
+     * Puts the last read byte back, it is always still in the buffer.
+     * @param c the byte or -1 if the script is over.
+     */
+    private void unread(int c) {
+        if (c != -1) {
+            position--;
+        }
+    }
+
+    /**
+     * Checks if a byte is a latin letter.
+     * @param c the byte.
+     * @return true if it is a letter.
+     */
+    private static boolean isLetter(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
@@ -0,0 +1,402 @@
+package battleship;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Games of a long running server by their ids. The store keeps at most a fixed number of games and a fixed
+ * number of bytes of games in memory, and it evicts the least recently played games when a game does not fit.
+ * A game weighs as much as its board, its ships and its engine take in the heap, roughly, and it is weighed
+ * again whenever it is played, since sparse boards grow with shots. Games that were not played for a while
+ * are evicted when the store is swept. An evicted game is written to a file of the spill directory and read
+ * back when it is asked for again, so a player who comes back finds the game as it was. The file is
+ * an {@link OceanSnapshot} of the game, i.e. a few bits for a cell. Without a spill directory evicted games
+ * are dropped. A spilled game is kept in its file until it is read back or removed.
+ * All methods may be called from many threads.
+ */
+public class SessionStore {
+    /**
+     * The number of bytes of a game besides its board and ships, roughly.
+     */
+    private static final int GAME_BYTES = 256;
+
+    /**
+     * The number of bytes of a ship of a game, roughly.
+     */
+    private static final int SHIP_BYTES = 24;
+
+    /**
+     * The largest number of games in memory.
+     */
+    private final int capacity;
+
+    /**
+     * The largest number of bytes of games in memory.
+     */
+    private final long maxBytes;
+
+    /**
+     * The time in nanoseconds after which a game that is not played is evicted.
+     */
+    private final long idleNanos;
+
+    /**
+     * The directory of evicted games or null to drop them.
+     */
+    private final Path directory;
+
+    /**
+     * Games in memory from the least recently played one.
+     */
+    private final LinkedHashMap<Long, Entry> games = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * The number of bytes of games in memory.
+     */
+    private long bytes;
+
+    /**
+     * The buffer of snapshots, it grows to the largest snapshot.
+     */
+    private ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+    /**
+     * The number of games written to files.
+     */
+    private long spilled;
+
+    /**
+     * The number of games read back from files.
+     */
+    private long reloaded;
+
+    /**
+     * The number of evicted games that were dropped, with or without a spill directory.
+     */
+    private long dropped;
+
+    /**
+     * Creates a store that counts games but not their bytes.
+     * @param capacity the largest number of games in memory.
+     * @param idle the time after which a game that is not played is evicted.
+     * @param directory the directory of evicted games or null to drop them.
+     * @throws IOException if the directory cannot be created.
+     */
+    public SessionStore(int capacity, Duration idle, Path directory) throws IOException {
+        this(capacity, Long.MAX_VALUE, idle, directory);
+    }
+
+    /**
+     * Creates a store.
+     * @param capacity the largest number of games in memory.
+     * @param maxBytes the largest number of bytes of games in memory, the last played game is kept anyway.
+     * @param idle the time after which a game that is not played is evicted.
+     * @param directory the directory of evicted games or null to drop them.
+     * @throws IOException if the directory cannot be created.
+     */
+    public SessionStore(int capacity, long maxBytes, Duration idle, Path directory) throws IOException {
+        if (capacity <= 0 || maxBytes <= 0 || idle.isNegative() || idle.isZero()) {
+            throw new IllegalArgumentException("The capacity, the bytes and the idle time have to be positive.");
+        }
+        this.capacity = capacity;
+        this.maxBytes = maxBytes;
+        this.idleNanos = idle.toNanos();
+        this.directory = directory;
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+    }
+
+    /**
+     * Adds a game, the least recently played game is evicted if the store is full.
+     * @param engine the game.
+     * @return the id of the game, a positive number.
+     */
+    public synchronized long add(GameEngine engine) {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+        } while (games.containsKey(id) || directory != null && Files.exists(file(id)));
+        put(id, engine);
+        return id;
+    }
+
+    /**
+     * Get a game and mark it as played. An evicted game is read from its file.
+     * @param id the id of the game.
+     * @return the game or null if there is no such game or it was dropped.
+     */
+    public synchronized GameEngine get(long id) {
+        Entry entry = games.get(id);
+        if (entry != null) {
+            entry.played = System.nanoTime();
+            // The game has grown by the shots since it was weighed.
+            long weight = weigh(entry.engine);
+            if (weight != entry.bytes) {
+                bytes += weight - entry.bytes;
+                entry.bytes = weight;
+                fit();
+            }
+            return entry.engine;
+        }
+        GameEngine engine = reload(id);
+        if (engine != null) {
+            put(id, engine);
+        }
+        return engine;
+    }
+
+    /**
+     * Puts a game that was built again under its old id, e.g. from its journal after a crash.
+     * @param id the id of the game, a positive number.
+     * @param engine the game.
+     */
+    public synchronized void restore(long id, GameEngine engine) {
+        if (id <= 0) {
+            throw new IllegalArgumentException("The id of a game has to be positive.");
+        }
+        put(id, engine);
+    }
+
+    /**
+     * Removes a game from memory and from the spill directory.
+     * @param id the id of the game.
+     */
+    public synchronized void remove(long id) {
+        Entry entry = games.remove(id);
+        if (entry != null) {
+            bytes -= entry.bytes;
+        } else if (directory != null) {
+            try {
+                Files.deleteIfExists(file(id));
+            } catch (IOException e) {
+                // The file stays until the directory is cleaned.
+            }
+        }
+    }
+
+    /**
+     * Evicts the games that were not played for the idle time.
+     * @return the number of evicted games.
+     */
+    public synchronized int evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        Iterator<Map.Entry<Long, Entry>> iterator = games.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Entry> next = iterator.next();
+            // The games go from the least recently played one, so the first fresh game ends the sweep.
+            if (now - next.getValue().played < idleNanos) {
+                break;
+            }
+            iterator.remove();
+            bytes -= next.getValue().bytes;
+            evict(next.getKey(), next.getValue().engine);
+            evicted++;
+        }
+        return evicted;
+    }
+
+    /**
+     * Get the number of games in memory.
+     * @return the number of games.
+     */
+    public synchronized int size() {
+        return games.size();
+    }
+
+    /**
+     * Get the number of bytes of games in memory, roughly.
+     * @return the number of bytes.
+     */
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Get the number of games written to files.
+     * @return the number of games.
+     */
+    public synchronized long getSpilled() {
+        return spilled;
+    }
+
+    /**
+     * Get the number of games read back from files.
+     * @return the number of games.
+     */
+    public synchronized long getReloaded() {
+        return reloaded;
+    }
+
+    /**
+     * Get the number of evicted games that were dropped.
+     * @return the number of games.
+     */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Puts a game in memory and evicts the least recently played games that do not fit.
+     * @param id the id of the game.
+     * @param engine the game.
+     */
+    private void put(long id, GameEngine engine) {
+        Entry entry = new Entry(engine, weigh(engine));
+        Entry previous = games.put(id, entry);
+        bytes += entry.bytes - (previous == null ? 0 : previous.bytes);
+        fit();
+    }
+
+    /**
+     * Evicts the least recently played games while there are too many of them or they take too many bytes.
+     * The last played game stays.
+     */
+    private void fit() {
+        Iterator<Map.Entry<Long, Entry>> iterator = games.entrySet().iterator();
+        while (games.size() > capacity || bytes > maxBytes && games.size() > 1) {
+            Map.Entry<Long, Entry> eldest = iterator.next();
+            iterator.remove();
+            bytes -= eldest.getValue().bytes;
+            evict(eldest.getKey(), eldest.getValue().engine);
+        }
+    }
+
+    /**
+     * Get the number of bytes a game takes in the heap, roughly.
+     * @param engine the game.
+     * @return the number of bytes.
+     */
+    private static long weigh(GameEngine engine) {
+        Ocean ocean = engine.getOcean();
+        return GAME_BYTES + (long) SHIP_BYTES * ocean.getNumberOfShips() + ocean.getBoard().getMemorySize();
+    }
+
+    /**
+     * Writes an evicted game to its file, or drops it without a spill directory.
+     * @param id the id of the game.
+     * @param engine the game.
+     */
+    private void evict(long id, GameEngine engine) {
+        if (directory == null) {
+            dropped++;
+            return;
+        }
+        Path file = file(id);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer snapshot = reserve(OceanSnapshot.size(engine));
+            OceanSnapshot.encode(engine, snapshot);
+            snapshot.flip();
+            while (snapshot.hasRemaining()) {
+                channel.write(snapshot);
+            }
+            spilled++;
+        } catch (IOException | IllegalArgumentException e) {
+            // A game that cannot be written is lost, but the server goes on.
+            dropped++;
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // Nothing else can be done.
+            }
+        }
+    }
+
+    /**
+     * Reads an evicted game and deletes its file.
+     * @param id the id of the game.
+     * @return the game or null if there is no file or it cannot be read.
+     */
+    private GameEngine reload(long id) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = file(id);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        GameEngine engine;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("The file is too large.");
+            }
+            ByteBuffer snapshot = reserve((int) channel.size());
+            while (snapshot.hasRemaining() && channel.read(snapshot) >= 0) {
+                // Read until the whole file is in the buffer.
+            }
+            snapshot.flip();
+            engine = OceanSnapshot.decode(snapshot);
+        } catch (IOException | IllegalArgumentException e) {
+            // A broken file is a game that is lost.
+            engine = null;
+            dropped++;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // The game is in memory again and the file is written anew when it is evicted.
+        }
+        if (engine != null) {
+            reloaded++;
+        }
+        return engine;
+    }
+
+    /**
+     * Get the buffer of snapshots cleared and limited to a number of bytes.
+     * @param size the number of bytes.
+     * @return the buffer.
+     */
+    private ByteBuffer reserve(int size) {
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(Math.max(size, buffer.capacity() * 2));
+        }
+        return buffer.clear().limit(size);
+    }
+
+    /**
+     * Get the file of an evicted game.
+     * @param id the id of the game.
+     * @return the path of the file.
+     */
+    private Path file(long id) {
+        return directory.resolve(Long.toHexString(id) + ".game");
+    }
+
+    /**
+     * A game in memory and the time it was played last.
+     */
+    private static final class Entry {
+        /**
+         * The game.
+         */
+        private final GameEngine engine;
+
+        /**
+         * The time in nanoseconds the game was played last.
+         */
+        private long played;
+
+        /**
+         * The number of bytes of the game when it was weighed last.
+         */
+        private long bytes;
+
+        Entry(GameEngine engine, long bytes) {
+            this.engine = engine;
+            this.bytes = bytes;
+            played = System.nanoTime();
+        }
+    }
+}
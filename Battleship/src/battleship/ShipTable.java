@@ -0,0 +1,224 @@
+package battleship;
+
+import java.util.Arrays;
+
+/**
+ * A table of ships of the ocean. A ship is known by its id, ids start with 1.
+ */
+class ShipTable {
+    /**
+     * The number of ships in the table.
+     */
+    private int size;
+
+    /**
+     * The first coordinate of rows of every ship.
+     */
+    private int[] rows = new int[16];
+
+    /**
+     * The first coordinate of columns of every ship.
+     */
+    private int[] columns = new int[16];
+
+    /**
+     * The number of cells of every ship, i.e. its type.
+     */
+    private int[] lengths = new int[16];
+
+    /**
+     * Shows if a ship lies vertically.
+     */
+    private boolean[] vertical = new boolean[16];
+
+    /**
+     * The number of not hit cells of every ship.
+     */
+    private int[] remaining = new int[16];
+
+    /**
+     * The number of ships that are not sunk.
+     */
+    private int remainingShips;
+
+    /**
+     * The number of not hit cells of all ships.
+     */
+    private int remainingCells;
+
+    /**
+     * The number of ships that are not sunk by their types.
+     */
+    private int[] remainingShipsOfType = new int[6];
+
+    /**
+     * The number of not hit cells of ships by their types.
+     */
+    private int[] remainingCellsOfType = new int[6];
+
+    /**
+     * Adds a ship to the table.
+     * @param X the coordinate of rows of the first cell.
+     * @param Y the coordinate of columns of the first cell.
+     * @param length the number of cells of the ship.
+     * @param isVertical true if the ship lies vertically.
+     * @return the id of the ship.
+     */
+    int add(int X, int Y, int length, boolean isVertical) {
+        if (size + 1 == rows.length) {
+            int capacity = rows.length * 2;
+            rows = Arrays.copyOf(rows, capacity);
+            columns = Arrays.copyOf(columns, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            vertical = Arrays.copyOf(vertical, capacity);
+            remaining = Arrays.copyOf(remaining, capacity);
+        }
+        int id = ++size;
+        rows[id] = X;
+        columns[id] = Y;
+        lengths[id] = length;
+        vertical[id] = isVertical;
+        remaining[id] = length;
+        if (length >= remainingShipsOfType.length) {
+            remainingShipsOfType = Arrays.copyOf(remainingShipsOfType, length + 1);
+            remainingCellsOfType = Arrays.copyOf(remainingCellsOfType, length + 1);
+        }
+        remainingShips++;
+        remainingCells += length;
+        remainingShipsOfType[length]++;
+        remainingCellsOfType[length] += length;
+        return id;
+    }
+
+    /**
+     * Get the number of ships in the table.
+     * @return the number of ships.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Get the row of the i-th cell of a ship.
+     * @param id the id of the ship.
+     * @param i the number of the cell.
+     * @return the coordinate of rows.
+     */
+    int getRow(int id, int i) {
+        return vertical[id] ? rows[id] + i : rows[id];
+    }
+
+    /**
+     * Get the column of the i-th cell of a ship.
+     * @param id the id of the ship.
+     * @param i the number of the cell.
+     * @return the coordinate of columns.
+     */
+    int getColumn(int id, int i) {
+        return vertical[id] ? columns[id] : columns[id] + i;
+    }
+
+    /**
+     * Get the number of cells of a ship, i.e. its type.
+     * @param id the id of the ship.
+     * @return the number of cells.
+     */
+    int getLength(int id) {
+        return lengths[id];
+    }
+
+    /**
+     * Checks if a ship lies vertically.
+     * @param id the id of the ship.
+     * @return true if vertical.
+     */
+    boolean isVertical(int id) {
+        return vertical[id];
+    }
+
+    /**
+     * Get the number of not hit cells of a ship.
+     * @param id the id of the ship.
+     * @return the number of not hit cells.
+     */
+    int getRemaining(int id) {
+        return remaining[id];
+    }
+
+    /**
+     * Counts a hit of a ship.
+     * @param id the id of the ship.
+     * @return the number of not hit cells left.
+     */
+    int hit(int id) {
+        remainingCells--;
+        remainingCellsOfType[lengths[id]]--;
+        if (--remaining[id] == 0) {
+            remainingShips--;
+            remainingShipsOfType[lengths[id]]--;
+        }
+        return remaining[id];
+    }
+
+    /**
+     * Counts all cells of a ship hit.
+     * @param id the id of the ship.
+     */
+    void sink(int id) {
+        if (remaining[id] != 0) {
+            remainingCells -= remaining[id];
+            remainingCellsOfType[lengths[id]] -= remaining[id];
+            remainingShips--;
+            remainingShipsOfType[lengths[id]]--;
+            remaining[id] = 0;
+        }
+    }
+
+    /**
+     * Counts all cells of a ship not hit.
+     * @param id the id of the ship.
+     */
+    void recover(int id) {
+        if (remaining[id] == 0) {
+            remainingShips++;
+            remainingShipsOfType[lengths[id]]++;
+        }
+        remainingCells += lengths[id] - remaining[id];
+        remainingCellsOfType[lengths[id]] += lengths[id] - remaining[id];
+        remaining[id] = lengths[id];
+    }
+
+    /**
+     * Get the number of ships that are not sunk.
+     * @return the number of ships.
+     */
+    int getRemainingShips() {
+        return remainingShips;
+    }
+
+    /**
+     * Get the number of ships of a type that are not sunk.
+     * @param type the number of cells of a ship.
+     * @return the number of ships.
+     */
+    int getRemainingShips(int type) {
+        return type > 0 && type < remainingShipsOfType.length ? remainingShipsOfType[type] : 0;
+    }
+
+    /**
+     * Get the number of not hit cells of all ships.
+     * @return the number of cells.
+     */
+    int getRemainingCells() {
+        return remainingCells;
+    }
+
+    /**
+     * Get the number of not hit cells of ships of a type.
+     * @param type the number of cells of a ship.
+     * @return the number of cells.
+     */
+    int getRemainingCells(int type) {
+        return type > 0 && type < remainingCellsOfType.length ? remainingCellsOfType[type] : 0;
+    }
+}
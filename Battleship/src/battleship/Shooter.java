@@ -0,0 +1,51 @@
+package battleship;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * A player that chooses cells to shoot without a console. A shooter may look only at the game field
+ * of the engine, i.e. at what a player sees, and at the number of torpedoes left. Shooters keep arrays of
+ * all cells, so they play oceans of at most {@link Board#DENSE_LIMIT} cells.
+ */
+public interface Shooter {
+    /**
+     * Starts a new game.
+     * @param engine the game.
+     * @param random the source of random numbers of the shooter.
+     */
+    void newGame(GameEngine engine, RandomGenerator random);
+
+    /**
+     * Chooses the next cell to shoot.
+     * @return the index of the cell, i.e. row * width + column.
+     */
+    int nextShot();
+
+    /**
+     * Tells if the chosen cell should be shot with a torpedo, it is asked only when torpedoes are left.
+     * @return true to shoot with a torpedo.
+     */
+    default boolean useTorpedo() {
+        return false;
+    }
+
+    /**
+     * Tells the shooter the result of its shot.
+     * @param cell the index of the shot cell.
+     * @param result the result of the shot.
+     */
+    void onResult(int cell, ShotResult result);
+
+    /**
+     * Get the number of cells of the ocean of a game, for the arrays of a shooter.
+     * @param engine the game.
+     * @return the number of cells.
+     */
+    static int cells(GameEngine engine) {
+        long cells = (long) engine.getOcean().getLength() * engine.getOcean().getWidth();
+        if (cells > Board.DENSE_LIMIT) {
+            throw new IllegalArgumentException("Shooters play oceans of at most " + Board.DENSE_LIMIT + " cells.");
+        }
+        return (int) cells;
+    }
+}
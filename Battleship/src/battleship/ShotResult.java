@@ -0,0 +1,65 @@
+package battleship;
+
+/**
+ * A result of a shot at a cell of the ocean.
+ */
+public enum ShotResult {
+    MISS(0),
+    HIT(0),
+    ALREADY_HIT(0),
+    OUT_OF_BOUNDS(0),
+    SUNK_SUBMARINE(1),
+    SUNK_DESTROYER(2),
+    SUNK_CRUISER(3),
+    SUNK_BATTLESHIP(4),
+    SUNK_CARRIER(5);
+
+    /**
+     * The number of cells of the sunk ship, 0 if no ship was sunk.
+     */
+    private final int shipType;
+
+    ShotResult(int shipType) {
+        this.shipType = shipType;
+    }
+
+    /**
+     * Get the result of sinking a ship of a type.
+     * @param type the number of cells of a ship.
+     * @return the result.
+     */
+    public static ShotResult sunk(int type) {
+        return switch (type) {
+            case 1 -> SUNK_SUBMARINE;
+            case 2 -> SUNK_DESTROYER;
+            case 3 -> SUNK_CRUISER;
+            case 4 -> SUNK_BATTLESHIP;
+            case 5 -> SUNK_CARRIER;
+            default -> throw new IllegalArgumentException("There is no type of ships with " + type + " cells.");
+        };
+    }
+
+    /**
+     * Checks if the shot sank a ship.
+     * @return true if a ship was sunk.
+     */
+    public boolean isSunk() {
+        return shipType != 0;
+    }
+
+    /**
+     * Checks if the shot was made, i.e. the cell exists.
+     * @return true if the cell exists.
+     */
+    public boolean isShot() {
+        return this != OUT_OF_BOUNDS;
+    }
+
+    /**
+     * Get the type of the sunk ship.
+     * @return the number of cells of the ship, 0 if no ship was sunk.
+     */
+    public int getShipType() {
+        return shipType;
+    }
+}
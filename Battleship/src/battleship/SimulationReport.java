@@ -0,0 +1,125 @@
+package battleship;
+
+/**
+ * Results of many simulated games: how many shots it took to win and how fast the games were played.
+ */
+public class SimulationReport {
+    /**
+     * The number of games won with a particular number of shots.
+     */
+    private final long[] histogram;
+
+    /**
+     * The number of games that were stopped before all ships were sunk.
+     */
+    private final long unfinished;
+
+    /**
+     * The time of the simulation in nanoseconds.
+     */
+    private final long nanos;
+
+    SimulationReport(long[] histogram, long unfinished, long nanos) {
+        this.histogram = histogram;
+        this.unfinished = unfinished;
+        this.nanos = nanos;
+    }
+
+    /**
+     * Get the number of all played games.
+     * @return the number of games.
+     */
+    public long getGames() {
+        return getFinished() + unfinished;
+    }
+
+    /**
+     * Get the number of games where all ships were sunk.
+     * @return the number of games.
+     */
+    public long getFinished() {
+        long finished = 0;
+        for (long count : histogram) {
+            finished += count;
+        }
+        return finished;
+    }
+
+    /**
+     * Get the number of games that were stopped before all ships were sunk.
+     * @return the number of games.
+     */
+    public long getUnfinished() {
+        return unfinished;
+    }
+
+    /**
+     * Get the number of games played in a second.
+     * @return games per second.
+     */
+    public double getGamesPerSecond() {
+        return nanos == 0 ? 0 : getGames() * 1e9 / nanos;
+    }
+
+    /**
+     * Get the number of games won with a number of shots.
+     * @param shots the number of shots.
+     * @return the number of games.
+     */
+    public long getGamesWon(int shots) {
+        return shots >= 0 && shots < histogram.length ? histogram[shots] : 0;
+    }
+
+    /**
+     * Get the number of games won with every number of shots.
+     * @return the number of games by the number of shots.
+     */
+    public long[] getHistogram() {
+        return histogram.clone();
+    }
+
+    /**
+     * Get the average number of shots to win.
+     * @return the average number of shots or 0 if no game was won.
+     */
+    public double getMeanShots() {
+        long finished = getFinished();
+        if (finished == 0) {
+            return 0;
+        }
+        double sum = 0;
+        for (int shots = 0; shots < histogram.length; shots++) {
+            sum += (double) shots * histogram[shots];
+        }
+        return sum / finished;
+    }
+
+    /**
+     * Get the number of shots that was enough to win a part of games.
+     * @param fraction the part of games, from 0 to 1.
+     * @return the number of shots or -1 if no game was won.
+     */
+    public int getPercentile(double fraction) {
+        long finished = getFinished();
+        if (finished == 0) {
+            return -1;
+        }
+        long needed = Math.max(1, (long) Math.ceil(fraction * finished));
+        long seen = 0;
+        for (int shots = 0; shots < histogram.length; shots++) {
+            seen += histogram[shots];
+            if (seen >= needed) {
+                return shots;
+            }
+        }
+        return histogram.length - 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("games: %d, unfinished: %d, games/s: %.0f, shots mean: %.2f,"
+                        + " min: %d, p50: %d, p90: %d, p99: %d, max: %d",
+                getGames(), unfinished, getGamesPerSecond(), getMeanShots(), getPercentile(0),
+                getPercentile(0.5), getPercentile(0.9), getPercentile(0.99), getPercentile(1));
+    }
+}
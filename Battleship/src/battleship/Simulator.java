@@ -0,0 +1,205 @@
+package battleship;
+
+import java.io.Serial;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+/**
+ * Plays many games without a console on all cores. Games are split between tasks of a fork-join pool,
+ * and every task gets its own stream of random numbers split from one seed, so the same seed gives
+ * the same results whatever the number of threads is.
+ */
+public class Simulator {
+    /**
+     * The number of games a task plays without splitting them further.
+     */
+    private static final int GAMES_PER_TASK = 256;
+
+    /**
+     * A game is stopped after this number of shots per cell of the ocean.
+     */
+    private static final int SHOTS_PER_CELL = 4;
+
+    /**
+     * Settings of every game.
+     */
+    private final GameConfig config;
+
+    /**
+     * Creates a shooter for every task.
+     */
+    private final Supplier<? extends Shooter> shooters;
+
+    /**
+     * The pool of threads that plays the games.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The number of shots after which a game is stopped.
+     */
+    private final int maxShots;
+
+    public Simulator(GameConfig config, Supplier<? extends Shooter> shooters) {
+        this(config, shooters, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a simulator.
+     * @param config settings of every game, an ocean of at most {@link Board#DENSE_LIMIT} cells.
+     * @param shooters creates a shooter for every task, a shooter is used by one thread at a time.
+     * @param pool the pool of threads that plays the games.
+     */
+    public Simulator(GameConfig config, Supplier<? extends Shooter> shooters, ForkJoinPool pool) {
+        if ((long) config.getRows() * config.getColumns() > Board.DENSE_LIMIT) {
+            throw new IllegalArgumentException("Games are simulated in oceans of at most " + Board.DENSE_LIMIT
+                    + " cells.");
+        }
+        this.config = config;
+        this.shooters = shooters;
+        this.pool = pool;
+        maxShots = (int) Math.min(Integer.MAX_VALUE, (long) config.getRows() * config.getColumns() * SHOTS_PER_CELL);
+    }
+
+    /**
+     * Plays games and collects the number of shots it took to win them.
+     * @param games the number of games.
+     * @param seed the seed of random numbers of oceans and shooters.
+     * @return the report of the games.
+     */
+    public SimulationReport run(long games, long seed) {
+        long start = System.nanoTime();
+        Tally tally = pool.invoke(new Games(this, 0, games, new SplittableRandom(seed)));
+        long nanos = System.nanoTime() - start;
+        return new SimulationReport(Arrays.copyOf(tally.counts, tally.size), tally.unfinished, nanos);
+    }
+
+    /**
+     * Plays one game to the end or until the limit of shots.
+     * @param shooter the player.
+     * @param random the source of random numbers of the ocean and of the shooter.
+     * @return the number of shots or -1 if the game was stopped.
+     */
+    private int play(Shooter shooter, SplittableRandom random) {
+        GameEngine engine = new GameEngine(config, random);
+        shooter.newGame(engine, random);
+        int columns = config.getColumns();
+        // Turns are counted and not shots, so that a shooter that misses the ocean cannot play forever.
+        for (int turn = 0; turn < maxShots && !engine.isOver(); turn++) {
+            int cell = shooter.nextShot();
+            boolean torpedo = engine.getTorpedoes() > 0 && shooter.useTorpedo();
+            ShotResult result = torpedo
+                    ? engine.fireTorpedo(cell / columns, cell % columns)
+                    : engine.fire(cell / columns, cell % columns);
+            shooter.onResult(cell, result);
+        }
+        return engine.isOver() ? engine.getShots() : -1;
+    }
+
+    /**
+     * Games with numbers from one to another, they are split in halves until there are few of them.
+     */
+    private static class Games extends RecursiveTask<Tally> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The simulator that plays the games.
+         */
+        private final transient Simulator simulator;
+
+        /**
+         * The number of the first game.
+         */
+        private final long from;
+
+        /**
+         * The number after the last game.
+         */
+        private final long to;
+
+        /**
+         * The source of random numbers of these games.
+         */
+        private final transient SplittableRandom random;
+
+        Games(Simulator simulator, long from, long to, SplittableRandom random) {
+            this.simulator = simulator;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                Tally tally = new Tally();
+                Shooter shooter = simulator.shooters.get();
+                for (long game = from; game < to; game++) {
+                    tally.add(simulator.play(shooter, random));
+                }
+                return tally;
+            }
+            long middle = (from + to) >>> 1;
+            Games right = new Games(simulator, middle, to, random.split());
+            right.fork();
+            Tally tally = new Games(simulator, from, middle, random).compute();
+            tally.add(right.join());
+            return tally;
+        }
+    }
+
+    /**
+     * The number of games won with every number of shots.
+     */
+    private static class Tally {
+        /**
+         * The number of games by the number of shots.
+         */
+        private long[] counts = new long[64];
+
+        /**
+         * One more than the largest number of shots seen.
+         */
+        private int size;
+
+        /**
+         * The number of games that were stopped.
+         */
+        private long unfinished;
+
+        /**
+         * Counts a game.
+         * @param shots the number of shots or -1 if the game was stopped.
+         */
+        void add(int shots) {
+            if (shots < 0) {
+                unfinished++;
+                return;
+            }
+            if (shots >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(counts.length * 2, shots + 1));
+            }
+            counts[shots]++;
+            size = Math.max(size, shots + 1);
+        }
+
+        /**
+         * Counts games of another tally.
+         * @param other the other tally.
+         */
+        void add(Tally other) {
+            if (other.size > counts.length) {
+                counts = Arrays.copyOf(counts, other.size);
+            }
+            for (int i = 0; i < other.size; i++) {
+                counts[i] += other.counts[i];
+            }
+            size = Math.max(size, other.size);
+            unfinished += other.unfinished;
+        }
+    }
+}
@@ -0,0 +1,474 @@
+package battleship;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * A board for very large oceans that keeps only chunks of 32x32 cells that have a ship, a fence or a shot.
+ * A cell that was never stored is an empty cell that was not shot.
+ * Both layers of a cell are packed in one byte: the ocean layer in the lowest two bits and
+ * the game field layer in the next two bits. A chunk keeps a short list of its stored cells
+ * and becomes a dense array of cells only when the list gets long, so scattered shots stay cheap.
+ */
+public class SparseBoard extends Board {
+    /**
+     * The number of bits of an index of a cell inside a chunk, in every dimension.
+     */
+    private static final int CHUNK_BITS = 5;
+
+    /**
+     * The number of cells of a chunk in every dimension.
+     */
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    /**
+     * The number of stored cells of a chunk after which it becomes dense.
+     */
+    private static final int LIST_LIMIT = 64;
+
+    /**
+     * The number of bytes of a slot of the table of chunks: a key and a reference.
+     */
+    private static final int SLOT_BYTES = Long.BYTES + Integer.BYTES;
+
+    /**
+     * The number of bytes of a chunk without its arrays: the header, five references and the count.
+     */
+    private static final int CHUNK_BYTES = 40;
+
+    /**
+     * Cells of the ocean layer by their codes.
+     */
+    private static final char[] OCEAN = {'.', ',', 'X', 'o'};
+
+    /**
+     * Cells of the game field layer by their codes.
+     */
+    private static final char[] FIELD = {'.', '*', 'X', '^'};
+
+    /**
+     * Keys of stored chunks, i.e. the row of a chunk in the high half and its column in the low half.
+     */
+    private long[] keys = new long[64];
+
+    /**
+     * Stored chunks by the slots of their keys, null if a slot is free.
+     */
+    private Chunk[] chunks = new Chunk[64];
+
+    /**
+     * The number of stored chunks.
+     */
+    private int size;
+
+    /**
+     * The key of the last chunk that was looked for.
+     */
+    private long lastKey = -1;
+
+    /**
+     * The last chunk that was looked for, null if it is not stored.
+     */
+    private Chunk lastChunk;
+
+    /**
+     * The number of not hit ship cells.
+     */
+    private long shipCells;
+
+    /**
+     * The number of bytes of the table and the chunks, roughly. It grows with the chunks, so it is not counted again.
+     */
+    private long memorySize = (long) SLOT_BYTES * keys.length;
+
+    public SparseBoard(int length, int width) {
+        super(length, width);
+    }
+
+    @Override
+    public boolean isSparse() {
+        return true;
+    }
+
+    /**
+     * Get the number of stored chunks.
+     * @return the number of chunks.
+     */
+    public int getChunks() {
+        return size;
+    }
+
+    @Override
+    long getMemorySize() {
+        return memorySize;
+    }
+
+    @Override
+    public char get(int firstIndex, int secondIndex) {
+        checkIndex(firstIndex, secondIndex);
+        Chunk chunk = find(firstIndex, secondIndex, false);
+        return chunk == null ? '.' : OCEAN[chunk.get(offset(firstIndex, secondIndex)) & 3];
+    }
+
+    @Override
+    public void set(char value, int firstIndex, int secondIndex) {
+        checkIndex(firstIndex, secondIndex);
+        int code = switch (value) {
+            case '.' -> 0;
+            case ',' -> 1;
+            case 'X' -> 2;
+            case 'o' -> 3;
+            default -> throw new IllegalArgumentException("Unknown cell of the ocean: " + value);
+        };
+        // An empty cell does not need a chunk.
+        Chunk chunk = find(firstIndex, secondIndex, code != 0);
+        if (chunk == null) {
+            return;
+        }
+        int offset = offset(firstIndex, secondIndex);
+        int cell = chunk.get(offset);
+        if ((cell & 3) == 2) {
+            shipCells--;
+        }
+        if (code == 2) {
+            shipCells++;
+        }
+        put(chunk, offset, cell & ~3 | code);
+    }
+
+    @Override
+    public char getField(int firstIndex, int secondIndex) {
+        checkIndex(firstIndex, secondIndex);
+        Chunk chunk = find(firstIndex, secondIndex, false);
+        return chunk == null ? '.' : FIELD[chunk.get(offset(firstIndex, secondIndex)) >> 2 & 3];
+    }
+
+    @Override
+    public void setField(char value, int firstIndex, int secondIndex) {
+        checkIndex(firstIndex, secondIndex);
+        int code = switch (value) {
+            case '.' -> 0;
+            case '*' -> 1;
+            case 'X' -> 2;
+            case '^' -> 3;
+            default -> throw new IllegalArgumentException("Unknown cell of the game field: " + value);
+        };
+        Chunk chunk = find(firstIndex, secondIndex, code != 0);
+        if (chunk == null) {
+            return;
+        }
+        int offset = offset(firstIndex, secondIndex);
+        put(chunk, offset, chunk.get(offset) & 3 | code << 2);
+    }
+
+    @Override
+    public int getShipId(int firstIndex, int secondIndex) {
+        checkIndex(firstIndex, secondIndex);
+        Chunk chunk = find(firstIndex, secondIndex, false);
+        return chunk == null ? 0 : chunk.getId(offset(firstIndex, secondIndex));
+    }
+
+    @Override
+    public void setShipId(int id, int firstIndex, int secondIndex) {
+        checkIndex(firstIndex, secondIndex);
+        Chunk chunk = find(firstIndex, secondIndex, id != 0);
+        if (chunk != null) {
+            int bytes = chunk.getMemorySize();
+            chunk.setId(offset(firstIndex, secondIndex), id);
+            memorySize += chunk.getMemorySize() - bytes;
+        }
+    }
+
+    @Override
+    public boolean isFree(int X, int Y, int repeatRow, int repeatColumn) {
+        if (X < 0 || Y < 0 || X + repeatRow > length || Y + repeatColumn > width) {
+            return false;
+        }
+        for (int i = X; i < X + repeatRow; i++) {
+            for (int j = Y; j < Y + repeatColumn; j++) {
+                Chunk chunk = find(i, j, false);
+                if (chunk != null && (chunk.get(offset(i, j)) & 3) != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void fence(int X, int Y, int repeatRow, int repeatColumn) {
+        int lastRow = Math.min(X + repeatRow, length - 1);
+        int lastColumn = Math.min(Y + repeatColumn, width - 1);
+        for (int i = Math.max(X - 1, 0); i <= lastRow; i++) {
+            for (int j = Math.max(Y - 1, 0); j <= lastColumn; j++) {
+                Chunk chunk = find(i, j, true);
+                int offset = offset(i, j);
+                int cell = chunk.get(offset);
+                if ((cell & 3) == 0) {
+                    put(chunk, offset, cell | 1);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean hasShips() {
+        return shipCells != 0;
+    }
+
+    @Override
+    void forEachShot(LongConsumer action) {
+        for (int k = 0; k < keys.length; k++) {
+            Chunk chunk = chunks[k];
+            if (chunk == null) {
+                continue;
+            }
+            long firstRow = keys[k] >>> 32 << CHUNK_BITS;
+            long firstColumn = (keys[k] & 0xFFFFFFFFL) << CHUNK_BITS;
+            int cells = chunk.cells == null ? chunk.count : CHUNK_SIZE * CHUNK_SIZE;
+            for (int c = 0; c < cells; c++) {
+                int offset = chunk.cells == null ? chunk.offsets[c] : c;
+                int value = chunk.cells == null ? chunk.values[c] : chunk.cells[c];
+                if ((value >> 2 & 3) != 0) {
+                    action.accept((firstRow + (offset >> CHUNK_BITS)) * width + firstColumn + (offset & CHUNK_SIZE - 1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the chunk of a cell.
+     * @param firstIndex index of the first dimension.
+     * @param secondIndex index of the second dimension.
+     * @param create true to store a new chunk if there is none.
+     * @return the chunk or null if it is not stored and was not created.
+     */
+    private Chunk find(int firstIndex, int secondIndex, boolean create) {
+        long key = (long) (firstIndex >>> CHUNK_BITS) << 32 | secondIndex >>> CHUNK_BITS;
+        // Shots and ships touch cells near each other, so the same chunk is asked for again most of the time.
+        if (key == lastKey && (lastChunk != null || !create)) {
+            return lastChunk;
+        }
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (chunks[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        Chunk chunk = chunks[slot];
+        if (chunk == null && create) {
+            chunk = new Chunk();
+            keys[slot] = key;
+            chunks[slot] = chunk;
+            memorySize += chunk.getMemorySize();
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+        }
+        lastKey = key;
+        lastChunk = chunk;
+        return chunk;
+    }
+
+    /**
+     * Doubles the table of chunks.
+     */
+    private void grow() {
+        long[] oldKeys = keys;
+        Chunk[] oldChunks = chunks;
+        keys = new long[oldKeys.length * 2];
+        chunks = new Chunk[oldChunks.length * 2];
+        memorySize += (long) SLOT_BYTES * oldKeys.length;
+        int mask = keys.length - 1;
+        for (int k = 0; k < oldKeys.length; k++) {
+            if (oldChunks[k] == null) {
+                continue;
+            }
+            int slot = hash(oldKeys[k]) & mask;
+            while (chunks[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = oldKeys[k];
+            chunks[slot] = oldChunks[k];
+        }
+    }
+
+    /**
+     * Sets both layers of a cell and counts the bytes its chunk grew by.
+     * @param chunk the chunk of the cell.
+     * @param offset the offset of the cell in the chunk.
+     * @param value the packed layers.
+     */
+    private void put(Chunk chunk, int offset, int value) {
+        int bytes = chunk.getMemorySize();
+        chunk.set(offset, value);
+        memorySize += chunk.getMemorySize() - bytes;
+    }
+
+    /**
+     * Mixes the bits of a key of a chunk, so that neighbouring chunks take distant slots.
+     * @param key the key.
+     * @return the hash.
+     */
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ h >>> 32);
+    }
+
+    /**
+     * Get the offset of a cell in its chunk.
+     * @param firstIndex index of the first dimension.
+     * @param secondIndex index of the second dimension.
+     * @return the offset.
+     */
+    private static int offset(int firstIndex, int secondIndex) {
+        return (firstIndex & CHUNK_SIZE - 1) << CHUNK_BITS | secondIndex & CHUNK_SIZE - 1;
+    }
+
+    /**
+     * A stored square of cells: a list of stored cells or, when it gets long, arrays of all cells.
+     */
+    private static final class Chunk {
+        /**
+         * Offsets of stored cells while the chunk is a list.
+         */
+        private short[] offsets = new short[4];
+
+        /**
+         * Both layers of stored cells while the chunk is a list.
+         */
+        private byte[] values = new byte[4];
+
+        /**
+         * Ids of ships of stored cells while the chunk is a list.
+         */
+        private int[] ids = new int[4];
+
+        /**
+         * The number of stored cells while the chunk is a list.
+         */
+        private int count;
+
+        /**
+         * Both layers of every cell, row by row, null while the chunk is a list.
+         */
+        private byte[] cells;
+
+        /**
+         * Ids of ships that take cells, row by row, null while the chunk is a list.
+         */
+        private int[] shipIds;
+
+        /**
+         * Get the number of bytes the chunk takes, roughly.
+         * @return the number of bytes.
+         */
+        int getMemorySize() {
+            if (cells != null) {
+                return CHUNK_BYTES + 2 * HEADER_BYTES + CHUNK_SIZE * CHUNK_SIZE * (1 + Integer.BYTES);
+            }
+            return CHUNK_BYTES + 3 * HEADER_BYTES + offsets.length * (Short.BYTES + 1 + Integer.BYTES);
+        }
+
+        /**
+         * Get both layers of a cell.
+         * @param offset the offset of the cell in the chunk.
+         * @return the packed layers, 0 if the cell is empty and was not shot.
+         */
+        int get(int offset) {
+            if (cells != null) {
+                return cells[offset];
+            }
+            int k = indexOf(offset);
+            return k < 0 ? 0 : values[k];
+        }
+
+        /**
+         * Set both layers of a cell.
+         * @param offset the offset of the cell in the chunk.
+         * @param value the packed layers.
+         */
+        void set(int offset, int value) {
+            int k = slot(offset);
+            if (k < 0) {
+                cells[offset] = (byte) value;
+            } else {
+                values[k] = (byte) value;
+            }
+        }
+
+        /**
+         * Get the id of a ship that takes a cell.
+         * @param offset the offset of the cell in the chunk.
+         * @return the id or 0 if there is no ship.
+         */
+        int getId(int offset) {
+            if (cells != null) {
+                return shipIds[offset];
+            }
+            int k = indexOf(offset);
+            return k < 0 ? 0 : ids[k];
+        }
+
+        /**
+         * Set the id of a ship that takes a cell.
+         * @param offset the offset of the cell in the chunk.
+         * @param id the id of the ship.
+         */
+        void setId(int offset, int id) {
+            int k = slot(offset);
+            if (k < 0) {
+                shipIds[offset] = id;
+            } else {
+                ids[k] = id;
+            }
+        }
+
+        /**
+         * Finds a cell in the list.
+         * @param offset the offset of the cell in the chunk.
+         * @return the index of the cell in the list or -1.
+         */
+        private int indexOf(int offset) {
+            for (int k = 0; k < count; k++) {
+                if (offsets[k] == offset) {
+                    return k;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Finds a cell in the list and adds it if it is not there. A full list becomes arrays of all cells.
+         * @param offset the offset of the cell in the chunk.
+         * @return the index of the cell in the list, or -1 if the chunk is dense.
+         */
+        private int slot(int offset) {
+            if (cells != null) {
+                return -1;
+            }
+            int k = indexOf(offset);
+            if (k >= 0) {
+                return k;
+            }
+            if (count == LIST_LIMIT) {
+                cells = new byte[CHUNK_SIZE * CHUNK_SIZE];
+                shipIds = new int[CHUNK_SIZE * CHUNK_SIZE];
+                for (k = 0; k < count; k++) {
+                    cells[offsets[k]] = values[k];
+                    shipIds[offsets[k]] = ids[k];
+                }
+                offsets = null;
+                values = null;
+                ids = null;
+                return -1;
+            }
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+                values = Arrays.copyOf(values, count * 2);
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            offsets[count] = (short) offset;
+            return count++;
+        }
+    }
+}
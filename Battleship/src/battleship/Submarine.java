@@ -0,0 +1,69 @@
+package battleship;
+
+import java.io.PrintStream;
+import java.util.Scanner;
+
+public class Submarine extends Ship {
+    public Submarine(Scanner in) {
+        // When initializing an instance the user has to enter the number of submarines in the ocean.
+        this(in, System.out);
+    }
+
+    /**
+     * Creates ships of a particular type with the number entered by a user.
+     * @param in an instance of a Scanner class to input data.
+     * @param out the stream to write messages to.
+     */
+    public Submarine(Scanner in, PrintStream out) {
+        super(readNumberOfShips(in, out));
+    }
+
+    public Submarine(int numberOfShips) {
+        super(numberOfShips);
+    }
+
+    /**
+     * Get the number of cells of a submarine.
+     * @return the number of cells.
+     */
+    public int getSize() {
+        return 1;
+    }
+
+    /**
+     * Enter needed number of submarines in the console.
+     * @param in an instance of a Scanner class to input data.
+     */
+    public void enterNumberOfShips(Scanner in) {
+        enterNumberOfShips(in, System.out);
+    }
+
+    /**
+     * Enter needed number of submarines.
+     * @param in an instance of a Scanner class to input data.
+     * @param out the stream to write messages to.
+     */
+    public void enterNumberOfShips(Scanner in, PrintStream out) {
+        numberOfShips = readNumberOfShips(in, out);
+    }
+
+    /**
+     * Reads the number of submarines, it is asked again until it is 0 or above.
+     * @param in an instance of a Scanner class to input data.
+     * @param out the stream to write messages to.
+     * @return the number of submarines.
+     */
+    private static int readNumberOfShips(Scanner in, PrintStream out) {
+        int submarines;
+        // The number of it cannot be less than zero and user can only enter an integer value.
+        do {
+            out.println("Enter the number of submarines. The number of this type of ship should be 0 or above: ");
+            while (!in.hasNextInt()) {
+                out.println("Incorrect input. Try again.");
+                in.next();
+            }
+            submarines = in.nextInt();
+        } while (submarines < 0);
+        return submarines;
+    }
+}
@@ -0,0 +1,131 @@
+package battleship;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Scans of the ocean that work on as many cells at once as the processor can.
+ * It needs the module jdk.incubator.vector, so it is compiled and run with
+ * {@code --add-modules jdk.incubator.vector}, and {@link PlacementScan#best()} loads it only when it can.
+ */
+class VectorPlacementScan extends PlacementScan {
+    /**
+     * The widest shape of vectors of bytes of the processor.
+     */
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+
+    VectorPlacementScan() {
+    }
+
+    @Override
+    String getName() {
+        return "vector " + SPECIES.vectorBitSize() + " bits";
+    }
+
+    @Override
+    void legalHorizontal(byte[] free, int length, int width, int shipLength, byte[] legal) {
+        int anchors = Math.max(width - shipLength + 1, 0);
+        int bound = SPECIES.loopBound(anchors);
+        for (int i = 0; i < length; i++) {
+            int row = i * width;
+            int j = 0;
+            // A position is legal if all cells from its first one to its last one are free.
+            for (; j < bound; j += SPECIES.length()) {
+                ByteVector cells = ByteVector.fromArray(SPECIES, free, row + j);
+                for (int k = 1; k < shipLength; k++) {
+                    cells = cells.and(ByteVector.fromArray(SPECIES, free, row + j + k));
+                }
+                cells.intoArray(legal, row + j);
+            }
+            for (; j < anchors; j++) {
+                byte cell = free[row + j];
+                for (int k = 1; k < shipLength; k++) {
+                    cell &= free[row + j + k];
+                }
+                legal[row + j] = cell;
+            }
+            for (; j < width; j++) {
+                legal[row + j] = 0;
+            }
+        }
+    }
+
+    @Override
+    void legalVertical(byte[] free, int length, int width, int shipLength, byte[] legal) {
+        int bound = SPECIES.loopBound(width);
+        for (int i = 0; i < length; i++) {
+            int row = i * width;
+            if (i + shipLength > length) {
+                for (int j = 0; j < width; j++) {
+                    legal[row + j] = 0;
+                }
+                continue;
+            }
+            int j = 0;
+            for (; j < bound; j += SPECIES.length()) {
+                ByteVector cells = ByteVector.fromArray(SPECIES, free, row + j);
+                for (int k = 1; k < shipLength; k++) {
+                    cells = cells.and(ByteVector.fromArray(SPECIES, free, row + k * width + j));
+                }
+                cells.intoArray(legal, row + j);
+            }
+            for (; j < width; j++) {
+                byte cell = free[row + j];
+                for (int k = 1; k < shipLength; k++) {
+                    cell &= free[row + k * width + j];
+                }
+                legal[row + j] = cell;
+            }
+        }
+    }
+
+    @Override
+    void addDensity(byte[] legal, int length, int width, int shipLength, boolean vertical, byte[] density) {
+        if (vertical) {
+            int bound = SPECIES.loopBound(width);
+            for (int i = 0; i < length; i++) {
+                int row = i * width;
+                int first = Math.max(i - shipLength + 1, 0);
+                int j = 0;
+                // Every cell is covered by the positions that start up to the length of the ship above it.
+                for (; j < bound; j += SPECIES.length()) {
+                    ByteVector sum = ByteVector.fromArray(SPECIES, density, row + j);
+                    for (int k = first; k <= i; k++) {
+                        sum = sum.add(ByteVector.fromArray(SPECIES, legal, k * width + j));
+                    }
+                    sum.intoArray(density, row + j);
+                }
+                for (; j < width; j++) {
+                    for (int k = first; k <= i; k++) {
+                        density[row + j] += legal[k * width + j];
+                    }
+                }
+            }
+            return;
+        }
+        int start = Math.min(shipLength - 1, width);
+        int bound = start + SPECIES.loopBound(width - start);
+        for (int i = 0; i < length; i++) {
+            int row = i * width;
+            int j = 0;
+            // The first cells of a row are covered by fewer positions.
+            for (; j < start; j++) {
+                for (int k = 0; k <= j; k++) {
+                    density[row + j] += legal[row + j - k];
+                }
+            }
+            for (; j < bound; j += SPECIES.length()) {
+                ByteVector sum = ByteVector.fromArray(SPECIES, density, row + j);
+                for (int k = 0; k < shipLength; k++) {
+                    sum = sum.add(ByteVector.fromArray(SPECIES, legal, row + j - k));
+                }
+                sum.intoArray(density, row + j);
+            }
+            for (; j < width; j++) {
+                for (int k = 0; k < shipLength; k++) {
+                    density[row + j] += legal[row + j - k];
+                }
+            }
+        }
+    }
+}